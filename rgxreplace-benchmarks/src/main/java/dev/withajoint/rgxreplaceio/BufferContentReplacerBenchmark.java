@@ -0,0 +1,54 @@
+package dev.withajoint.rgxreplaceio;
+
+import dev.withajoint.rgxreplaceio.benchmarks.BenchmarkInput;
+import dev.withajoint.rgxreplaceio.benchmarks.BenchmarkInput.MatchDensity;
+import dev.withajoint.rgxreplaceio.benchmarks.BenchmarkInput.PatternType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BufferContentReplacerBenchmark {
+
+    @Param({"1024", "8192", "65536"})
+    private int bufferSize;
+
+    @Param({"NONE", "SPARSE", "DENSE"})
+    private MatchDensity matchDensity;
+
+    @Param({"LITERAL", "ALTERNATION", "BACKTRACKING"})
+    private PatternType patternType;
+
+    private BufferContentReplacer replacer;
+    private char[] content;
+    private char[] buffer;
+
+    @Setup
+    public void prepareBuffer() {
+        replacer = new BufferContentReplacer(patternType.regex(), BenchmarkInput.REPLACEMENT);
+        content = BenchmarkInput.generate(patternType, matchDensity, bufferSize).toCharArray();
+        buffer = new char[bufferSize];
+    }
+
+    @Benchmark
+    public int replaceMatchesIfAny() {
+        System.arraycopy(content, 0, buffer, 0, bufferSize);
+        buffer = replacer.replaceMatchesIfAny(buffer, bufferSize, true);
+        return replacer.getCharsAfterReplacement();
+    }
+}
@@ -0,0 +1,68 @@
+package dev.withajoint.rgxreplaceio.benchmarks;
+
+import java.util.Random;
+
+public final class BenchmarkInput {
+
+    public enum PatternType {
+        LITERAL("ERROR-4242", "ERROR-4242"),
+        ALTERNATION("alpha|bravo|charlie|delta|echo", "charlie"),
+        BACKTRACKING("\\b\\w+ing\\b", "running");
+
+        private final String regex;
+        private final String match;
+
+        PatternType(String regex, String match) {
+            this.regex = regex;
+            this.match = match;
+        }
+
+        public String regex() {
+            return regex;
+        }
+    }
+
+    public enum MatchDensity {
+        NONE(0),
+        SPARSE(1024),
+        DENSE(32);
+
+        private final int charsPerMatch;
+
+        MatchDensity(int charsPerMatch) {
+            this.charsPerMatch = charsPerMatch;
+        }
+    }
+
+    public static final String REPLACEMENT = "<redacted>";
+
+    private static final String[] FILLER_WORDS = {
+            "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipisci", "elit", "sed", "do", "eiusmod", "tempor"
+    };
+    private static final int CHARS_PER_LINE = 80;
+
+    private BenchmarkInput() {
+    }
+
+    public static String generate(PatternType patternType, MatchDensity density, int length) {
+        Random random = new Random(42);
+        StringBuilder input = new StringBuilder(length + CHARS_PER_LINE);
+        int lineStart = 0;
+        int nextMatchAt = density.charsPerMatch;
+        while (input.length() < length) {
+            if (density != MatchDensity.NONE && input.length() >= nextMatchAt) {
+                input.append(patternType.match);
+                nextMatchAt += density.charsPerMatch;
+            } else {
+                input.append(FILLER_WORDS[random.nextInt(FILLER_WORDS.length)]);
+            }
+            if (input.length() - lineStart >= CHARS_PER_LINE) {
+                input.append('\n');
+                lineStart = input.length();
+            } else {
+                input.append(' ');
+            }
+        }
+        return input.substring(0, length);
+    }
+}
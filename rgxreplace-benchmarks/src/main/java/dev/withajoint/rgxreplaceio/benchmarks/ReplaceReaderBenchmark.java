@@ -0,0 +1,82 @@
+package dev.withajoint.rgxreplaceio.benchmarks;
+
+import dev.withajoint.rgxreplaceio.ReplaceReader;
+import dev.withajoint.rgxreplaceio.benchmarks.BenchmarkInput.MatchDensity;
+import dev.withajoint.rgxreplaceio.benchmarks.BenchmarkInput.PatternType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplaceReaderBenchmark {
+
+    @Param({"1024", "8192", "65536"})
+    private int bufferSize;
+
+    @Param({"NONE", "SPARSE", "DENSE"})
+    private MatchDensity matchDensity;
+
+    @Param({"LITERAL", "ALTERNATION", "BACKTRACKING"})
+    private PatternType patternType;
+
+    @Param({"65536", "4194304"})
+    private int inputSize;
+
+    private String input;
+    private char[] readBuffer;
+
+    @Setup
+    public void generateInput() {
+        input = BenchmarkInput.generate(patternType, matchDensity, inputSize);
+        readBuffer = new char[8192];
+    }
+
+    @Benchmark
+    public void readCharByChar(Blackhole blackhole) throws IOException {
+        try (ReplaceReader reader = newReader()) {
+            int c;
+            while ((c = reader.read()) != -1)
+                blackhole.consume(c);
+        }
+    }
+
+    @Benchmark
+    public void readIntoArray(Blackhole blackhole) throws IOException {
+        try (ReplaceReader reader = newReader()) {
+            int charsRead;
+            while ((charsRead = reader.read(readBuffer, 0, readBuffer.length)) != -1)
+                blackhole.consume(charsRead);
+        }
+    }
+
+    @Benchmark
+    public void readLine(Blackhole blackhole) throws IOException {
+        try (ReplaceReader reader = newReader()) {
+            String line;
+            while ((line = reader.readLine()) != null)
+                blackhole.consume(line);
+        }
+    }
+
+    private ReplaceReader newReader() {
+        return new ReplaceReader(new StringReader(input), patternType.regex(), BenchmarkInput.REPLACEMENT, bufferSize);
+    }
+}
@@ -0,0 +1,76 @@
+package dev.withajoint.rgxreplaceio.benchmarks;
+
+import dev.withajoint.rgxreplaceio.ReplaceWriter;
+import dev.withajoint.rgxreplaceio.benchmarks.BenchmarkInput.MatchDensity;
+import dev.withajoint.rgxreplaceio.benchmarks.BenchmarkInput.PatternType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplaceWriterBenchmark {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    @Param({"1024", "8192", "65536"})
+    private int bufferSize;
+
+    @Param({"NONE", "SPARSE", "DENSE"})
+    private MatchDensity matchDensity;
+
+    @Param({"LITERAL", "ALTERNATION", "BACKTRACKING"})
+    private PatternType patternType;
+
+    @Param({"65536", "4194304"})
+    private int inputSize;
+
+    private char[] input;
+
+    @Setup
+    public void generateInput() {
+        input = BenchmarkInput.generate(patternType, matchDensity, inputSize).toCharArray();
+    }
+
+    @Benchmark
+    public StringWriter writeCharByChar() throws IOException {
+        StringWriter out = new StringWriter(input.length);
+        try (ReplaceWriter writer = newWriter(out)) {
+            for (char c : input)
+                writer.write(c);
+            writer.flush();
+        }
+        return out;
+    }
+
+    @Benchmark
+    public StringWriter writeArrayChunks() throws IOException {
+        StringWriter out = new StringWriter(input.length);
+        try (ReplaceWriter writer = newWriter(out)) {
+            for (int offset = 0; offset < input.length; offset += CHUNK_SIZE)
+                writer.write(input, offset, Math.min(CHUNK_SIZE, input.length - offset));
+            writer.flush();
+        }
+        return out;
+    }
+
+    private ReplaceWriter newWriter(StringWriter out) {
+        return new ReplaceWriter(out, patternType.regex(), BenchmarkInput.REPLACEMENT, bufferSize);
+    }
+}
@@ -0,0 +1,55 @@
+package dev.withajoint.rgxreplaceio.benchmarks;
+
+import dev.withajoint.rgxreplaceio.benchmarks.BenchmarkInput.MatchDensity;
+import dev.withajoint.rgxreplaceio.benchmarks.BenchmarkInput.PatternType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringReplaceAllBaseline {
+
+    @Param({"NONE", "SPARSE", "DENSE"})
+    private MatchDensity matchDensity;
+
+    @Param({"LITERAL", "ALTERNATION", "BACKTRACKING"})
+    private PatternType patternType;
+
+    @Param({"65536", "4194304"})
+    private int inputSize;
+
+    private String input;
+    private Pattern pattern;
+
+    @Setup
+    public void generateInput() {
+        input = BenchmarkInput.generate(patternType, matchDensity, inputSize);
+        pattern = Pattern.compile(patternType.regex());
+    }
+
+    @Benchmark
+    public String stringReplaceAll() {
+        return input.replaceAll(patternType.regex(), BenchmarkInput.REPLACEMENT);
+    }
+
+    @Benchmark
+    public String precompiledReplaceAll() {
+        return pattern.matcher(input).replaceAll(BenchmarkInput.REPLACEMENT);
+    }
+}
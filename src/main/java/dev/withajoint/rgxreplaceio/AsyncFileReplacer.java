@@ -0,0 +1,252 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+final class AsyncFileReplacer {
+
+    static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+    static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    private final Path in;
+    private final ByteChunkReplacer chunkReplacer;
+    private final int chunkSize;
+    private final int maxInFlight;
+    private final CompletableFuture<FileReplacement> result;
+    private final ReadHandler readHandler;
+    private final WriteHandler writeHandler;
+    private final ByteBuffer[] readChunks;
+    private final long startTime;
+    private AsynchronousFileChannel input;
+    private AsynchronousFileChannel output;
+    private long inputSize;
+    private long chunkCount;
+    private long nextChunkToRead;
+    private long nextChunkToReplace;
+    private long bytesRead;
+    private long bytesWritten;
+    private long writePosition;
+    private int pendingWrites;
+    private boolean replacing;
+    private boolean replacedAll;
+    private boolean done;
+
+    AsyncFileReplacer(Path in, ByteChunkReplacer chunkReplacer, int chunkSize, int maxInFlight) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Chunk size <= 0");
+        if (maxInFlight <= 0)
+            throw new IllegalArgumentException("Max in flight <= 0");
+        this.in = in;
+        this.chunkReplacer = chunkReplacer;
+        this.chunkSize = chunkSize;
+        this.maxInFlight = maxInFlight;
+        result = new CompletableFuture<>();
+        readHandler = new ReadHandler();
+        writeHandler = new WriteHandler();
+        readChunks = new ByteBuffer[maxInFlight];
+        startTime = System.nanoTime();
+    }
+
+    CompletableFuture<FileReplacement> replace(Path out) {
+        try {
+            synchronized (this) {
+                input = AsynchronousFileChannel.open(in, StandardOpenOption.READ);
+                output = AsynchronousFileChannel.open(out, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                inputSize = input.size();
+                chunkCount = (inputSize + chunkSize - 1) / chunkSize;
+                while (nextChunkToRead < chunkCount && nextChunkToRead < maxInFlight)
+                    read(nextChunkToRead++);
+            }
+            replaceReadChunks();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+        return result;
+    }
+
+    private void read(long chunk) {
+        long position = chunk * chunkSize;
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(chunkSize, inputSize - position));
+        input.read(buffer, position, new ChunkRead(chunk, position, buffer), readHandler);
+    }
+
+    private void replaceReadChunks() {
+        synchronized (this) {
+            if (replacing || done)
+                return;
+            replacing = true;
+        }
+        try {
+            while (true) {
+                ByteBuffer chunk;
+                synchronized (this) {
+                    if (done) {
+                        replacing = false;
+                        return;
+                    }
+                    chunk = nextReadChunk();
+                    if (chunk == null && (replacedAll || nextChunkToReplace < chunkCount || pendingWrites >= maxInFlight)) {
+                        replacing = false;
+                        completeIfWritten();
+                        return;
+                    }
+                    replacedAll = chunk == null;
+                }
+                ByteBuffer replacedChunk = chunkReplacer.replace(chunk, chunk == null);
+                if (replacedChunk != null)
+                    write(replacedChunk);
+            }
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private ByteBuffer nextReadChunk() {
+        if (pendingWrites >= maxInFlight || nextChunkToReplace == chunkCount)
+            return null;
+        int slot = (int) (nextChunkToReplace % maxInFlight);
+        ByteBuffer chunk = readChunks[slot];
+        if (chunk == null)
+            return null;
+        readChunks[slot] = null;
+        nextChunkToReplace++;
+        if (nextChunkToRead < chunkCount)
+            read(nextChunkToRead++);
+        return chunk;
+    }
+
+    private synchronized void write(ByteBuffer replacedChunk) {
+        if (done)
+            return;
+        long position = writePosition;
+        writePosition += replacedChunk.remaining();
+        pendingWrites++;
+        output.write(replacedChunk, position, new ChunkWrite(position, replacedChunk), writeHandler);
+    }
+
+    private void completeIfWritten() {
+        if (!replacedAll || pendingWrites > 0 || done)
+            return;
+        done = true;
+        try {
+            closeChannels();
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+        result.complete(new FileReplacement(in, bytesRead, bytesWritten, chunkReplacer.getMatchesReplaced(), elapsed, null));
+    }
+
+    private void fail(Throwable failure) {
+        synchronized (this) {
+            if (done)
+                return;
+            done = true;
+        }
+        try {
+            closeChannels();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+        result.completeExceptionally(failure);
+    }
+
+    private void closeChannels() throws IOException {
+        try {
+            closeChannel(output);
+        } catch (IOException e) {
+            try {
+                closeChannel(input);
+            } catch (IOException inputFailure) {
+                e.addSuppressed(inputFailure);
+            }
+            throw e;
+        }
+        closeChannel(input);
+    }
+
+    private static void closeChannel(AsynchronousFileChannel channel) throws IOException {
+        if (channel != null)
+            channel.close();
+    }
+
+    private static final class ChunkRead {
+
+        private final long chunk;
+        private final long position;
+        private final ByteBuffer buffer;
+
+        private ChunkRead(long chunk, long position, ByteBuffer buffer) {
+            this.chunk = chunk;
+            this.position = position;
+            this.buffer = buffer;
+        }
+    }
+
+    private static final class ChunkWrite {
+
+        private final long position;
+        private final ByteBuffer buffer;
+
+        private ChunkWrite(long position, ByteBuffer buffer) {
+            this.position = position;
+            this.buffer = buffer;
+        }
+    }
+
+    private final class ReadHandler implements CompletionHandler<Integer, ChunkRead> {
+
+        @Override
+        public void completed(Integer bytes, ChunkRead read) {
+            synchronized (AsyncFileReplacer.this) {
+                if (done)
+                    return;
+                if (bytes != -1) {
+                    bytesRead += bytes;
+                    if (read.buffer.hasRemaining()) {
+                        input.read(read.buffer, read.position + read.buffer.position(), read, this);
+                        return;
+                    }
+                }
+                readChunks[(int) (read.chunk % maxInFlight)] = read.buffer.flip();
+            }
+            replaceReadChunks();
+        }
+
+        @Override
+        public void failed(Throwable failure, ChunkRead read) {
+            fail(failure);
+        }
+    }
+
+    private final class WriteHandler implements CompletionHandler<Integer, ChunkWrite> {
+
+        @Override
+        public void completed(Integer bytes, ChunkWrite write) {
+            synchronized (AsyncFileReplacer.this) {
+                if (done)
+                    return;
+                bytesWritten += bytes;
+                if (write.buffer.hasRemaining()) {
+                    output.write(write.buffer, write.position + write.buffer.position(), write, this);
+                    return;
+                }
+                pendingWrites--;
+            }
+            replaceReadChunks();
+        }
+
+        @Override
+        public void failed(Throwable failure, ChunkWrite write) {
+            fail(failure);
+        }
+    }
+}
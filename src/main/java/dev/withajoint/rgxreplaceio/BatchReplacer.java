@@ -0,0 +1,127 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class BatchReplacer {
+
+    private final Pattern pattern;
+    private final ByteReplacementTemplate replaceWith;
+    private final int maxConcurrency;
+    private final int windowSize;
+
+    BatchReplacer(String regex, String replaceWith, ByteEncoding encoding, int maxConcurrency) {
+        this(regex, replaceWith, encoding, maxConcurrency, MappedContentReplacer.DEFAULT_WINDOW_SIZE);
+    }
+
+    BatchReplacer(String regex, String replaceWith, ByteEncoding encoding, int maxConcurrency, int windowSize) {
+        if (maxConcurrency <= 0)
+            throw new IllegalArgumentException("Max concurrency <= 0");
+        pattern = MappedContentReplacer.compile(regex, encoding);
+        this.replaceWith = ByteReplacementTemplate.compile(replaceWith, pattern, encoding);
+        this.maxConcurrency = maxConcurrency;
+        this.windowSize = windowSize;
+    }
+
+    List<FileReplacement> replaceAll(Stream<Path> files) throws InterruptedException {
+        List<Path> filesToReplace = files.filter(BatchReplacer::isReplaceable).collect(Collectors.toList());
+        ExecutorService executor = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "rgxreplace-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<FileReplacement>> pendingReplacements = new ArrayList<>();
+        try {
+            for (Path file : filesToReplace)
+                pendingReplacements.add(executor.submit(() -> replaceInPlace(file)));
+            List<FileReplacement> replacements = new ArrayList<>(pendingReplacements.size());
+            for (Future<FileReplacement> pendingReplacement : pendingReplacements)
+                replacements.add(getResult(pendingReplacement));
+            return replacements;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean isReplaceable(Path file) {
+        return Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) || Files.notExists(file, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    private static FileReplacement getResult(Future<FileReplacement> pendingReplacement) throws InterruptedException {
+        try {
+            return pendingReplacement.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unexpected failure of a file replacement", e.getCause());
+        }
+    }
+
+    FileReplacement replaceInPlace(Path file) {
+        long startTime = System.nanoTime();
+        Path temporaryFile = null;
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            temporaryFile = Files.createTempFile(directory, "." + file.getFileName(), ".tmp");
+            long bytesRead;
+            long bytesWritten;
+            long replacements;
+            try (FileChannel input = FileChannel.open(file, StandardOpenOption.READ);
+                 FileChannel output = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                replacements = new MappedContentReplacer(pattern, replaceWith, windowSize).replace(input, output);
+                bytesRead = input.size();
+                bytesWritten = output.size();
+            }
+            if (replacements > 0) {
+                copyPermissions(file, temporaryFile);
+                moveAtomically(temporaryFile, file);
+            }
+            return new FileReplacement(file, bytesRead, bytesWritten, replacements, elapsedSince(startTime), null);
+        } catch (IOException | RuntimeException e) {
+            return new FileReplacement(file, 0, 0, 0, elapsedSince(startTime), e);
+        } finally {
+            deleteQuietly(temporaryFile);
+        }
+    }
+
+    private static void copyPermissions(Path source, Path target) throws IOException {
+        if (Files.getFileAttributeView(source, PosixFileAttributeView.class) != null)
+            Files.setPosixFilePermissions(target, Files.getPosixFilePermissions(source));
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null)
+            return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static Duration elapsedSince(long startTime) {
+        return Duration.ofNanos(System.nanoTime() - startTime);
+    }
+}
@@ -1,95 +1,242 @@
 package dev.withajoint.rgxreplaceio;
 
-import java.util.regex.Matcher;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.regex.Pattern;
 
-class BufferContentReplacer {
+class BufferContentReplacer implements DirectContentReplacer {
+
+    static final int DEFAULT_MAX_CARRY_OVER = MatchScanner.DEFAULT_MAX_CARRY_OVER;
+    static final int MAX_CONTEXT_LENGTH = MatchScanner.MAX_CONTEXT_LENGTH;
 
-    private String bufferContent;
-    private int bufferSize;
-    private Matcher matcher;
     private final Pattern pattern;
-    private final String replaceWith;
+    private final CharArraySequence bufferContent;
+    private final MatchScanner scanner;
+    private final ReplacementTemplate replaceWith;
+    private final MatchReplacer matchReplacer;
+    private final ReplacementOutput output;
+    private final ReplacementSink sink;
+    private final WriterSink writerSink;
+    private int charsInBuffer;
     private int incompleteMatchStartIndex;
     private int charsAfterReplacement;
+    private final char[] context;
+    private int contextLength;
+    private int matchesReplaced;
 
     BufferContentReplacer(String regex, String replaceWith) {
-        if (regex.isBlank())
-            throw new IllegalArgumentException("Invalid regex");
+        this(regex, replaceWith, DEFAULT_MAX_CARRY_OVER);
+    }
+
+    BufferContentReplacer(String regex, String replaceWith, int maxCarryOver) {
+        this(compile(regex), replaceWith, maxCarryOver);
+    }
+
+    private BufferContentReplacer(Pattern pattern, String replaceWith, int maxCarryOver) {
+        this(pattern, ReplacementTemplate.compile(replaceWith, pattern), null, maxCarryOver);
+    }
+
+    BufferContentReplacer(Pattern pattern, ReplacementTemplate replaceWith) {
+        this(pattern, replaceWith, null, DEFAULT_MAX_CARRY_OVER);
+    }
+
+    BufferContentReplacer(String regex, MatchReplacer matchReplacer) {
+        this(compile(regex), matchReplacer);
+    }
+
+    BufferContentReplacer(Pattern pattern, MatchReplacer matchReplacer) {
+        this(pattern, null, matchReplacer, DEFAULT_MAX_CARRY_OVER);
+    }
+
+    private BufferContentReplacer(Pattern pattern, ReplacementTemplate replaceWith, MatchReplacer matchReplacer, int maxCarryOver) {
+        this.pattern = pattern;
         this.replaceWith = replaceWith;
-        pattern = Pattern.compile(regex);
+        this.matchReplacer = matchReplacer;
+        bufferContent = new CharArraySequence();
+        scanner = new MatchScanner(pattern, bufferContent, maxCarryOver);
+        output = new ReplacementOutput();
+        sink = new ReplacementSink(output);
+        writerSink = new WriterSink();
+        context = new char[MAX_CONTEXT_LENGTH];
         incompleteMatchStartIndex = -1;
     }
 
+    static Pattern compile(String regex) {
+        if (regex.isBlank())
+            throw new IllegalArgumentException("Invalid regex");
+        return Pattern.compile(regex);
+    }
+
     char[] replaceMatchesIfAny(char[] buffer, final int charsInBuffer) {
-        resetReplacer(buffer, charsInBuffer);
-        if (isMatchingValid()) {
-            replaceContent();
-            buffer = adjustContentInBuffer();
-        }
+        return replaceMatchesIfAny(buffer, charsInBuffer, false);
+    }
+
+    @Override
+    public char[] replaceMatchesIfAny(char[] buffer, final int charsInBuffer, final boolean endOfInput) {
+        return replaceMatchesIfAny(buffer, 0, charsInBuffer, endOfInput);
+    }
+
+    @Override
+    public char[] replaceMatchesIfAny(char[] buffer, final int contextLength, final int charsInBuffer,
+                                      final boolean endOfInput) {
+        resetReplacer(buffer, contextLength, charsInBuffer, endOfInput);
+        if (scanner.nextMatch())
+            return replaceContent(buffer);
+        int partialMatchStart = scanner.unresolvedMatchStart();
+        if (partialMatchStart != -1)
+            markIncompleteMatch(partialMatchStart);
+        saveContext(buffer, partialMatchStart != -1 ? partialMatchStart : charsInBuffer);
         return buffer;
     }
 
-    private void resetReplacer(final char[] buffer, final int charsInBuffer) {
-        bufferContent = String.valueOf(buffer, 0, charsInBuffer);
-        bufferSize = buffer.length;
-        matcher = pattern.matcher(bufferContent);
+    private void resetReplacer(final char[] buffer, final int contextLength, final int charsInBuffer,
+                               final boolean endOfInput) {
+        resetScanner(buffer, contextLength, charsInBuffer, endOfInput);
+        output.reset(buffer.length);
+    }
+
+    private void resetScanner(final char[] buffer, final int contextLength, final int charsInBuffer,
+                              final boolean endOfInput) {
+        if (contextLength < 0 || contextLength > charsInBuffer)
+            throw new IndexOutOfBoundsException("context: " + contextLength + ", length: " + charsInBuffer);
+        bufferContent.reset(buffer, charsInBuffer);
+        scanner.reset(contextLength, charsInBuffer, endOfInput);
+        this.charsInBuffer = charsInBuffer;
         charsAfterReplacement = charsInBuffer;
         incompleteMatchStartIndex = -1;
+        this.contextLength = 0;
+        matchesReplaced = 0;
+    }
+
+    private void saveContext(final char[] buffer, final int carryStart) {
+        contextLength = Math.min(MAX_CONTEXT_LENGTH, carryStart);
+        System.arraycopy(buffer, carryStart - contextLength, context, 0, contextLength);
     }
 
-    private boolean isMatchingValid() {
-        if (matcher.find()) {
-            if (isWholeBufferMatching())
-                throw new IllegalStateException("Regex match too broad, increase buffer size");
-            return true;
+    @Override
+    public int writeMatchesReplaced(final char[] buffer, final int contextLength, final int charsInBuffer,
+                                    final boolean endOfInput, final Writer out) throws IOException {
+        resetScanner(buffer, contextLength, charsInBuffer, endOfInput);
+        int writePosition = contextLength;
+        int charsWritten = 0;
+        while (scanner.nextMatch()) {
+            charsWritten += writeSpan(out, buffer, writePosition, scanner.start());
+            charsWritten += writeReplacement(out, buffer);
+            writePosition = scanner.end();
+            matchesReplaced++;
         }
-        return false;
+        int resolvedChars = charsInBuffer;
+        int unresolvedMatchStart = scanner.unresolvedMatchStart();
+        if (unresolvedMatchStart != -1) {
+            resolvedChars = unresolvedMatchStart;
+            markIncompleteMatch(unresolvedMatchStart);
+        }
+        charsWritten += writeSpan(out, buffer, writePosition, resolvedChars);
+        charsAfterReplacement = charsWritten;
+        saveContext(buffer, resolvedChars);
+        return resolvedChars;
     }
 
-    private boolean isWholeBufferMatching() {
-        return matcher.end() == bufferSize && matcher.start() == 0;
+    private static int writeSpan(final Writer out, final char[] buffer, final int start, final int end) throws IOException {
+        if (start < end)
+            out.write(buffer, start, end - start);
+        return end - start;
     }
 
-    private void replaceContent() {
-        bufferContent = matcher.replaceAll(matchResult -> {
-            if (matchResult.end() == bufferSize) {
-                incompleteMatchStartIndex = matcher.start();
-                return matchResult.group();
-            }
-            charsAfterReplacement += replaceWith.length() - matchResult.group().length();
-            return replaceWith;
-        });
+    private int writeReplacement(final Writer out, final char[] buffer) throws IOException {
+        if (matchReplacer == null)
+            return replaceWith.writeTo(out, buffer, scanner.match());
+        writerSink.reset(out);
+        matchReplacer.replace(scanner.match(), writerSink);
+        return writerSink.charsWritten();
     }
 
-    private char[] adjustContentInBuffer() {
-        return bufferContent.length() > bufferSize ? putLongerContentInBuffer() : putContentInBuffer();
+    private char[] replaceContent(final char[] buffer) {
+        int appendPosition = 0;
+        do {
+            appendToOutput(buffer, appendPosition, scanner.start());
+            appendReplacement(buffer, scanner.end());
+            appendPosition = scanner.end();
+            matchesReplaced++;
+        } while (scanner.nextMatch());
+        int unresolvedMatchStart = scanner.unresolvedMatchStart();
+        saveContext(buffer, unresolvedMatchStart != -1 ? unresolvedMatchStart : charsInBuffer);
+        if (unresolvedMatchStart != -1) {
+            appendToOutput(buffer, appendPosition, unresolvedMatchStart);
+            appendPosition = unresolvedMatchStart;
+            markIncompleteMatch(output.length());
+        }
+        appendToOutput(buffer, appendPosition, charsInBuffer);
+        charsAfterReplacement = output.length();
+        return output.swap(buffer);
     }
 
-    private char[] putLongerContentInBuffer() {
-        if (incompleteMatchStartIndex != -1)
-            incompleteMatchStartIndex += bufferContent.length() - bufferSize;
-        return bufferContent.toCharArray();
+    private void markIncompleteMatch(final int startIndexAfterReplacement) {
+        incompleteMatchStartIndex = startIndexAfterReplacement;
     }
 
-    private char[] putContentInBuffer() {
-        char[] bufferReplaced = new char[bufferSize];
-        char[] tmpBuffer = bufferContent.toCharArray();
-        System.arraycopy(tmpBuffer, 0, bufferReplaced, 0, tmpBuffer.length);
-        return bufferReplaced;
+    private void appendToOutput(final char[] buffer, final int start, final int end) {
+        output.append(buffer, start, end - start, charsInBuffer - end);
+    }
+
+    private void appendReplacement(final char[] buffer, final int inputPosition) {
+        if (matchReplacer == null) {
+            replaceWith.appendTo(output, buffer, scanner.match(), charsInBuffer - inputPosition);
+            return;
+        }
+        sink.expect(charsInBuffer - inputPosition);
+        try {
+            matchReplacer.replace(scanner.match(), sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    int getCharsAfterReplacement() {
+    @Override
+    public int getCharsAfterReplacement() {
         return charsAfterReplacement;
     }
 
-    boolean isLastMatchIncomplete() {
+    @Override
+    public int getMatchesReplaced() {
+        return matchesReplaced;
+    }
+
+    @Override
+    public String getPattern() {
+        return pattern.pattern();
+    }
+
+    @Override
+    public boolean isLastMatchIncomplete() {
         return incompleteMatchStartIndex != -1;
     }
 
-    int getIncompleteMatchStartIndex() {
+    @Override
+    public int getIncompleteMatchStartIndex() {
         return incompleteMatchStartIndex;
     }
 
+    @Override
+    public int getContextLength() {
+        return contextLength;
+    }
 
+    @Override
+    public void copyContext(char[] target, int length) {
+        if (length < 0 || length > contextLength)
+            throw new IndexOutOfBoundsException("length: " + length + ", context: " + contextLength);
+        System.arraycopy(context, contextLength - length, target, 0, length);
+    }
+
+    @Override
+    public void setBufferPool(CharBufferPool bufferPool) {
+        output.setBufferPool(bufferPool);
+    }
+
+    @Override
+    public void releaseBuffers() {
+        output.release();
+    }
 }
@@ -0,0 +1,33 @@
+package dev.withajoint.rgxreplaceio;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("dev.withajoint.rgxreplaceio.BufferReplacement")
+@Label("Buffer Replacement")
+@Category("RgxReplaceIO")
+@Description("Replacement pass over a stream buffer that took longer than the threshold")
+@Threshold("10 ms")
+@StackTrace(false)
+final class BufferReplacementEvent extends Event {
+
+    @Label("Stream Id")
+    long streamId;
+
+    @Label("Pattern")
+    String pattern;
+
+    @Label("Chars")
+    int chars;
+
+    @Label("Matches Replaced")
+    int matchesReplaced;
+
+    @Label("End Of Input")
+    boolean endOfInput;
+}
@@ -0,0 +1,28 @@
+package dev.withajoint.rgxreplaceio;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.withajoint.rgxreplaceio.BufferResize")
+@Label("Buffer Resize")
+@Category("RgxReplaceIO")
+@Description("Stream buffer grown for an unresolved match or shrunk back afterwards")
+@StackTrace(false)
+final class BufferResizeEvent extends Event {
+
+    @Label("Stream Id")
+    long streamId;
+
+    @Label("Pattern")
+    String pattern;
+
+    @Label("Previous Size")
+    int previousSize;
+
+    @Label("Size")
+    int size;
+}
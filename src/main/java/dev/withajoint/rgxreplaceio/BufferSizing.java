@@ -0,0 +1,76 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.util.Arrays;
+
+final class BufferSizing {
+
+    static final int DEFAULT_INITIAL_SIZE = 4096;
+    static final int DEFAULT_MAX_SIZE = 1024 * 1024;
+
+    private final int initialSize;
+    private final int maxSize;
+
+    BufferSizing(int initialSize, int maxSize) {
+        if (initialSize <= 0)
+            throw new IllegalArgumentException("Buffer size <= 0");
+        if (maxSize < initialSize)
+            throw new IllegalArgumentException("Max buffer size < buffer size");
+        this.initialSize = initialSize;
+        this.maxSize = maxSize;
+    }
+
+    static BufferSizing withDefaultMax(int initialSize) {
+        return new BufferSizing(initialSize, Math.max(initialSize, DEFAULT_MAX_SIZE));
+    }
+
+    int initialSize() {
+        return initialSize;
+    }
+
+    int maxSize() {
+        return maxSize;
+    }
+
+    char[] resize(final char[] buffer, final int contentLength) {
+        return resize(buffer, contentLength, CharBufferPool.NONE);
+    }
+
+    char[] resize(final char[] buffer, final int contentLength, final CharBufferPool bufferPool) {
+        int resizedLength = buffer.length;
+        if (contentLength == buffer.length)
+            resizedLength = grownLength(buffer.length);
+        else if (isIdle(buffer.length, contentLength))
+            resizedLength = initialSize;
+        if (resizedLength == buffer.length)
+            return buffer;
+        char[] resizedBuffer = bufferPool.acquire(resizedLength);
+        System.arraycopy(buffer, 0, resizedBuffer, 0, contentLength);
+        bufferPool.release(buffer);
+        return resizedBuffer;
+    }
+
+    byte[] resize(final byte[] buffer, final int contentLength) {
+        if (contentLength == buffer.length)
+            return Arrays.copyOf(buffer, grownLength(buffer.length));
+        if (isIdle(buffer.length, contentLength))
+            return Arrays.copyOf(buffer, initialSize);
+        return buffer;
+    }
+
+    byte[] reserveContext(final byte[] buffer, final int carriedLength, final int contextLength) {
+        int requiredLength = carriedLength + 2 * contextLength;
+        if (requiredLength <= buffer.length || buffer.length >= maxSize)
+            return buffer;
+        return Arrays.copyOf(buffer, (int) Math.min(maxSize, Math.max(requiredLength, buffer.length * 2L)));
+    }
+
+    private int grownLength(final int length) {
+        if (length >= maxSize)
+            throw new IllegalStateException("Regex match too broad, increase max buffer size");
+        return (int) Math.min(maxSize, length * 2L);
+    }
+
+    private boolean isIdle(final int length, final int contentLength) {
+        return length > initialSize && contentLength <= initialSize / 2;
+    }
+}
@@ -0,0 +1,46 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+final class ByteBufferSequence implements CharSequence {
+
+    private ByteBuffer bytes;
+    private int length;
+
+    ByteBufferSequence() {
+        bytes = ByteBuffer.allocate(0);
+        length = 0;
+    }
+
+    void reset(final ByteBuffer bytes) {
+        this.bytes = bytes;
+        length = bytes.limit();
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        return (char) (bytes.get(index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end)
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+        byte[] content = new byte[end - start];
+        bytes.duplicate().position(start).get(content);
+        return new String(content, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length).toString();
+    }
+}
@@ -0,0 +1,79 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+final class ByteChunkReplacer {
+
+    private final ByteContentReplacer contentReplacer;
+    private final BufferSizing bufferSizing;
+    private byte[] buffer;
+    private int bytesInBuffer;
+    private int contextLength;
+    private byte[] replacedBytes;
+    private int replacedLength;
+    private long matchesReplaced;
+
+    ByteChunkReplacer(ByteContentReplacer contentReplacer, BufferSizing bufferSizing) {
+        this.contentReplacer = contentReplacer;
+        this.bufferSizing = bufferSizing;
+        buffer = new byte[bufferSizing.initialSize()];
+        bytesInBuffer = contextLength = 0;
+        matchesReplaced = 0;
+    }
+
+    ByteBuffer replace(ByteBuffer chunk, boolean endOfInput) {
+        replacedBytes = null;
+        replacedLength = 0;
+        if (chunk != null) {
+            while (chunk.hasRemaining()) {
+                if (bytesInBuffer == buffer.length)
+                    replaceBuffer(false);
+                int bytesToCopy = Math.min(chunk.remaining(), buffer.length - bytesInBuffer);
+                chunk.get(buffer, bytesInBuffer, bytesToCopy);
+                bytesInBuffer += bytesToCopy;
+            }
+        }
+        replaceBuffer(endOfInput);
+        return replacedLength > 0 ? ByteBuffer.wrap(replacedBytes, 0, replacedLength) : null;
+    }
+
+    private void replaceBuffer(boolean endOfInput) {
+        buffer = contentReplacer.replaceMatchesIfAny(buffer, contextLength, bytesInBuffer, endOfInput);
+        matchesReplaced += contentReplacer.getMatchesReplaced();
+        int bytesAfterReplacement = contentReplacer.getBytesAfterReplacement();
+        int resolvedBytes = contentReplacer.isLastMatchIncomplete()
+                ? contentReplacer.getIncompleteMatchStartIndex()
+                : bytesAfterReplacement;
+        appendReplacedBytes(resolvedBytes);
+        carryOver(resolvedBytes, bytesAfterReplacement);
+    }
+
+    private void appendReplacedBytes(int resolvedBytes) {
+        int length = resolvedBytes - contextLength;
+        if (length == 0)
+            return;
+        if (replacedBytes == null)
+            replacedBytes = new byte[length];
+        else if (replacedLength + length > replacedBytes.length)
+            replacedBytes = Arrays.copyOf(replacedBytes, Math.max(replacedLength + length, replacedBytes.length * 2));
+        System.arraycopy(buffer, contextLength, replacedBytes, replacedLength, length);
+        replacedLength += length;
+    }
+
+    private void carryOver(int resolvedBytes, int contentLength) {
+        int carriedBytes = contentLength - resolvedBytes;
+        if (carriedBytes > bufferSizing.maxSize())
+            throw new IllegalStateException("Regex match too broad, increase max buffer size");
+        buffer = bufferSizing.reserveContext(buffer, carriedBytes, contentReplacer.getContextLength());
+        contextLength = Math.min(contentReplacer.getContextLength(), (buffer.length - carriedBytes) / 2);
+        System.arraycopy(buffer, resolvedBytes, buffer, contextLength, carriedBytes);
+        contentReplacer.copyContext(buffer, contextLength);
+        bytesInBuffer = contextLength + carriedBytes;
+        buffer = bufferSizing.resize(buffer, bytesInBuffer);
+    }
+
+    long getMatchesReplaced() {
+        return matchesReplaced;
+    }
+}
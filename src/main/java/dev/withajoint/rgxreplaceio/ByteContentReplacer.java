@@ -0,0 +1,122 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.util.regex.Pattern;
+
+class ByteContentReplacer {
+
+    private final ByteArraySequence bufferContent;
+    private final MatchScanner scanner;
+    private final ByteReplacementTemplate replaceWith;
+    private final ByteReplacementOutput output;
+    private int bytesInBuffer;
+    private int incompleteMatchStartIndex;
+    private int bytesAfterReplacement;
+    private final byte[] context;
+    private int contextLength;
+    private int matchesReplaced;
+
+    ByteContentReplacer(String regex, String replaceWith, ByteEncoding encoding) {
+        this(regex, replaceWith, encoding, MatchScanner.DEFAULT_MAX_CARRY_OVER);
+    }
+
+    ByteContentReplacer(String regex, String replaceWith, ByteEncoding encoding, int maxCarryOver) {
+        if (regex.isBlank())
+            throw new IllegalArgumentException("Invalid regex");
+        Pattern pattern = Pattern.compile(encoding.translateRegex(regex));
+        this.replaceWith = ByteReplacementTemplate.compile(replaceWith, pattern, encoding);
+        bufferContent = new ByteArraySequence();
+        scanner = new MatchScanner(pattern, bufferContent, maxCarryOver);
+        output = new ByteReplacementOutput();
+        context = new byte[MatchScanner.MAX_CONTEXT_LENGTH];
+        incompleteMatchStartIndex = -1;
+    }
+
+    byte[] replaceMatchesIfAny(byte[] buffer, final int bytesInBuffer, final boolean endOfInput) {
+        return replaceMatchesIfAny(buffer, 0, bytesInBuffer, endOfInput);
+    }
+
+    byte[] replaceMatchesIfAny(byte[] buffer, final int contextLength, final int bytesInBuffer,
+                               final boolean endOfInput) {
+        resetReplacer(buffer, contextLength, bytesInBuffer, endOfInput);
+        if (scanner.nextMatch())
+            return replaceContent(buffer);
+        int partialMatchStart = scanner.unresolvedMatchStart();
+        if (partialMatchStart != -1)
+            markIncompleteMatch(partialMatchStart);
+        saveContext(buffer, partialMatchStart != -1 ? partialMatchStart : bytesInBuffer);
+        return buffer;
+    }
+
+    private void resetReplacer(final byte[] buffer, final int contextLength, final int bytesInBuffer,
+                               final boolean endOfInput) {
+        if (contextLength < 0 || contextLength > bytesInBuffer)
+            throw new IndexOutOfBoundsException("context: " + contextLength + ", length: " + bytesInBuffer);
+        bufferContent.reset(buffer, bytesInBuffer);
+        scanner.reset(contextLength, bytesInBuffer, endOfInput);
+        this.bytesInBuffer = bytesInBuffer;
+        bytesAfterReplacement = bytesInBuffer;
+        incompleteMatchStartIndex = -1;
+        this.contextLength = 0;
+        matchesReplaced = 0;
+        output.reset(buffer.length);
+    }
+
+    private void saveContext(final byte[] buffer, final int carryStart) {
+        contextLength = Math.min(MatchScanner.MAX_CONTEXT_LENGTH, carryStart);
+        System.arraycopy(buffer, carryStart - contextLength, context, 0, contextLength);
+    }
+
+    private byte[] replaceContent(final byte[] buffer) {
+        int appendPosition = 0;
+        do {
+            appendToOutput(buffer, appendPosition, scanner.start());
+            replaceWith.appendTo(output, buffer, scanner.match(), bytesInBuffer - scanner.end());
+            appendPosition = scanner.end();
+            matchesReplaced++;
+        } while (scanner.nextMatch());
+        int unresolvedMatchStart = scanner.unresolvedMatchStart();
+        saveContext(buffer, unresolvedMatchStart != -1 ? unresolvedMatchStart : bytesInBuffer);
+        if (unresolvedMatchStart != -1) {
+            appendToOutput(buffer, appendPosition, unresolvedMatchStart);
+            appendPosition = unresolvedMatchStart;
+            markIncompleteMatch(output.length());
+        }
+        appendToOutput(buffer, appendPosition, bytesInBuffer);
+        bytesAfterReplacement = output.length();
+        return output.swap(buffer);
+    }
+
+    private void markIncompleteMatch(final int startIndexAfterReplacement) {
+        incompleteMatchStartIndex = startIndexAfterReplacement;
+    }
+
+    private void appendToOutput(final byte[] buffer, final int start, final int end) {
+        output.append(buffer, start, end - start, bytesInBuffer - end);
+    }
+
+    int getBytesAfterReplacement() {
+        return bytesAfterReplacement;
+    }
+
+    int getMatchesReplaced() {
+        return matchesReplaced;
+    }
+
+    boolean isLastMatchIncomplete() {
+        return incompleteMatchStartIndex != -1;
+    }
+
+    int getIncompleteMatchStartIndex() {
+        return incompleteMatchStartIndex;
+    }
+
+    int getContextLength() {
+        return contextLength;
+    }
+
+    void copyContext(byte[] target, int length) {
+        if (length < 0 || length > contextLength)
+            throw new IndexOutOfBoundsException("length: " + length + ", context: " + contextLength);
+        System.arraycopy(context, contextLength - length, target, 0, length);
+    }
+}
@@ -0,0 +1,35 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.nio.charset.StandardCharsets;
+
+public enum ByteEncoding {
+
+    LATIN_1 {
+        @Override
+        String translateRegex(String regex) {
+            return regex;
+        }
+
+        @Override
+        byte[] encode(String replaceWith) {
+            if (!StandardCharsets.ISO_8859_1.newEncoder().canEncode(replaceWith))
+                throw new IllegalArgumentException("Replacement not representable in ISO-8859-1");
+            return replaceWith.getBytes(StandardCharsets.ISO_8859_1);
+        }
+    },
+    UTF_8 {
+        @Override
+        String translateRegex(String regex) {
+            return Utf8RegexTranslator.translate(regex);
+        }
+
+        @Override
+        byte[] encode(String replaceWith) {
+            return replaceWith.getBytes(StandardCharsets.UTF_8);
+        }
+    };
+
+    abstract String translateRegex(String regex);
+
+    abstract byte[] encode(String replaceWith);
+}
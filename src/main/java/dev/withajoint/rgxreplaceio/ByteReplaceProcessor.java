@@ -0,0 +1,25 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.nio.ByteBuffer;
+
+public final class ByteReplaceProcessor extends ChunkReplaceProcessor<ByteBuffer> {
+
+    private final ByteChunkReplacer chunkReplacer;
+
+    public ByteReplaceProcessor(String regex, String replaceWith) {
+        this(regex, replaceWith, BufferSizing.DEFAULT_INITIAL_SIZE, BufferSizing.DEFAULT_MAX_SIZE, ByteEncoding.UTF_8);
+    }
+
+    public ByteReplaceProcessor(String regex, String replaceWith, int bufferSize, int maxBufferSize, ByteEncoding encoding) {
+        this(new ByteChunkReplacer(new ByteContentReplacer(regex, replaceWith, encoding), new BufferSizing(bufferSize, maxBufferSize)));
+    }
+
+    ByteReplaceProcessor(ByteChunkReplacer chunkReplacer) {
+        this.chunkReplacer = chunkReplacer;
+    }
+
+    @Override
+    ByteBuffer replace(ByteBuffer chunk, boolean endOfInput) {
+        return chunkReplacer.replace(chunk, endOfInput);
+    }
+}
@@ -0,0 +1,45 @@
+package dev.withajoint.rgxreplaceio;
+
+final class ByteReplacementOutput {
+
+    private static final int RETAINED_CAPACITY_FACTOR = 4;
+
+    private byte[] outputBuffer;
+    private int outputLength;
+
+    ByteReplacementOutput() {
+        outputBuffer = new byte[0];
+        outputLength = 0;
+    }
+
+    void reset(final int minCapacity) {
+        if (outputBuffer.length < minCapacity || outputBuffer.length / RETAINED_CAPACITY_FACTOR > minCapacity)
+            outputBuffer = new byte[minCapacity];
+        outputLength = 0;
+    }
+
+    void append(final byte[] bytes, final int offset, final int length, final int bytesStillExpected) {
+        ensureCapacity(outputLength + length, bytesStillExpected);
+        System.arraycopy(bytes, offset, outputBuffer, outputLength, length);
+        outputLength += length;
+    }
+
+    private void ensureCapacity(final int requiredLength, final int bytesStillExpected) {
+        if (requiredLength > outputBuffer.length) {
+            int grownLength = Math.max(requiredLength + bytesStillExpected, outputBuffer.length + (outputBuffer.length >> 1));
+            byte[] grownBuffer = new byte[grownLength];
+            System.arraycopy(outputBuffer, 0, grownBuffer, 0, outputLength);
+            outputBuffer = grownBuffer;
+        }
+    }
+
+    int length() {
+        return outputLength;
+    }
+
+    byte[] swap(final byte[] replacedBuffer) {
+        byte[] bufferReplaced = outputBuffer;
+        outputBuffer = replacedBuffer;
+        return bufferReplaced;
+    }
+}
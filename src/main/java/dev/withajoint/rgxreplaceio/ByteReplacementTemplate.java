@@ -0,0 +1,69 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+final class ByteReplacementTemplate {
+
+    private final byte[][] literals;
+    private final int[] groups;
+    private final int groupBoundsLength;
+
+    ByteReplacementTemplate(ReplacementTemplate template, ByteEncoding encoding) {
+        literals = new byte[template.segmentCount()][];
+        groups = new int[template.segmentCount()];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = template.group(i);
+            if (groups[i] == ReplacementTemplate.LITERAL_SEGMENT)
+                literals[i] = encoding.encode(template.literal(i));
+        }
+        groupBoundsLength = (template.maxGroup() + 1) * 2;
+    }
+
+    static ByteReplacementTemplate compile(String replacement, Pattern pattern, ByteEncoding encoding) {
+        return new ByteReplacementTemplate(ReplacementTemplate.compile(replacement, pattern), encoding);
+    }
+
+    int groupBoundsLength() {
+        return groupBoundsLength;
+    }
+
+    void captureGroups(MatchResult match, int[] groupBounds, int offset) {
+        for (int group = 0; group * 2 < groupBoundsLength; group++) {
+            groupBounds[offset + group * 2] = match.start(group);
+            groupBounds[offset + group * 2 + 1] = match.end(group);
+        }
+    }
+
+    void appendTo(ByteReplacementOutput output, byte[] content, MatchResult match, int bytesStillExpected) {
+        for (int i = 0; i < groups.length; i++) {
+            int group = groups[i];
+            if (group == ReplacementTemplate.LITERAL_SEGMENT)
+                output.append(literals[i], 0, literals[i].length, bytesStillExpected);
+            else if (match.start(group) != -1)
+                output.append(content, match.start(group), match.end(group) - match.start(group), bytesStillExpected);
+        }
+    }
+
+    void appendTo(GatheredOutput output, ByteBuffer content, MatchResult match) throws IOException {
+        for (int i = 0; i < groups.length; i++) {
+            int group = groups[i];
+            if (group == ReplacementTemplate.LITERAL_SEGMENT)
+                output.append(literals[i]);
+            else if (match.start(group) != -1)
+                output.append(content, match.start(group), match.end(group));
+        }
+    }
+
+    void appendTo(GatheredOutput output, ByteBuffer content, int[] groupBounds, int offset) throws IOException {
+        for (int i = 0; i < groups.length; i++) {
+            int group = groups[i];
+            if (group == ReplacementTemplate.LITERAL_SEGMENT)
+                output.append(literals[i]);
+            else if (groupBounds[offset + group * 2] != -1)
+                output.append(content, groupBounds[offset + group * 2], groupBounds[offset + group * 2 + 1]);
+        }
+    }
+}
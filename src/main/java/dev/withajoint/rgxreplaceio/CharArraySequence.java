@@ -0,0 +1,45 @@
+package dev.withajoint.rgxreplaceio;
+
+final class CharArraySequence implements CharSequence {
+
+    private char[] chars;
+    private int length;
+
+    CharArraySequence() {
+        chars = new char[0];
+        length = 0;
+    }
+
+    void reset(final char[] chars, final int length) {
+        this.chars = chars;
+        this.length = length;
+    }
+
+    char[] array() {
+        return chars;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end)
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+        return new String(chars, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -0,0 +1,168 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.lang.ref.Cleaner;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public final class CharBufferPool {
+
+    public static final CharBufferPool NONE = new CharBufferPool(0, false);
+
+    static final int MIN_POOLED_LENGTH = 64;
+    static final int MAX_POOLED_LENGTH = BufferSizing.DEFAULT_MAX_SIZE;
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_POOLED_LENGTH)
+            - Integer.numberOfTrailingZeros(MIN_POOLED_LENGTH) + 1;
+    private static final int SLOTS_PER_SIZE_CLASS = 4;
+    private static final System.Logger LOGGER = System.getLogger(CharBufferPool.class.getName());
+
+    private static volatile CharBufferPool global = NONE;
+
+    private final long maxRetainedChars;
+    private final boolean leakDetection;
+    private final int stripeMask;
+    private final AtomicReferenceArray<char[]> slots;
+    private final AtomicLong retainedChars;
+    private final AtomicLong leaksDetected;
+
+    private CharBufferPool(long maxRetainedChars, boolean leakDetection) {
+        if (maxRetainedChars < 0)
+            throw new IllegalArgumentException("Max retained chars < 0");
+        this.maxRetainedChars = maxRetainedChars;
+        this.leakDetection = leakDetection;
+        int stripes = maxRetainedChars > 0 ? stripeCount() : 0;
+        stripeMask = Math.max(stripes - 1, 0);
+        slots = new AtomicReferenceArray<>(stripes * SIZE_CLASSES * SLOTS_PER_SIZE_CLASS);
+        retainedChars = new AtomicLong();
+        leaksDetected = new AtomicLong();
+    }
+
+    public static CharBufferPool create(long maxRetainedChars) {
+        return new CharBufferPool(maxRetainedChars, false);
+    }
+
+    public static CharBufferPool create(long maxRetainedChars, boolean leakDetection) {
+        return new CharBufferPool(maxRetainedChars, leakDetection);
+    }
+
+    public static CharBufferPool global() {
+        return global;
+    }
+
+    public static void setGlobal(CharBufferPool pool) {
+        global = Objects.requireNonNull(pool, "pool");
+    }
+
+    private static int stripeCount() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return Integer.highestOneBit(Math.min(processors, 64) * 2 - 1);
+    }
+
+    public long maxRetainedChars() {
+        return maxRetainedChars;
+    }
+
+    public long retainedChars() {
+        return retainedChars.get();
+    }
+
+    public long leaksDetected() {
+        return leaksDetected.get();
+    }
+
+    char[] acquire(int length) {
+        int sizeClass = sizeClass(length);
+        if (sizeClass == -1)
+            return new char[length];
+        int base = slotBase(sizeClass);
+        for (int i = base; i < base + SLOTS_PER_SIZE_CLASS; i++) {
+            char[] buffer = slots.get(i);
+            if (buffer != null && slots.compareAndSet(i, buffer, null)) {
+                retainedChars.addAndGet(-buffer.length);
+                return buffer;
+            }
+        }
+        return new char[length];
+    }
+
+    void release(char[] buffer) {
+        int sizeClass = sizeClass(buffer.length);
+        if (sizeClass == -1)
+            return;
+        if (retainedChars.addAndGet(buffer.length) > maxRetainedChars) {
+            retainedChars.addAndGet(-buffer.length);
+            return;
+        }
+        int base = slotBase(sizeClass);
+        for (int i = base; i < base + SLOTS_PER_SIZE_CLASS; i++)
+            if (slots.get(i) == null && slots.compareAndSet(i, null, buffer))
+                return;
+        retainedChars.addAndGet(-buffer.length);
+    }
+
+    private int sizeClass(int length) {
+        if (maxRetainedChars == 0 || length < MIN_POOLED_LENGTH || length > MAX_POOLED_LENGTH
+                || Integer.bitCount(length) != 1)
+            return -1;
+        return Integer.numberOfTrailingZeros(length) - Integer.numberOfTrailingZeros(MIN_POOLED_LENGTH);
+    }
+
+    @SuppressWarnings("deprecation")
+    private int slotBase(int sizeClass) {
+        int stripe = (int) Thread.currentThread().getId() & stripeMask;
+        return (stripe * SIZE_CLASSES + sizeClass) * SLOTS_PER_SIZE_CLASS;
+    }
+
+    Lease lease(Object owner) {
+        if (!leakDetection)
+            return Lease.UNTRACKED;
+        Lease lease = new Lease(this, new Throwable(owner.getClass().getSimpleName() + " created here"));
+        lease.cleanable = LeakDetector.CLEANER.register(owner, lease);
+        return lease;
+    }
+
+    private void reportLeak(Throwable origin) {
+        leaksDetected.incrementAndGet();
+        LOGGER.log(System.Logger.Level.WARNING, "Stream was not closed before being garbage collected, "
+                + "its buffers were not returned to the pool", origin);
+    }
+
+    @Override
+    public String toString() {
+        return "CharBufferPool{retainedChars=" + retainedChars() + ", maxRetainedChars=" + maxRetainedChars
+                + ", leakDetection=" + leakDetection + '}';
+    }
+
+    static final class Lease implements Runnable {
+
+        private static final Lease UNTRACKED = new Lease(null, null);
+
+        private final CharBufferPool pool;
+        private final Throwable origin;
+        private Cleaner.Cleanable cleanable;
+        private volatile boolean closed;
+
+        private Lease(CharBufferPool pool, Throwable origin) {
+            this.pool = pool;
+            this.origin = origin;
+        }
+
+        void close() {
+            if (cleanable == null)
+                return;
+            closed = true;
+            cleanable.clean();
+        }
+
+        @Override
+        public void run() {
+            if (!closed)
+                pool.reportLeak(origin);
+        }
+    }
+
+    private static final class LeakDetector {
+
+        private static final Cleaner CLEANER = Cleaner.create();
+    }
+}
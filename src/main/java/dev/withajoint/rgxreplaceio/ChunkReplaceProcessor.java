@@ -0,0 +1,184 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+abstract class ChunkReplaceProcessor<T> implements Flow.Processor<T, T> {
+
+    private final Queue<T> replacedChunks;
+    private final AtomicLong demand;
+    private final AtomicInteger pendingDrains;
+    private final AtomicBoolean subscribed;
+    private volatile Flow.Subscriber<? super T> downstream;
+    private volatile Flow.Subscription upstream;
+    private volatile boolean upstreamRequested;
+    private volatile boolean upstreamDone;
+    private volatile boolean cancelled;
+    private volatile Throwable error;
+    private boolean terminated;
+
+    ChunkReplaceProcessor() {
+        replacedChunks = new ConcurrentLinkedQueue<>();
+        demand = new AtomicLong();
+        pendingDrains = new AtomicInteger();
+        subscribed = new AtomicBoolean();
+    }
+
+    abstract T replace(T chunk, boolean endOfInput);
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new RejectedSubscription());
+            subscriber.onError(new IllegalStateException("Only one subscriber is supported"));
+            return;
+        }
+        subscriber.onSubscribe(new DownstreamSubscription());
+        downstream = subscriber;
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "subscription");
+        if (upstream != null || cancelled) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        drain();
+    }
+
+    @Override
+    public void onNext(T chunk) {
+        Objects.requireNonNull(chunk, "chunk");
+        if (upstreamDone || cancelled)
+            return;
+        if (replaceAndQueue(chunk, false)) {
+            upstreamRequested = false;
+        } else {
+            upstream.cancel();
+            upstreamDone = true;
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable, "throwable");
+        if (upstreamDone)
+            return;
+        error = throwable;
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        if (upstreamDone)
+            return;
+        replaceAndQueue(null, true);
+        upstreamDone = true;
+        drain();
+    }
+
+    private boolean replaceAndQueue(T chunk, boolean endOfInput) {
+        try {
+            T replacedChunk = replace(chunk, endOfInput);
+            if (replacedChunk != null)
+                replacedChunks.offer(replacedChunk);
+            return true;
+        } catch (UncheckedIOException e) {
+            error = e.getCause();
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        return false;
+    }
+
+    private void drain() {
+        if (pendingDrains.getAndIncrement() != 0)
+            return;
+        int missed = 1;
+        do {
+            Flow.Subscriber<? super T> subscriber = downstream;
+            if (subscriber != null && !terminated)
+                emit(subscriber);
+            missed = pendingDrains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emit(Flow.Subscriber<? super T> subscriber) {
+        if (cancelled) {
+            terminated = true;
+            replacedChunks.clear();
+            return;
+        }
+        if (error != null) {
+            terminated = true;
+            replacedChunks.clear();
+            subscriber.onError(error);
+            return;
+        }
+        T chunk;
+        while (demand.get() > 0 && (chunk = replacedChunks.poll()) != null) {
+            if (demand.get() != Long.MAX_VALUE)
+                demand.decrementAndGet();
+            subscriber.onNext(chunk);
+        }
+        if (!replacedChunks.isEmpty())
+            return;
+        if (upstreamDone) {
+            terminated = true;
+            subscriber.onComplete();
+        } else if (demand.get() > 0 && upstream != null && !upstreamRequested) {
+            upstreamRequested = true;
+            upstream.request(1);
+        }
+    }
+
+    private final class DownstreamSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Non-positive request: " + n);
+                cancelUpstream();
+            } else {
+                demand.getAndAccumulate(n, (current, requested) -> current + requested < 0 ? Long.MAX_VALUE : current + requested);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            cancelUpstream();
+            drain();
+        }
+
+        private void cancelUpstream() {
+            Flow.Subscription subscription = upstream;
+            if (subscription != null)
+                subscription.cancel();
+        }
+    }
+
+    private static final class RejectedSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package dev.withajoint.rgxreplaceio;
+
+interface ContentReplacer {
+
+    char[] replaceMatchesIfAny(char[] buffer, int charsInBuffer, boolean endOfInput);
+
+    default char[] replaceMatchesIfAny(char[] buffer, int contextLength, int charsInBuffer, boolean endOfInput) {
+        if (contextLength != 0)
+            throw new IllegalArgumentException("Look-behind context not supported");
+        return replaceMatchesIfAny(buffer, charsInBuffer, endOfInput);
+    }
+
+    int getCharsAfterReplacement();
+
+    int getMatchesReplaced();
+
+    String getPattern();
+
+    boolean isLastMatchIncomplete();
+
+    int getIncompleteMatchStartIndex();
+
+    default int getContextLength() {
+        return 0;
+    }
+
+    default void copyContext(char[] target, int length) {
+        if (length != 0)
+            throw new IllegalArgumentException("Look-behind context not supported");
+    }
+
+    void setBufferPool(CharBufferPool bufferPool);
+
+    void releaseBuffers();
+}
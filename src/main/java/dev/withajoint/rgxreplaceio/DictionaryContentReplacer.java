@@ -0,0 +1,93 @@
+package dev.withajoint.rgxreplaceio;
+
+import dev.withajoint.rgxreplaceio.engine.DictionaryMatcher;
+import dev.withajoint.rgxreplaceio.engine.LiteralDictionary;
+import dev.withajoint.rgxreplaceio.engine.MatchListener;
+import dev.withajoint.rgxreplaceio.engine.StreamMatch;
+
+import java.util.Map;
+
+class DictionaryContentReplacer implements ContentReplacer, MatchListener {
+
+    private final DictionaryMatcher matcher;
+    private final String[] replacements;
+    private final ReplacementOutput output;
+    private int charsAfterReplacement;
+    private int matchesReplaced;
+
+    DictionaryContentReplacer(Map<String, String> replacements) {
+        this(compile(replacements), replacements.values().toArray(new String[0]));
+    }
+
+    DictionaryContentReplacer(LiteralDictionary dictionary, String[] replacements) {
+        this.replacements = replacements;
+        matcher = dictionary.matcher();
+        output = new ReplacementOutput();
+    }
+
+    static LiteralDictionary compile(Map<String, String> replacements) {
+        if (replacements.isEmpty())
+            throw new IllegalArgumentException("No replacements");
+        for (String replacement : replacements.values())
+            if (replacement == null)
+                throw new IllegalArgumentException("Invalid replacement");
+        return LiteralDictionary.compile(replacements.keySet());
+    }
+
+    @Override
+    public char[] replaceMatchesIfAny(char[] buffer, final int charsInBuffer, final boolean endOfInput) {
+        output.reset(buffer.length);
+        matchesReplaced = 0;
+        matcher.feed(buffer, 0, charsInBuffer, this);
+        if (endOfInput)
+            matcher.finish(this);
+        charsAfterReplacement = output.length();
+        return output.swap(buffer);
+    }
+
+    @Override
+    public void onText(char[] chars, int offset, int length) {
+        output.append(chars, offset, length, 0);
+    }
+
+    @Override
+    public void onMatch(StreamMatch match) {
+        matchesReplaced++;
+        output.append(replacements[matcher.literalIndex()], 0);
+    }
+
+    @Override
+    public int getCharsAfterReplacement() {
+        return charsAfterReplacement;
+    }
+
+    @Override
+    public int getMatchesReplaced() {
+        return matchesReplaced;
+    }
+
+    @Override
+    public String getPattern() {
+        return "dictionary of " + replacements.length + " literals";
+    }
+
+    @Override
+    public boolean isLastMatchIncomplete() {
+        return false;
+    }
+
+    @Override
+    public int getIncompleteMatchStartIndex() {
+        return -1;
+    }
+
+    @Override
+    public void setBufferPool(CharBufferPool bufferPool) {
+        output.setBufferPool(bufferPool);
+    }
+
+    @Override
+    public void releaseBuffers() {
+        output.release();
+    }
+}
@@ -0,0 +1,10 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.io.Writer;
+
+interface DirectContentReplacer extends ContentReplacer {
+
+    int writeMatchesReplaced(char[] buffer, int contextLength, int charsInBuffer, boolean endOfInput, Writer out)
+            throws IOException;
+}
@@ -0,0 +1,58 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+public final class FileReplacement {
+
+    private final Path path;
+    private final long bytesRead;
+    private final long bytesWritten;
+    private final long replacements;
+    private final Duration elapsed;
+    private final Exception failure;
+
+    FileReplacement(Path path, long bytesRead, long bytesWritten, long replacements, Duration elapsed, Exception failure) {
+        this.path = path;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+        this.replacements = replacements;
+        this.elapsed = elapsed;
+        this.failure = failure;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getReplacements() {
+        return replacements;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+
+    public Exception getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return path + ": " + (isSuccessful()
+                ? replacements + " replacements, " + bytesRead + " -> " + bytesWritten + " bytes in " + elapsed.toMillis() + " ms"
+                : "failed with " + failure);
+    }
+}
@@ -0,0 +1,46 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+final class GatheredOutput {
+
+    private static final int MAX_GATHERED_SEGMENTS = 256;
+
+    private final GatheringByteChannel channel;
+    private final ByteBuffer[] segments;
+    private int segmentCount;
+
+    GatheredOutput(GatheringByteChannel channel) {
+        this.channel = channel;
+        segments = new ByteBuffer[MAX_GATHERED_SEGMENTS];
+        segmentCount = 0;
+    }
+
+    void append(ByteBuffer content, int start, int end) throws IOException {
+        if (start < end)
+            append(content.duplicate().position(start).limit(end));
+    }
+
+    void append(byte[] content) throws IOException {
+        if (content.length > 0)
+            append(ByteBuffer.wrap(content));
+    }
+
+    private void append(ByteBuffer segment) throws IOException {
+        if (segmentCount == segments.length)
+            flush();
+        segments[segmentCount++] = segment;
+    }
+
+    void flush() throws IOException {
+        int firstPending = 0;
+        while (firstPending < segmentCount) {
+            channel.write(segments, firstPending, segmentCount - firstPending);
+            while (firstPending < segmentCount && !segments[firstPending].hasRemaining())
+                segments[firstPending++] = null;
+        }
+        segmentCount = 0;
+    }
+}
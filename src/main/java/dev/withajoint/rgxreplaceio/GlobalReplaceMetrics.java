@@ -0,0 +1,19 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.util.Objects;
+
+final class GlobalReplaceMetrics {
+
+    private static volatile ReplaceMetrics metrics = ReplaceMetrics.NONE;
+
+    private GlobalReplaceMetrics() {
+    }
+
+    static ReplaceMetrics get() {
+        return metrics;
+    }
+
+    static void set(ReplaceMetrics metrics) {
+        GlobalReplaceMetrics.metrics = Objects.requireNonNull(metrics, "metrics");
+    }
+}
@@ -0,0 +1,85 @@
+package dev.withajoint.rgxreplaceio;
+
+class LineContentReplacer implements ContentReplacer {
+
+    private final LineReplacer lineReplacer;
+    private final ReplacementOutput output;
+    private int charsAfterReplacement;
+    private int matchesReplaced;
+    private int incompleteMatchStartIndex;
+
+    LineContentReplacer(ContentReplacer contentReplacer) {
+        lineReplacer = new LineReplacer(contentReplacer);
+        output = new ReplacementOutput();
+        incompleteMatchStartIndex = -1;
+    }
+
+    @Override
+    public char[] replaceMatchesIfAny(char[] buffer, final int charsInBuffer, final boolean endOfInput) {
+        output.reset(buffer.length);
+        matchesReplaced = 0;
+        incompleteMatchStartIndex = -1;
+        int lineStart = 0;
+        int position = 0;
+        while (position < charsInBuffer) {
+            char c = buffer[position];
+            if (c != '\n' && c != '\r') {
+                position++;
+                continue;
+            }
+            if (c == '\r' && position + 1 == charsInBuffer && !endOfInput)
+                break;
+            matchesReplaced += lineReplacer.appendReplaced(buffer, lineStart, position, output);
+            int terminatorLength = c == '\r' && position + 1 < charsInBuffer && buffer[position + 1] == '\n' ? 2 : 1;
+            output.append(buffer, position, terminatorLength, 0);
+            position += terminatorLength;
+            lineStart = position;
+        }
+        if (lineStart < charsInBuffer) {
+            if (endOfInput) {
+                matchesReplaced += lineReplacer.appendReplaced(buffer, lineStart, charsInBuffer, output);
+            } else {
+                incompleteMatchStartIndex = output.length();
+                output.append(buffer, lineStart, charsInBuffer - lineStart, 0);
+            }
+        }
+        charsAfterReplacement = output.length();
+        return output.swap(buffer);
+    }
+
+    @Override
+    public int getCharsAfterReplacement() {
+        return charsAfterReplacement;
+    }
+
+    @Override
+    public int getMatchesReplaced() {
+        return matchesReplaced;
+    }
+
+    @Override
+    public String getPattern() {
+        return lineReplacer.contentReplacer().getPattern();
+    }
+
+    @Override
+    public boolean isLastMatchIncomplete() {
+        return incompleteMatchStartIndex != -1;
+    }
+
+    @Override
+    public int getIncompleteMatchStartIndex() {
+        return incompleteMatchStartIndex;
+    }
+
+    @Override
+    public void setBufferPool(CharBufferPool bufferPool) {
+        output.setBufferPool(bufferPool);
+    }
+
+    @Override
+    public void releaseBuffers() {
+        output.release();
+        lineReplacer.contentReplacer().releaseBuffers();
+    }
+}
@@ -0,0 +1,47 @@
+package dev.withajoint.rgxreplaceio;
+
+final class LineReplacer {
+
+    private final ContentReplacer contentReplacer;
+    private char[] line;
+
+    LineReplacer(ContentReplacer contentReplacer) {
+        this.contentReplacer = contentReplacer;
+        line = new char[128];
+    }
+
+    String replace(String line) {
+        int length = line.length();
+        ensureCapacity(length);
+        line.getChars(0, length, this.line, 0);
+        replace(length);
+        if (contentReplacer.getMatchesReplaced() == 0)
+            return line;
+        return new String(this.line, 0, contentReplacer.getCharsAfterReplacement());
+    }
+
+    int appendReplaced(char[] buffer, int start, int end, ReplacementOutput output) {
+        int length = end - start;
+        ensureCapacity(length);
+        System.arraycopy(buffer, start, line, 0, length);
+        replace(length);
+        if (contentReplacer.getMatchesReplaced() == 0)
+            output.append(buffer, start, length, 0);
+        else
+            output.append(line, 0, contentReplacer.getCharsAfterReplacement(), 0);
+        return contentReplacer.getMatchesReplaced();
+    }
+
+    private void replace(int length) {
+        line = contentReplacer.replaceMatchesIfAny(line, length, true);
+    }
+
+    private void ensureCapacity(int length) {
+        if (line.length < length)
+            line = new char[Math.max(length, line.length * 2)];
+    }
+
+    ContentReplacer contentReplacer() {
+        return contentReplacer;
+    }
+}
@@ -0,0 +1,210 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+class LiteralContentReplacer implements DirectContentReplacer {
+
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final int SHIFT_TABLE_SIZE = 256;
+
+    private final char[] literal;
+    private final int[] shiftTable;
+    private final String replaceWith;
+    private final ReplacementOutput output;
+    private int charsInBuffer;
+    private boolean endOfInput;
+    private int incompleteMatchStartIndex;
+    private int charsAfterReplacement;
+    private int matchesReplaced;
+
+    LiteralContentReplacer(String literal, String replaceWith) {
+        if (literal.isEmpty())
+            throw new IllegalArgumentException("Invalid regex");
+        this.literal = literal.toCharArray();
+        this.replaceWith = replaceWith;
+        shiftTable = buildShiftTable(this.literal);
+        output = new ReplacementOutput();
+        incompleteMatchStartIndex = -1;
+    }
+
+    static String extractLiteral(String regex) {
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < regex.length()) {
+            char c = regex.charAt(position);
+            if (regex.startsWith("\\Q", position)) {
+                int quoteEnd = regex.indexOf("\\E", position + 2);
+                if (quoteEnd == -1)
+                    quoteEnd = regex.length();
+                literal.append(regex, position + 2, quoteEnd);
+                position = Math.min(quoteEnd + 2, regex.length());
+            } else if (c == '\\') {
+                if (position + 1 == regex.length() || Character.isLetterOrDigit(regex.charAt(position + 1)))
+                    return null;
+                literal.append(regex.charAt(position + 1));
+                position += 2;
+            } else if (METACHARACTERS.indexOf(c) != -1) {
+                return null;
+            } else {
+                literal.append(c);
+                position++;
+            }
+        }
+        return literal.length() == 0 ? null : literal.toString();
+    }
+
+    private static int[] buildShiftTable(char[] literal) {
+        int[] shiftTable = new int[SHIFT_TABLE_SIZE];
+        Arrays.fill(shiftTable, literal.length);
+        for (int i = 0; i < literal.length - 1; i++) {
+            int bucket = literal[i] & (SHIFT_TABLE_SIZE - 1);
+            shiftTable[bucket] = Math.min(shiftTable[bucket], literal.length - 1 - i);
+        }
+        return shiftTable;
+    }
+
+    @Override
+    public char[] replaceMatchesIfAny(char[] buffer, final int charsInBuffer, final boolean endOfInput) {
+        resetReplacer(buffer, charsInBuffer, endOfInput);
+        int matchStart = indexOfLiteral(buffer, 0);
+        if (matchStart != -1)
+            return replaceContent(buffer, matchStart);
+        int partialMatchStart = findPartialMatchStart(buffer, 0);
+        if (partialMatchStart != -1)
+            markIncompleteMatch(partialMatchStart);
+        return buffer;
+    }
+
+    private void resetReplacer(final char[] buffer, final int charsInBuffer, final boolean endOfInput) {
+        resetSearch(charsInBuffer, endOfInput);
+        output.reset(buffer.length);
+    }
+
+    private void resetSearch(final int charsInBuffer, final boolean endOfInput) {
+        this.charsInBuffer = charsInBuffer;
+        this.endOfInput = endOfInput;
+        charsAfterReplacement = charsInBuffer;
+        incompleteMatchStartIndex = -1;
+        matchesReplaced = 0;
+    }
+
+    @Override
+    public int writeMatchesReplaced(final char[] buffer, final int contextLength, final int charsInBuffer,
+                                    final boolean endOfInput, final Writer out) throws IOException {
+        resetSearch(charsInBuffer, endOfInput);
+        int writePosition = contextLength;
+        int charsWritten = 0;
+        int matchStart = indexOfLiteral(buffer, contextLength);
+        while (matchStart != -1) {
+            if (matchStart > writePosition)
+                out.write(buffer, writePosition, matchStart - writePosition);
+            out.write(replaceWith);
+            charsWritten += matchStart - writePosition + replaceWith.length();
+            writePosition = matchStart + literal.length;
+            matchesReplaced++;
+            matchStart = indexOfLiteral(buffer, writePosition);
+        }
+        int resolvedChars = charsInBuffer;
+        int partialMatchStart = findPartialMatchStart(buffer, writePosition);
+        if (partialMatchStart != -1) {
+            resolvedChars = partialMatchStart;
+            markIncompleteMatch(partialMatchStart);
+        }
+        if (resolvedChars > writePosition)
+            out.write(buffer, writePosition, resolvedChars - writePosition);
+        charsAfterReplacement = charsWritten + resolvedChars - writePosition;
+        return resolvedChars;
+    }
+
+    private char[] replaceContent(final char[] buffer, int matchStart) {
+        int appendPosition = 0;
+        do {
+            output.append(buffer, appendPosition, matchStart - appendPosition, charsInBuffer - matchStart);
+            appendPosition = matchStart + literal.length;
+            output.append(replaceWith, charsInBuffer - appendPosition);
+            matchesReplaced++;
+            matchStart = indexOfLiteral(buffer, appendPosition);
+        } while (matchStart != -1);
+        int partialMatchStart = findPartialMatchStart(buffer, appendPosition);
+        if (partialMatchStart != -1) {
+            output.append(buffer, appendPosition, partialMatchStart - appendPosition, charsInBuffer - partialMatchStart);
+            appendPosition = partialMatchStart;
+            markIncompleteMatch(output.length());
+        }
+        output.append(buffer, appendPosition, charsInBuffer - appendPosition, 0);
+        charsAfterReplacement = output.length();
+        return output.swap(buffer);
+    }
+
+    private int indexOfLiteral(final char[] buffer, final int from) {
+        int lastIndex = literal.length - 1;
+        char lastChar = literal[lastIndex];
+        int position = from;
+        while (position <= charsInBuffer - literal.length) {
+            char c = buffer[position + lastIndex];
+            if (c == lastChar && isLiteralAt(buffer, position, lastIndex))
+                return position;
+            position += shiftTable[c & (SHIFT_TABLE_SIZE - 1)];
+        }
+        return -1;
+    }
+
+    private boolean isLiteralAt(final char[] buffer, final int position, final int length) {
+        for (int i = 0; i < length; i++) {
+            if (buffer[position + i] != literal[i])
+                return false;
+        }
+        return true;
+    }
+
+    private int findPartialMatchStart(final char[] buffer, final int from) {
+        if (endOfInput)
+            return -1;
+        for (int position = Math.max(from, charsInBuffer - literal.length + 1); position < charsInBuffer; position++) {
+            if (isLiteralAt(buffer, position, charsInBuffer - position))
+                return position;
+        }
+        return -1;
+    }
+
+    private void markIncompleteMatch(final int startIndexAfterReplacement) {
+        incompleteMatchStartIndex = startIndexAfterReplacement;
+    }
+
+    @Override
+    public int getCharsAfterReplacement() {
+        return charsAfterReplacement;
+    }
+
+    @Override
+    public int getMatchesReplaced() {
+        return matchesReplaced;
+    }
+
+    @Override
+    public String getPattern() {
+        return new String(literal);
+    }
+
+    @Override
+    public boolean isLastMatchIncomplete() {
+        return incompleteMatchStartIndex != -1;
+    }
+
+    @Override
+    public int getIncompleteMatchStartIndex() {
+        return incompleteMatchStartIndex;
+    }
+
+    @Override
+    public void setBufferPool(CharBufferPool bufferPool) {
+        output.setBufferPool(bufferPool);
+    }
+
+    @Override
+    public void releaseBuffers() {
+        output.release();
+    }
+}
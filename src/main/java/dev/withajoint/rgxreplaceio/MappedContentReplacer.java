@@ -0,0 +1,83 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.util.regex.Pattern;
+
+class MappedContentReplacer {
+
+    static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final ByteBufferSequence windowContent;
+    private final MatchScanner scanner;
+    private final ByteReplacementTemplate replaceWith;
+    private final int windowSize;
+    private long replacements;
+
+    MappedContentReplacer(String regex, String replaceWith, ByteEncoding encoding) {
+        this(regex, replaceWith, encoding, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedContentReplacer(String regex, String replaceWith, ByteEncoding encoding, int windowSize) {
+        this(compile(regex, encoding), replaceWith, encoding, windowSize);
+    }
+
+    private MappedContentReplacer(Pattern pattern, String replaceWith, ByteEncoding encoding, int windowSize) {
+        this(pattern, ByteReplacementTemplate.compile(replaceWith, pattern, encoding), windowSize);
+    }
+
+    MappedContentReplacer(Pattern pattern, ByteReplacementTemplate replaceWith, int windowSize) {
+        if (windowSize <= 0)
+            throw new IllegalArgumentException("Window size <= 0");
+        if ((long) windowSize + MatchScanner.MAX_CONTEXT_LENGTH > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Window size too large");
+        this.replaceWith = replaceWith;
+        this.windowSize = windowSize;
+        windowContent = new ByteBufferSequence();
+        scanner = new MatchScanner(pattern, windowContent, Math.min(MatchScanner.DEFAULT_MAX_CARRY_OVER, windowSize));
+    }
+
+    static Pattern compile(String regex, ByteEncoding encoding) {
+        if (regex.isBlank())
+            throw new IllegalArgumentException("Invalid regex");
+        return Pattern.compile(encoding.translateRegex(regex));
+    }
+
+    long replace(FileChannel input, GatheringByteChannel output) throws IOException {
+        GatheredOutput gatheredOutput = new GatheredOutput(output);
+        long size = input.size();
+        long windowStart = 0;
+        replacements = 0;
+        while (windowStart < size) {
+            long windowLength = Math.min(windowSize, size - windowStart);
+            boolean lastWindow = windowStart + windowLength == size;
+            long contextStart = Math.max(0, windowStart - MatchScanner.MAX_CONTEXT_LENGTH);
+            int contextLength = (int) (windowStart - contextStart);
+            ByteBuffer window = input.map(FileChannel.MapMode.READ_ONLY, contextStart, contextLength + windowLength);
+            int resolvedBytes = replaceWindow(window, contextLength, lastWindow, gatheredOutput);
+            if (resolvedBytes == 0)
+                throw new IllegalStateException("Regex match too broad, increase window size");
+            windowStart += resolvedBytes;
+        }
+        return replacements;
+    }
+
+    private int replaceWindow(ByteBuffer window, int contextLength, boolean lastWindow, GatheredOutput output)
+            throws IOException {
+        windowContent.reset(window);
+        scanner.reset(contextLength, window.limit(), lastWindow);
+        int appendPosition = contextLength;
+        while (scanner.nextMatch()) {
+            output.append(window, appendPosition, scanner.start());
+            replaceWith.appendTo(output, window, scanner.match());
+            appendPosition = scanner.end();
+            replacements++;
+        }
+        int resolvedBytes = scanner.unresolvedMatchStart() != -1 ? scanner.unresolvedMatchStart() : window.limit();
+        output.append(window, appendPosition, resolvedBytes);
+        output.flush();
+        return resolvedBytes - contextLength;
+    }
+}
@@ -0,0 +1,10 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.util.regex.MatchResult;
+
+@FunctionalInterface
+public interface MatchReplacer {
+
+    void replace(MatchResult match, Appendable sink) throws IOException;
+}
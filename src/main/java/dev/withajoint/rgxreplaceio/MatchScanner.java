@@ -0,0 +1,134 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+final class MatchScanner {
+
+    static final int DEFAULT_MAX_CARRY_OVER = 1024;
+    static final int MAX_CONTEXT_LENGTH = 64;
+
+    private final Matcher matcher;
+    private final RegexPrefilter prefilter;
+    private final CharSequence content;
+    private final int maxCarryOver;
+    private int contentLength;
+    private boolean endOfInput;
+    private boolean exhausted;
+    private int lastMatchEnd;
+    private int unresolvedMatchStart;
+
+    MatchScanner(Pattern pattern, CharSequence content, int maxCarryOver) {
+        if (maxCarryOver <= 0)
+            throw new IllegalArgumentException("Max carry over <= 0");
+        this.maxCarryOver = maxCarryOver;
+        this.content = content;
+        prefilter = RegexPrefilter.of(pattern);
+        matcher = pattern.matcher(content)
+                .useTransparentBounds(true)
+                .useAnchoringBounds(false);
+    }
+
+    void reset(final int contentLength, final boolean endOfInput) {
+        reset(0, contentLength, endOfInput);
+    }
+
+    void reset(final int from, final int contentLength, final boolean endOfInput) {
+        matcher.reset();
+        if (from > 0)
+            matcher.region(from, contentLength);
+        this.contentLength = contentLength;
+        this.endOfInput = endOfInput;
+        exhausted = false;
+        lastMatchEnd = from;
+        unresolvedMatchStart = -1;
+    }
+
+    boolean nextMatch() {
+        if (exhausted)
+            return false;
+        if (prefilter != null)
+            return nextCandidateMatch();
+        if (matcher.find()) {
+            if (!isMatchUnresolved(matcher.hitEnd(), matcher.requireEnd())) {
+                lastMatchEnd = matcher.end();
+                return true;
+            }
+            int matchStart = matcher.start();
+            int partialMatchStart = findPartialMatchStart(lastMatchEnd, matchStart);
+            unresolvedMatchStart = partialMatchStart != -1 ? partialMatchStart : matchStart;
+        } else if (isPartialMatchAtEndPossible()) {
+            unresolvedMatchStart = findPartialMatchStart(lastMatchEnd, contentLength);
+        }
+        exhausted = true;
+        return false;
+    }
+
+    private boolean nextCandidateMatch() {
+        boolean hitEnd = false;
+        boolean requireEnd = false;
+        int partialMatchStart = -1;
+        int carryOverWindowStart = contentLength - maxCarryOver;
+        int candidate = prefilter.nextCandidate(content, lastMatchEnd, contentLength);
+        while (candidate != -1) {
+            matcher.region(candidate, contentLength);
+            boolean found = matcher.lookingAt();
+            if (matcher.hitEnd() && partialMatchStart == -1 && candidate >= carryOverWindowStart)
+                partialMatchStart = candidate;
+            hitEnd |= matcher.hitEnd();
+            requireEnd |= matcher.requireEnd();
+            if (found) {
+                if (!isMatchUnresolved(hitEnd, requireEnd)) {
+                    lastMatchEnd = matcher.end();
+                    return true;
+                }
+                unresolvedMatchStart = partialMatchStart != -1 ? partialMatchStart : matcher.start();
+                exhausted = true;
+                return false;
+            }
+            candidate = prefilter.nextCandidate(content, candidate + 1, contentLength);
+        }
+        if (!endOfInput)
+            unresolvedMatchStart = partialMatchStart;
+        exhausted = true;
+        return false;
+    }
+
+    int start() {
+        return matcher.start();
+    }
+
+    int end() {
+        return matcher.end();
+    }
+
+    MatchResult match() {
+        return matcher;
+    }
+
+    int unresolvedMatchStart() {
+        return unresolvedMatchStart;
+    }
+
+    private boolean isMatchUnresolved(final boolean hitEnd, final boolean requireEnd) {
+        if (endOfInput)
+            return false;
+        return matcher.end() == contentLength || hitEnd || requireEnd;
+    }
+
+    private boolean isPartialMatchAtEndPossible() {
+        return !endOfInput && matcher.hitEnd();
+    }
+
+    private int findPartialMatchStart(final int from, final int to) {
+        int position = Math.max(from, contentLength - maxCarryOver);
+        for (; position < to; position++) {
+            matcher.region(position, contentLength);
+            matcher.lookingAt();
+            if (matcher.hitEnd())
+                return position;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,78 @@
+package dev.withajoint.rgxreplaceio;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+public final class MicrometerReplaceMetrics implements ReplaceMetrics {
+
+    private final Counter bufferFills;
+    private final Counter charsIn;
+    private final Counter charsOut;
+    private final Counter matchesReplaced;
+    private final DistributionSummary carryOvers;
+    private final Counter incompleteMatches;
+    private final DistributionSummary bufferGrowths;
+    private final Timer replacementTime;
+
+    public MicrometerReplaceMetrics(MeterRegistry registry) {
+        this(registry, Tags.empty());
+    }
+
+    public MicrometerReplaceMetrics(MeterRegistry registry, Iterable<Tag> tags) {
+        bufferFills = registry.counter("rgxreplace.buffer.fills", tags);
+        charsIn = registry.counter("rgxreplace.chars.in", tags);
+        charsOut = registry.counter("rgxreplace.chars.out", tags);
+        matchesReplaced = registry.counter("rgxreplace.matches.replaced", tags);
+        carryOvers = DistributionSummary.builder("rgxreplace.carry.overs").baseUnit("chars").tags(tags).register(registry);
+        incompleteMatches = registry.counter("rgxreplace.incomplete.matches", tags);
+        bufferGrowths = DistributionSummary.builder("rgxreplace.buffer.growths").baseUnit("chars").tags(tags).register(registry);
+        replacementTime = registry.timer("rgxreplace.replacement.time", tags);
+    }
+
+    @Override
+    public void onBufferFill() {
+        bufferFills.increment();
+    }
+
+    @Override
+    public void onCharsIn(int chars) {
+        charsIn.increment(chars);
+    }
+
+    @Override
+    public void onCharsOut(int chars) {
+        charsOut.increment(chars);
+    }
+
+    @Override
+    public void onMatchesReplaced(int matches) {
+        if (matches > 0)
+            matchesReplaced.increment(matches);
+    }
+
+    @Override
+    public void onCarryOver(int chars) {
+        carryOvers.record(chars);
+    }
+
+    @Override
+    public void onIncompleteMatch() {
+        incompleteMatches.increment();
+    }
+
+    @Override
+    public void onBufferGrown(int bufferSize) {
+        bufferGrowths.record(bufferSize);
+    }
+
+    @Override
+    public void onReplacementNanos(long nanos) {
+        replacementTime.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
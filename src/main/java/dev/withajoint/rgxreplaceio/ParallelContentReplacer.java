@@ -0,0 +1,175 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.regex.Pattern;
+
+class ParallelContentReplacer {
+
+    static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int LOOK_BEHIND_MARGIN = 64;
+
+    private final Pattern pattern;
+    private final ByteReplacementTemplate replaceWith;
+    private final int maxMatchLength;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    ParallelContentReplacer(String regex, String replaceWith, ByteEncoding encoding, int maxMatchLength) {
+        this(regex, replaceWith, encoding, maxMatchLength, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    ParallelContentReplacer(String regex, String replaceWith, ByteEncoding encoding, int maxMatchLength,
+                            int chunkSize, ForkJoinPool pool) {
+        if (regex.isBlank())
+            throw new IllegalArgumentException("Invalid regex");
+        if (maxMatchLength <= 0)
+            throw new IllegalArgumentException("Max match length <= 0");
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Chunk size <= 0");
+        this.chunkSize = Math.max(chunkSize, maxMatchLength);
+        if ((long) this.chunkSize + maxMatchLength + LOOK_BEHIND_MARGIN > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Max match length too large");
+        pattern = Pattern.compile(encoding.translateRegex(regex));
+        this.replaceWith = ByteReplacementTemplate.compile(replaceWith, pattern, encoding);
+        this.maxMatchLength = maxMatchLength;
+        this.pool = pool;
+    }
+
+    void replace(FileChannel input, GatheringByteChannel output) throws IOException {
+        GatheredOutput gatheredOutput = new GatheredOutput(output);
+        int maxChunksInFlight = pool.getParallelism() * 2;
+        Deque<ForkJoinTask<ChunkMatches>> chunksInFlight = new ArrayDeque<>();
+        long size = input.size();
+        long nextChunkStart = 0;
+        long resumeAt = 0;
+        try {
+            while (nextChunkStart < size || !chunksInFlight.isEmpty()) {
+                while (nextChunkStart < size && chunksInFlight.size() < maxChunksInFlight) {
+                    Chunk chunk = mapChunk(input, nextChunkStart, size);
+                    chunksInFlight.add(pool.submit(() -> findMatches(chunk, chunk.start, null)));
+                    nextChunkStart = chunk.end;
+                }
+                ChunkMatches matches = chunksInFlight.poll().join();
+                if (resumeAt > matches.chunk.start)
+                    matches = findMatches(matches.chunk, resumeAt, matches);
+                resumeAt = writeChunk(matches, resumeAt, gatheredOutput);
+            }
+        } finally {
+            for (ForkJoinTask<ChunkMatches> task : chunksInFlight)
+                task.cancel(true);
+        }
+    }
+
+    private Chunk mapChunk(FileChannel input, long chunkStart, long size) throws IOException {
+        long chunkEnd = Math.min(size, chunkStart + chunkSize);
+        long windowStart = Math.max(0, chunkStart - LOOK_BEHIND_MARGIN);
+        long windowEnd = Math.min(size, chunkEnd + maxMatchLength);
+        ByteBuffer window = input.map(FileChannel.MapMode.READ_ONLY, windowStart, windowEnd - windowStart);
+        return new Chunk(window, windowStart, chunkStart, chunkEnd, windowEnd == size, chunkEnd == size);
+    }
+
+    private ChunkMatches findMatches(Chunk chunk, long from, ChunkMatches precomputed) {
+        ByteBufferSequence content = new ByteBufferSequence();
+        content.reset(chunk.window);
+        MatchScanner scanner = new MatchScanner(pattern, content, maxMatchLength + 1);
+        scanner.reset(chunk.relative(from), chunk.window.limit(), chunk.windowReachesEnd);
+        int matchStartLimit = chunk.relative(chunk.end) + (chunk.lastChunk ? 1 : 0);
+        ChunkMatches matches = new ChunkMatches(chunk, replaceWith.groupBoundsLength());
+        while (scanner.nextMatch() && scanner.start() < matchStartLimit) {
+            if (precomputed != null && matches.resyncWith(precomputed, scanner.start(), scanner.end()))
+                return matches;
+            matches.add(scanner.start(), scanner.end());
+            if (matches.groupStride > 0)
+                replaceWith.captureGroups(scanner.match(), matches.groupBounds, (matches.count - 1) * matches.groupStride);
+        }
+        if (scanner.unresolvedMatchStart() != -1 && scanner.unresolvedMatchStart() < matchStartLimit)
+            throw new IllegalStateException("Regex match longer than max match length");
+        return matches;
+    }
+
+    private long writeChunk(ChunkMatches matches, long resumeAt, GatheredOutput output) throws IOException {
+        Chunk chunk = matches.chunk;
+        int appendPosition = chunk.relative(Math.max(chunk.start, resumeAt));
+        for (int i = 0; i < matches.count; i++) {
+            output.append(chunk.window, appendPosition, matches.starts[i]);
+            replaceWith.appendTo(output, chunk.window, matches.groupBounds, i * matches.groupStride);
+            appendPosition = matches.ends[i];
+        }
+        int chunkOutputEnd = Math.max(appendPosition, chunk.relative(chunk.end));
+        output.append(chunk.window, appendPosition, chunkOutputEnd);
+        output.flush();
+        return chunk.windowStart + chunkOutputEnd;
+    }
+
+    private static final class Chunk {
+
+        private final ByteBuffer window;
+        private final long windowStart;
+        private final long start;
+        private final long end;
+        private final boolean windowReachesEnd;
+        private final boolean lastChunk;
+
+        private Chunk(ByteBuffer window, long windowStart, long start, long end, boolean windowReachesEnd, boolean lastChunk) {
+            this.window = window;
+            this.windowStart = windowStart;
+            this.start = start;
+            this.end = end;
+            this.windowReachesEnd = windowReachesEnd;
+            this.lastChunk = lastChunk;
+        }
+
+        private int relative(long position) {
+            return (int) (position - windowStart);
+        }
+    }
+
+    private static final class ChunkMatches {
+
+        private final Chunk chunk;
+        private final int groupStride;
+        private int[] starts;
+        private int[] ends;
+        private int[] groupBounds;
+        private int count;
+
+        private ChunkMatches(Chunk chunk, int groupStride) {
+            this.chunk = chunk;
+            this.groupStride = groupStride;
+            starts = new int[16];
+            ends = new int[16];
+            groupBounds = new int[16 * groupStride];
+            count = 0;
+        }
+
+        private void add(int start, int end) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+                groupBounds = Arrays.copyOf(groupBounds, count * 2 * groupStride);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+        }
+
+        private boolean resyncWith(ChunkMatches precomputed, int start, int end) {
+            int index = Arrays.binarySearch(precomputed.starts, 0, precomputed.count, start);
+            if (index < 0 || precomputed.ends[index] != end)
+                return false;
+            for (int i = index; i < precomputed.count; i++) {
+                add(precomputed.starts[i], precomputed.ends[i]);
+                System.arraycopy(precomputed.groupBounds, i * groupStride, groupBounds, (count - 1) * groupStride, groupStride);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+final class ReadAheadReader extends Reader {
+
+    private static final int END_OF_STREAM = -1;
+    private static final long CLOSE_TIMEOUT_MILLIS = 1000;
+
+    private final ReplaceReader source;
+    private final char[][] chunks;
+    private final int[] chunkLengths;
+    private final AtomicLong producedChunks;
+    private final AtomicLong consumedChunks;
+    private final Thread producer;
+    private volatile Thread waitingConsumer;
+    private volatile Throwable failure;
+    private volatile IOException closeFailure;
+    private volatile boolean closed;
+    private int position;
+
+    ReadAheadReader(Reader in, ReplaceSpec spec, int depth, ThreadFactory threadFactory) {
+        if (depth <= 0)
+            throw new IllegalArgumentException("Read-ahead depth <= 0");
+        source = spec.newReader(in);
+        chunks = new char[depth][spec.bufferSizing().initialSize()];
+        chunkLengths = new int[depth];
+        producedChunks = new AtomicLong();
+        consumedChunks = new AtomicLong();
+        position = 0;
+        producer = threadFactory.newThread(this::produce);
+        producer.start();
+    }
+
+    static Thread newDaemonThread(Runnable producer) {
+        Thread thread = new Thread(producer, "rgxreplace-read-ahead");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private void produce() {
+        long chunk = producedChunks.get();
+        try {
+            while (awaitFreeSlot(chunk)) {
+                int slot = slot(chunk);
+                chunkLengths[slot] = source.read(chunks[slot], 0, chunks[slot].length);
+                publish(++chunk);
+                if (chunkLengths[slot] == END_OF_STREAM)
+                    return;
+            }
+        } catch (Throwable e) {
+            failure = e;
+            chunkLengths[slot(chunk)] = END_OF_STREAM;
+            publish(chunk + 1);
+        } finally {
+            closeSource();
+        }
+    }
+
+    private boolean awaitFreeSlot(long chunk) {
+        while (chunk - consumedChunks.get() >= chunks.length && !closed)
+            LockSupport.park(this);
+        return !closed;
+    }
+
+    private void publish(long chunks) {
+        producedChunks.set(chunks);
+        Thread consumer = waitingConsumer;
+        if (consumer != null)
+            LockSupport.unpark(consumer);
+    }
+
+    private void closeSource() {
+        Thread.interrupted();
+        try {
+            source.close();
+        } catch (IOException e) {
+            closeFailure = e;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int slot = awaitChunk();
+        if (slot == -1)
+            return -1;
+        char c = chunks[slot][position++];
+        if (position == chunkLengths[slot])
+            releaseChunk();
+        return c;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, cbuf.length);
+        if (len == 0)
+            return 0;
+        int slot = awaitChunk();
+        if (slot == -1)
+            return -1;
+        int charsToRead = Math.min(len, chunkLengths[slot] - position);
+        System.arraycopy(chunks[slot], position, cbuf, off, charsToRead);
+        position += charsToRead;
+        if (position == chunkLengths[slot])
+            releaseChunk();
+        return charsToRead;
+    }
+
+    private int awaitChunk() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+        long chunk = consumedChunks.get();
+        if (producedChunks.get() == chunk) {
+            waitingConsumer = Thread.currentThread();
+            try {
+                while (producedChunks.get() == chunk) {
+                    if (closed)
+                        throw new IOException("Stream closed");
+                    LockSupport.park(this);
+                    if (Thread.interrupted())
+                        throw new InterruptedIOException("Interrupted while waiting for read-ahead");
+                }
+            } finally {
+                waitingConsumer = null;
+            }
+        }
+        int slot = slot(chunk);
+        if (chunkLengths[slot] != END_OF_STREAM)
+            return slot;
+        Throwable producerFailure = failure;
+        if (producerFailure == null)
+            return -1;
+        if (producerFailure instanceof IOException)
+            throw (IOException) producerFailure;
+        if (producerFailure instanceof RuntimeException)
+            throw (RuntimeException) producerFailure;
+        if (producerFailure instanceof Error)
+            throw (Error) producerFailure;
+        throw new IOException(producerFailure);
+    }
+
+    private void releaseChunk() {
+        position = 0;
+        consumedChunks.incrementAndGet();
+        LockSupport.unpark(producer);
+    }
+
+    private int slot(long chunk) {
+        return (int) (chunk % chunks.length);
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+        return producedChunks.get() > consumedChunks.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        producer.interrupt();
+        Thread consumer = waitingConsumer;
+        if (consumer != null)
+            LockSupport.unpark(consumer);
+        try {
+            producer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing read-ahead");
+        }
+        IOException producerCloseFailure = closeFailure;
+        if (producerCloseFailure != null)
+            throw producerCloseFailure;
+    }
+}
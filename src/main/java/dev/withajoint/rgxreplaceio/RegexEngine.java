@@ -0,0 +1,36 @@
+package dev.withajoint.rgxreplaceio;
+
+import dev.withajoint.rgxreplaceio.engine.NfaPattern;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+public enum RegexEngine {
+
+    JDK {
+        @Override
+        Supplier<ContentReplacer> compile(String regex, String replaceWith) {
+            if (regex.isBlank())
+                throw new IllegalArgumentException("Invalid regex");
+            String literal = LiteralContentReplacer.extractLiteral(regex);
+            if (literal != null) {
+                String expandedReplacement = ReplacementTemplate.compile(replaceWith, 0, Map.of()).expand(literal);
+                return () -> new LiteralContentReplacer(literal, expandedReplacement);
+            }
+            Pattern pattern = BufferContentReplacer.compile(regex);
+            ReplacementTemplate template = ReplacementTemplate.compile(replaceWith, pattern);
+            return () -> new BufferContentReplacer(pattern, template);
+        }
+    },
+    NATIVE {
+        @Override
+        Supplier<ContentReplacer> compile(String regex, String replaceWith) {
+            NfaPattern pattern = StreamingContentReplacer.compile(regex);
+            ReplacementTemplate template = StreamingContentReplacer.compileTemplate(replaceWith, pattern);
+            return () -> new StreamingContentReplacer(pattern, template);
+        }
+    };
+
+    abstract Supplier<ContentReplacer> compile(String regex, String replaceWith);
+}
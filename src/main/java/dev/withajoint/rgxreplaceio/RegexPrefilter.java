@@ -0,0 +1,318 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.regex.Pattern;
+
+final class RegexPrefilter {
+
+    static final int MAX_LEADING_CHARS = 32;
+
+    private static final int ASCII_LIMIT = 128;
+    private static final String WHITESPACE_CHARS = " \t\n\u000B\f\r";
+
+    private final boolean[] asciiCandidates;
+    private final char[] otherCandidates;
+
+    private RegexPrefilter(BitSet leadingChars) {
+        asciiCandidates = new boolean[ASCII_LIMIT];
+        otherCandidates = new char[leadingChars.cardinality() - leadingChars.get(0, ASCII_LIMIT).cardinality()];
+        int other = 0;
+        for (int c = leadingChars.nextSetBit(0); c >= 0; c = leadingChars.nextSetBit(c + 1)) {
+            if (c < ASCII_LIMIT)
+                asciiCandidates[c] = true;
+            else
+                otherCandidates[other++] = (char) c;
+        }
+    }
+
+    static RegexPrefilter of(Pattern pattern) {
+        if (pattern.flags() != 0)
+            return null;
+        BitSet leadingChars = new LeadingChars(pattern.pattern()).parse();
+        if (leadingChars == null || leadingChars.isEmpty() || leadingChars.cardinality() > MAX_LEADING_CHARS)
+            return null;
+        return new RegexPrefilter(leadingChars);
+    }
+
+    int nextCandidate(final CharSequence content, final int from, final int to) {
+        if (content instanceof CharArraySequence)
+            return nextCandidate(((CharArraySequence) content).array(), from, to);
+        for (int position = from; position < to; position++) {
+            if (isCandidate(content.charAt(position)))
+                return position;
+        }
+        return -1;
+    }
+
+    private int nextCandidate(final char[] content, final int from, final int to) {
+        for (int position = from; position < to; position++) {
+            if (isCandidate(content[position]))
+                return position;
+        }
+        return -1;
+    }
+
+    private boolean isCandidate(final char c) {
+        if (c < ASCII_LIMIT)
+            return asciiCandidates[c];
+        return otherCandidates.length > 0 && Arrays.binarySearch(otherCandidates, c) >= 0;
+    }
+
+    private static final class LeadingChars {
+
+        private static final int CLASS_ADDED = -2;
+
+        private final String regex;
+        private final BitSet leadingChars;
+        private int position;
+
+        private LeadingChars(String regex) {
+            this.regex = regex;
+            leadingChars = new BitSet();
+            position = 0;
+        }
+
+        private BitSet parse() {
+            if (!parseAlternation() || position != regex.length())
+                return null;
+            return leadingChars;
+        }
+
+        private boolean parseAlternation() {
+            while (true) {
+                if (!parseBranchStart())
+                    return false;
+                skipToBranchEnd();
+                if (position == regex.length() || regex.charAt(position) == ')')
+                    return true;
+                position++;
+            }
+        }
+
+        private boolean parseBranchStart() {
+            if (position == regex.length())
+                return false;
+            char c = regex.charAt(position++);
+            switch (c) {
+                case '(':
+                    return parseGroup() && isRequired();
+                case '[':
+                    return parseClass() && isRequired();
+                case '\\':
+                    return parseEscape();
+                case '.': case '^': case '$': case '|': case ')': case '*': case '+': case '?': case '{':
+                    return false;
+                default:
+                    return addChar(c) && isRequired();
+            }
+        }
+
+        private boolean parseGroup() {
+            if (regex.startsWith("?:", position) || regex.startsWith("?>", position)) {
+                position += 2;
+            } else if (regex.startsWith("?<", position) && position + 2 < regex.length() && isAsciiLetter(regex.charAt(position + 2))) {
+                int nameEnd = regex.indexOf('>', position);
+                if (nameEnd == -1)
+                    return false;
+                position = nameEnd + 1;
+            } else if (regex.startsWith("?", position)) {
+                return false;
+            }
+            if (!parseAlternation() || position == regex.length())
+                return false;
+            position++;
+            return true;
+        }
+
+        private boolean parseClass() {
+            if (regex.startsWith("^", position))
+                return false;
+            boolean first = true;
+            while (position < regex.length()) {
+                char c = regex.charAt(position++);
+                if (c == ']' && !first)
+                    return true;
+                first = false;
+                if (c == '[' || (c == '&' && regex.startsWith("&", position)))
+                    return false;
+                int rangeStart = c;
+                if (c == '\\') {
+                    rangeStart = parseClassEscape();
+                    if (rangeStart == -1)
+                        return false;
+                    if (rangeStart == CLASS_ADDED)
+                        continue;
+                } else if (Character.isSurrogate(c)) {
+                    return false;
+                }
+                if (regex.startsWith("-", position) && position + 1 < regex.length() && regex.charAt(position + 1) != ']') {
+                    position++;
+                    char end = regex.charAt(position++);
+                    int rangeEnd = end;
+                    if (end == '\\')
+                        rangeEnd = parseClassEscape();
+                    if (rangeEnd < 0 || rangeEnd == CLASS_ADDED || rangeEnd < rangeStart || Character.isSurrogate((char) rangeEnd))
+                        return false;
+                    leadingChars.set(rangeStart, rangeEnd + 1);
+                } else {
+                    leadingChars.set(rangeStart);
+                }
+                if (leadingChars.cardinality() > MAX_LEADING_CHARS)
+                    return false;
+            }
+            return false;
+        }
+
+        private int parseClassEscape() {
+            if (position == regex.length())
+                return -1;
+            char c = regex.charAt(position);
+            if (c == 'd' || c == 's' || c == 'w') {
+                position++;
+                return addCharClass(c) ? CLASS_ADDED : -1;
+            }
+            return parseEscapedChar();
+        }
+
+        private boolean parseEscape() {
+            if (position == regex.length())
+                return false;
+            char c = regex.charAt(position);
+            if (c == 'Q')
+                return parseQuote();
+            if (c == 'd' || c == 's' || c == 'w') {
+                position++;
+                return addCharClass(c) && isRequired();
+            }
+            int escaped = parseEscapedChar();
+            return escaped >= 0 && addChar((char) escaped) && isRequired();
+        }
+
+        private boolean parseQuote() {
+            int quoteStart = position + 1;
+            int quoteEnd = regex.indexOf("\\E", quoteStart);
+            if (quoteEnd == -1)
+                quoteEnd = regex.length();
+            if (quoteEnd == quoteStart || !addChar(regex.charAt(quoteStart)))
+                return false;
+            position = Math.min(quoteEnd + 2, regex.length());
+            return quoteEnd - quoteStart > 1 || isRequired();
+        }
+
+        private int parseEscapedChar() {
+            char c = regex.charAt(position++);
+            switch (c) {
+                case 't': return '\t';
+                case 'n': return '\n';
+                case 'r': return '\r';
+                case 'f': return '\f';
+                case 'a': return '\u0007';
+                case 'e': return '\u001B';
+                case 'x': return parseHex(2);
+                case 'u': return parseHex(4);
+                default: return Character.isLetterOrDigit(c) ? -1 : c;
+            }
+        }
+
+        private int parseHex(int digits) {
+            if (position + digits > regex.length())
+                return -1;
+            int value = 0;
+            for (int i = 0; i < digits; i++) {
+                int digit = Character.digit(regex.charAt(position++), 16);
+                if (digit == -1)
+                    return -1;
+                value = value * 16 + digit;
+            }
+            return Character.isSurrogate((char) value) ? -1 : value;
+        }
+
+        private boolean addCharClass(char c) {
+            if (c == 'd') {
+                leadingChars.set('0', '9' + 1);
+            } else if (c == 's') {
+                for (int i = 0; i < WHITESPACE_CHARS.length(); i++)
+                    leadingChars.set(WHITESPACE_CHARS.charAt(i));
+            } else {
+                leadingChars.set('a', 'z' + 1);
+                leadingChars.set('A', 'Z' + 1);
+                leadingChars.set('0', '9' + 1);
+                leadingChars.set('_');
+            }
+            return leadingChars.cardinality() <= MAX_LEADING_CHARS;
+        }
+
+        private boolean addChar(char c) {
+            if (Character.isSurrogate(c))
+                return false;
+            leadingChars.set(c);
+            return leadingChars.cardinality() <= MAX_LEADING_CHARS;
+        }
+
+        private boolean isRequired() {
+            if (position == regex.length())
+                return true;
+            char c = regex.charAt(position);
+            if (c == '?' || c == '*')
+                return false;
+            if (c != '{')
+                return true;
+            int minEnd = position + 1;
+            while (minEnd < regex.length() && Character.isDigit(regex.charAt(minEnd)))
+                minEnd++;
+            return minEnd > position + 1 && Integer.parseInt(regex.substring(position + 1, minEnd)) > 0;
+        }
+
+        private void skipToBranchEnd() {
+            int depth = 0;
+            while (position < regex.length()) {
+                char c = regex.charAt(position);
+                if (c == '\\' && regex.startsWith("Q", position + 1)) {
+                    int quoteEnd = regex.indexOf("\\E", position + 2);
+                    position = quoteEnd == -1 ? regex.length() : quoteEnd + 2;
+                    continue;
+                }
+                if (c == '\\') {
+                    position += 2;
+                    continue;
+                }
+                if (c == '[') {
+                    skipClass();
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    if (depth == 0)
+                        return;
+                    depth--;
+                } else if (c == '|' && depth == 0) {
+                    return;
+                }
+                position++;
+            }
+            position = Math.min(position, regex.length());
+        }
+
+        private void skipClass() {
+            position++;
+            if (regex.startsWith("^", position))
+                position++;
+            if (regex.startsWith("]", position))
+                position++;
+            while (position < regex.length()) {
+                char c = regex.charAt(position);
+                if (c == '\\')
+                    position++;
+                else if (c == '[')
+                    skipClass();
+                else if (c == ']')
+                    return;
+                position++;
+            }
+        }
+
+        private static boolean isAsciiLetter(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+        }
+    }
+}
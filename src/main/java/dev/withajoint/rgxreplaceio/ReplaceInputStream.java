@@ -0,0 +1,159 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class ReplaceInputStream extends FilterInputStream {
+
+    private static final int DEFAULT_BUFFER_SIZE = BufferSizing.DEFAULT_INITIAL_SIZE;
+
+    private byte[] buffer;
+    private boolean endOfStreamReached;
+    private int incompleteMatchStartIndex;
+    private int contextLength;
+    private int bytesInBuffer;
+    private int nextByte;
+    private final ByteContentReplacer contentReplacer;
+    private final BufferSizing bufferSizing;
+
+    public ReplaceInputStream(InputStream in, String regex, String replaceWith) {
+        this(in, regex, replaceWith, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ReplaceInputStream(InputStream in, String regex, String replaceWith, int bufferSize) {
+        this(in, regex, replaceWith, bufferSize, ByteEncoding.UTF_8);
+    }
+
+    public ReplaceInputStream(InputStream in, String regex, String replaceWith, int bufferSize, ByteEncoding encoding) {
+        this(in, new ByteContentReplacer(regex, replaceWith, encoding), BufferSizing.withDefaultMax(bufferSize));
+    }
+
+    public ReplaceInputStream(InputStream in, String regex, String replaceWith, int bufferSize, int maxBufferSize, ByteEncoding encoding) {
+        this(in, new ByteContentReplacer(regex, replaceWith, encoding), new BufferSizing(bufferSize, maxBufferSize));
+    }
+
+    ReplaceInputStream(InputStream in, ByteContentReplacer contentReplacer, BufferSizing bufferSizing) {
+        super(in);
+        buffer = new byte[bufferSizing.initialSize()];
+        this.contentReplacer = contentReplacer;
+        this.bufferSizing = bufferSizing;
+        nextByte = bytesInBuffer = contextLength = 0;
+        incompleteMatchStartIndex = -1;
+        endOfStreamReached = false;
+    }
+
+    @Override
+    public int read() throws IOException {
+        fillBuffer();
+        if (availableBytes() == 0)
+            return -1;
+        return buffer[nextByte++] & 0xFF;
+    }
+
+    private void fillBuffer() throws IOException {
+        while (availableBytes() == 0 && !endOfStreamReached) {
+            discardConsumedBytes();
+            readFromUnderlyingStream();
+            replaceMatchingContent();
+        }
+    }
+
+    private int availableBytes() {
+        int lastAvailableByte = incompleteMatchStartIndex != -1 ? incompleteMatchStartIndex : bytesInBuffer;
+        return lastAvailableByte - nextByte;
+    }
+
+    private void discardConsumedBytes() {
+        int carryStart = incompleteMatchStartIndex != -1 ? incompleteMatchStartIndex : bytesInBuffer;
+        int contentToReallocateLength = bytesInBuffer - carryStart;
+        buffer = bufferSizing.reserveContext(buffer, contentToReallocateLength, contentReplacer.getContextLength());
+        contextLength = Math.min(contentReplacer.getContextLength(), (buffer.length - contentToReallocateLength) / 2);
+        System.arraycopy(buffer, carryStart, buffer, contextLength, contentToReallocateLength);
+        contentReplacer.copyContext(buffer, contextLength);
+        bytesInBuffer = contextLength + contentToReallocateLength;
+        incompleteMatchStartIndex = -1;
+        nextByte = 0;
+        buffer = bufferSizing.resize(buffer, bytesInBuffer);
+    }
+
+    private void readFromUnderlyingStream() throws IOException {
+        int bytesRead = 0;
+        while (bytesInBuffer < buffer.length && bytesRead != -1) {
+            bytesRead = in.read(buffer, bytesInBuffer, buffer.length - bytesInBuffer);
+            if (bytesRead != -1)
+                bytesInBuffer += bytesRead;
+        }
+        endOfStreamReached = bytesRead == -1;
+    }
+
+    private void replaceMatchingContent() {
+        buffer = contentReplacer.replaceMatchesIfAny(buffer, contextLength, bytesInBuffer, endOfStreamReached);
+        bytesInBuffer = contentReplacer.getBytesAfterReplacement();
+        nextByte = contextLength;
+        if (contentReplacer.isLastMatchIncomplete())
+            incompleteMatchStartIndex = contentReplacer.getIncompleteMatchStartIndex();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if ((off < 0) || (off > b.length) || (len < 0) ||
+                ((off + len) > b.length) || ((off + len) < 0)) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0)
+            return 0;
+        int bytesRead = 0;
+        int bytesToRead;
+        while (len > 0) {
+            fillBuffer();
+            bytesToRead = Math.min(len, availableBytes());
+            if (bytesToRead == 0)
+                return bytesRead == 0 ? -1 : bytesRead;
+            System.arraycopy(buffer, nextByte, b, off + bytesRead, bytesToRead);
+            nextByte += bytesToRead;
+            bytesRead += bytesToRead;
+            len -= bytesToRead;
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skippedBytesCount = 0;
+        while (skippedBytesCount < n) {
+            fillBuffer();
+            int bytesAvailable = availableBytes();
+            if (bytesAvailable == 0)
+                break;
+            int bytesToSkip = (int) Math.min(n - skippedBytesCount, bytesAvailable);
+            skippedBytesCount += bytesToSkip;
+            nextByte += bytesToSkip;
+        }
+        return skippedBytesCount;
+    }
+
+    @Override
+    public int available() {
+        return availableBytes();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readLimit) {
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset() not supported");
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,47 @@
+package dev.withajoint.rgxreplaceio;
+
+public interface ReplaceMetrics {
+
+    ReplaceMetrics NONE = new ReplaceMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    static ReplaceMetrics global() {
+        return GlobalReplaceMetrics.get();
+    }
+
+    static void setGlobal(ReplaceMetrics metrics) {
+        GlobalReplaceMetrics.set(metrics);
+    }
+
+    default boolean isEnabled() {
+        return true;
+    }
+
+    default void onBufferFill() {
+    }
+
+    default void onCharsIn(int chars) {
+    }
+
+    default void onCharsOut(int chars) {
+    }
+
+    default void onMatchesReplaced(int matches) {
+    }
+
+    default void onCarryOver(int chars) {
+    }
+
+    default void onIncompleteMatch() {
+    }
+
+    default void onBufferGrown(int bufferSize) {
+    }
+
+    default void onReplacementNanos(long nanos) {
+    }
+}
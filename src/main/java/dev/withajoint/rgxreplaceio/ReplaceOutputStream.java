@@ -0,0 +1,95 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class ReplaceOutputStream extends FilterOutputStream {
+
+    private static final int DEFAULT_BUFFER_SIZE = BufferSizing.DEFAULT_INITIAL_SIZE;
+
+    private byte[] buffer;
+    private final ByteContentReplacer contentReplacer;
+    private final BufferSizing bufferSizing;
+    private int nextByte;
+    private int contextLength;
+
+    public ReplaceOutputStream(OutputStream out, String regex, String replaceWith) {
+        this(out, regex, replaceWith, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ReplaceOutputStream(OutputStream out, String regex, String replaceWith, int bufferSize) {
+        this(out, regex, replaceWith, bufferSize, ByteEncoding.UTF_8);
+    }
+
+    public ReplaceOutputStream(OutputStream out, String regex, String replaceWith, int bufferSize, ByteEncoding encoding) {
+        this(out, new ByteContentReplacer(regex, replaceWith, encoding), BufferSizing.withDefaultMax(bufferSize));
+    }
+
+    public ReplaceOutputStream(OutputStream out, String regex, String replaceWith, int bufferSize, int maxBufferSize, ByteEncoding encoding) {
+        this(out, new ByteContentReplacer(regex, replaceWith, encoding), new BufferSizing(bufferSize, maxBufferSize));
+    }
+
+    ReplaceOutputStream(OutputStream out, ByteContentReplacer contentReplacer, BufferSizing bufferSizing) {
+        super(out);
+        buffer = new byte[bufferSizing.initialSize()];
+        this.contentReplacer = contentReplacer;
+        this.bufferSizing = bufferSizing;
+        nextByte = contextLength = 0;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (nextByte >= buffer.length)
+            replaceAndWriteResolvedContent();
+        buffer[nextByte++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if ((off < 0) || (off > b.length) || (len < 0) ||
+                ((off + len) > b.length) || ((off + len) < 0)) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (nextByte >= buffer.length)
+                replaceAndWriteResolvedContent();
+            int bytesToCopy = Math.min(len, buffer.length - nextByte);
+            System.arraycopy(b, off, buffer, nextByte, bytesToCopy);
+            nextByte += bytesToCopy;
+            off += bytesToCopy;
+            len -= bytesToCopy;
+        }
+    }
+
+    private void replaceAndWriteResolvedContent() throws IOException {
+        buffer = contentReplacer.replaceMatchesIfAny(buffer, contextLength, nextByte, false);
+        int bytesAfterReplacement = contentReplacer.getBytesAfterReplacement();
+        int resolvedBytes = contentReplacer.isLastMatchIncomplete()
+                ? contentReplacer.getIncompleteMatchStartIndex()
+                : bytesAfterReplacement;
+        out.write(buffer, contextLength, resolvedBytes - contextLength);
+        carryOver(resolvedBytes, bytesAfterReplacement);
+    }
+
+    private void carryOver(int resolvedBytes, int contentLength) {
+        int carriedBytes = contentLength - resolvedBytes;
+        buffer = bufferSizing.reserveContext(buffer, carriedBytes, contentReplacer.getContextLength());
+        contextLength = Math.min(contentReplacer.getContextLength(), (buffer.length - carriedBytes) / 2);
+        System.arraycopy(buffer, resolvedBytes, buffer, contextLength, carriedBytes);
+        contentReplacer.copyContext(buffer, contextLength);
+        nextByte = contextLength + carriedBytes;
+        buffer = bufferSizing.resize(buffer, nextByte);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (nextByte > contextLength) {
+            buffer = contentReplacer.replaceMatchesIfAny(buffer, contextLength, nextByte, true);
+            int bytesAfterReplacement = contentReplacer.getBytesAfterReplacement();
+            out.write(buffer, contextLength, bytesAfterReplacement - contextLength);
+            carryOver(bytesAfterReplacement, bytesAfterReplacement);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,92 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+public final class ReplaceProcessor extends ChunkReplaceProcessor<CharBuffer> {
+
+    private final ContentReplacer contentReplacer;
+    private final BufferSizing bufferSizing;
+    private final CharBufferPool bufferPool;
+    private char[] buffer;
+    private int charsInBuffer;
+    private int contextLength;
+    private char[] replacedChars;
+    private int replacedLength;
+
+    public ReplaceProcessor(String regex, String replaceWith) {
+        this(ReplaceSpec.of(regex, replaceWith));
+    }
+
+    public ReplaceProcessor(ReplaceSpec spec) {
+        this(spec.newContentReplacer(), spec.bufferSizing(), spec.bufferPool());
+    }
+
+    ReplaceProcessor(ContentReplacer contentReplacer, BufferSizing bufferSizing, CharBufferPool bufferPool) {
+        this.contentReplacer = contentReplacer;
+        this.bufferSizing = bufferSizing;
+        this.bufferPool = bufferPool;
+        contentReplacer.setBufferPool(bufferPool);
+        buffer = bufferPool.acquire(bufferSizing.initialSize());
+        charsInBuffer = contextLength = 0;
+    }
+
+    @Override
+    CharBuffer replace(CharBuffer chunk, boolean endOfInput) {
+        replacedChars = null;
+        replacedLength = 0;
+        if (chunk != null) {
+            while (chunk.hasRemaining()) {
+                if (charsInBuffer == buffer.length)
+                    replaceBuffer(false);
+                int charsToCopy = Math.min(chunk.remaining(), buffer.length - charsInBuffer);
+                chunk.get(buffer, charsInBuffer, charsToCopy);
+                charsInBuffer += charsToCopy;
+            }
+        }
+        replaceBuffer(endOfInput);
+        if (endOfInput)
+            releaseBuffers();
+        return replacedLength > 0 ? CharBuffer.wrap(replacedChars, 0, replacedLength) : null;
+    }
+
+    private void replaceBuffer(boolean endOfInput) {
+        buffer = contentReplacer.replaceMatchesIfAny(buffer, contextLength, charsInBuffer, endOfInput);
+        int charsAfterReplacement = contentReplacer.getCharsAfterReplacement();
+        int resolvedChars = contentReplacer.isLastMatchIncomplete()
+                ? contentReplacer.getIncompleteMatchStartIndex()
+                : charsAfterReplacement;
+        appendReplacedChars(resolvedChars);
+        carryOver(resolvedChars, charsAfterReplacement);
+    }
+
+    private void appendReplacedChars(int resolvedChars) {
+        int length = resolvedChars - contextLength;
+        if (length == 0)
+            return;
+        if (replacedChars == null)
+            replacedChars = new char[length];
+        else if (replacedLength + length > replacedChars.length)
+            replacedChars = Arrays.copyOf(replacedChars, Math.max(replacedLength + length, replacedChars.length * 2));
+        System.arraycopy(buffer, contextLength, replacedChars, replacedLength, length);
+        replacedLength += length;
+    }
+
+    private void carryOver(int resolvedChars, int contentLength) {
+        int carriedChars = contentLength - resolvedChars;
+        if (carriedChars > bufferSizing.maxSize())
+            throw new IllegalStateException("Regex match too broad, increase max buffer size");
+        contextLength = Math.min(contentReplacer.getContextLength(), (buffer.length - carriedChars) / 2);
+        System.arraycopy(buffer, resolvedChars, buffer, contextLength, carriedChars);
+        contentReplacer.copyContext(buffer, contextLength);
+        charsInBuffer = contextLength + carriedChars;
+        buffer = bufferSizing.resize(buffer, charsInBuffer, bufferPool);
+    }
+
+    private void releaseBuffers() {
+        bufferPool.release(buffer);
+        contentReplacer.releaseBuffers();
+        buffer = null;
+        charsInBuffer = contextLength = 0;
+    }
+}
@@ -0,0 +1,133 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+public class ReplaceReadableByteChannel implements ReadableByteChannel {
+
+    private static final int DEFAULT_BUFFER_SIZE = BufferSizing.DEFAULT_INITIAL_SIZE;
+
+    private final ReadableByteChannel in;
+    private final ByteContentReplacer contentReplacer;
+    private final BufferSizing bufferSizing;
+    private byte[] buffer;
+    private ByteBuffer bufferView;
+    private boolean endOfStreamReached;
+    private boolean open;
+    private int incompleteMatchStartIndex;
+    private int contextLength;
+    private int bytesInBuffer;
+    private int nextByte;
+
+    public ReplaceReadableByteChannel(ReadableByteChannel in, String regex, String replaceWith) {
+        this(in, regex, replaceWith, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ReplaceReadableByteChannel(ReadableByteChannel in, String regex, String replaceWith, int bufferSize) {
+        this(in, regex, replaceWith, bufferSize, ByteEncoding.UTF_8);
+    }
+
+    public ReplaceReadableByteChannel(ReadableByteChannel in, String regex, String replaceWith, int bufferSize, ByteEncoding encoding) {
+        this(in, new ByteContentReplacer(regex, replaceWith, encoding), BufferSizing.withDefaultMax(bufferSize));
+    }
+
+    public ReplaceReadableByteChannel(ReadableByteChannel in, String regex, String replaceWith, int bufferSize, int maxBufferSize, ByteEncoding encoding) {
+        this(in, new ByteContentReplacer(regex, replaceWith, encoding), new BufferSizing(bufferSize, maxBufferSize));
+    }
+
+    ReplaceReadableByteChannel(ReadableByteChannel in, ByteContentReplacer contentReplacer, BufferSizing bufferSizing) {
+        this.in = in;
+        this.contentReplacer = contentReplacer;
+        this.bufferSizing = bufferSizing;
+        setBuffer(new byte[bufferSizing.initialSize()]);
+        nextByte = bytesInBuffer = contextLength = 0;
+        incompleteMatchStartIndex = -1;
+        endOfStreamReached = false;
+        open = true;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!open)
+            throw new ClosedChannelException();
+        int bytesRead = 0;
+        while (dst.hasRemaining()) {
+            if (!fillBuffer())
+                break;
+            int bytesToRead = Math.min(dst.remaining(), availableBytes());
+            dst.put(buffer, nextByte, bytesToRead);
+            nextByte += bytesToRead;
+            bytesRead += bytesToRead;
+        }
+        if (bytesRead == 0 && availableBytes() == 0 && endOfStreamReached)
+            return -1;
+        return bytesRead;
+    }
+
+    private boolean fillBuffer() throws IOException {
+        while (availableBytes() == 0 && !endOfStreamReached) {
+            discardConsumedBytes();
+            if (!readFromUnderlyingChannel())
+                return false;
+            replaceMatchingContent();
+        }
+        return availableBytes() > 0;
+    }
+
+    private int availableBytes() {
+        int lastAvailableByte = incompleteMatchStartIndex != -1 ? incompleteMatchStartIndex : bytesInBuffer;
+        return lastAvailableByte - nextByte;
+    }
+
+    private void discardConsumedBytes() {
+        int carryStart = incompleteMatchStartIndex != -1 ? incompleteMatchStartIndex : bytesInBuffer;
+        int contentToReallocateLength = bytesInBuffer - carryStart;
+        setBuffer(bufferSizing.reserveContext(buffer, contentToReallocateLength, contentReplacer.getContextLength()));
+        contextLength = Math.min(contentReplacer.getContextLength(), (buffer.length - contentToReallocateLength) / 2);
+        System.arraycopy(buffer, carryStart, buffer, contextLength, contentToReallocateLength);
+        contentReplacer.copyContext(buffer, contextLength);
+        bytesInBuffer = contextLength + contentToReallocateLength;
+        incompleteMatchStartIndex = -1;
+        nextByte = 0;
+        setBuffer(bufferSizing.resize(buffer, bytesInBuffer));
+    }
+
+    private boolean readFromUnderlyingChannel() throws IOException {
+        bufferView.clear().position(bytesInBuffer);
+        int bytesRead = 0;
+        int totalBytesRead = 0;
+        while (bufferView.hasRemaining() && (bytesRead = in.read(bufferView)) > 0)
+            totalBytesRead += bytesRead;
+        bytesInBuffer = bufferView.position();
+        endOfStreamReached = bytesRead == -1;
+        return totalBytesRead > 0 || endOfStreamReached;
+    }
+
+    private void replaceMatchingContent() {
+        setBuffer(contentReplacer.replaceMatchesIfAny(buffer, contextLength, bytesInBuffer, endOfStreamReached));
+        bytesInBuffer = contentReplacer.getBytesAfterReplacement();
+        nextByte = contextLength;
+        if (contentReplacer.isLastMatchIncomplete())
+            incompleteMatchStartIndex = contentReplacer.getIncompleteMatchStartIndex();
+    }
+
+    private void setBuffer(byte[] replacedBuffer) {
+        if (replacedBuffer != buffer) {
+            buffer = replacedBuffer;
+            bufferView = ByteBuffer.wrap(buffer);
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        open = false;
+        in.close();
+    }
+}
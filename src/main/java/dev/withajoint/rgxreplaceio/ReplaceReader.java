@@ -3,80 +3,200 @@ package dev.withajoint.rgxreplaceio;
 import java.io.FilterReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Objects;
 
 public class ReplaceReader extends FilterReader {
 
-    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int DEFAULT_BUFFER_SIZE = BufferSizing.DEFAULT_INITIAL_SIZE;
 
     private char[] buffer;
-    private boolean bufferCheckedForReplacement;
+    private boolean endOfStreamReached;
+    private boolean skipLineFeed;
     private int incompleteMatchStartIndex;
+    private int contextLength;
     private int charsInBuffer;
     private int nextChar;
-    private final BufferContentReplacer contentReplacer;
+    private final ContentReplacer contentReplacer;
+    private final BufferSizing bufferSizing;
+    private final ReplaceMetrics metrics;
+    private final boolean metricsEnabled;
+    private final StreamEvents events;
+    private final CharBufferPool bufferPool;
+    private final CharBufferPool.Lease bufferLease;
 
     public ReplaceReader(Reader in, String regex, String replaceWith) {
         this(in, regex, replaceWith, DEFAULT_BUFFER_SIZE);
     }
 
     public ReplaceReader(Reader in, String regex, String replaceWith, int bufferSize) {
+        this(in, regex, replaceWith, bufferSize, RegexEngine.JDK);
+    }
+
+    public ReplaceReader(Reader in, String regex, String replaceWith, int bufferSize, RegexEngine engine) {
+        this(in, ReplaceSpec.cached(regex, replaceWith, BufferSizing.withDefaultMax(bufferSize), engine));
+    }
+
+    public ReplaceReader(Reader in, String regex, String replaceWith, int bufferSize, int maxBufferSize, RegexEngine engine) {
+        this(in, ReplaceSpec.cached(regex, replaceWith, new BufferSizing(bufferSize, maxBufferSize), engine));
+    }
+
+    public ReplaceReader(Reader in, String regex, String replaceWith, int bufferSize, int maxBufferSize, RegexEngine engine,
+                         ReplaceMetrics metrics) {
+        this(in, ReplaceSpec.cached(regex, replaceWith, new BufferSizing(bufferSize, maxBufferSize), engine), metrics);
+    }
+
+    public ReplaceReader(Reader in, String regex, MatchReplacer matchReplacer) {
+        this(in, regex, matchReplacer, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ReplaceReader(Reader in, String regex, MatchReplacer matchReplacer, int bufferSize) {
+        this(in, new BufferContentReplacer(regex, matchReplacer), BufferSizing.withDefaultMax(bufferSize));
+    }
+
+    public ReplaceReader(Reader in, String regex, MatchReplacer matchReplacer, int bufferSize, int maxBufferSize) {
+        this(in, new BufferContentReplacer(regex, matchReplacer), new BufferSizing(bufferSize, maxBufferSize));
+    }
+
+    public ReplaceReader(Reader in, Map<String, String> replacements) {
+        this(in, replacements, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ReplaceReader(Reader in, Map<String, String> replacements, int bufferSize) {
+        this(in, new DictionaryContentReplacer(replacements), BufferSizing.withDefaultMax(bufferSize));
+    }
+
+    public ReplaceReader(Reader in, Map<String, String> replacements, int bufferSize, int maxBufferSize) {
+        this(in, new DictionaryContentReplacer(replacements), new BufferSizing(bufferSize, maxBufferSize));
+    }
+
+    public ReplaceReader(Reader in, ReplaceSpec spec) {
+        this(in, spec, ReplaceMetrics.global());
+    }
+
+    public ReplaceReader(Reader in, ReplaceSpec spec, ReplaceMetrics metrics) {
+        this(in, spec.newContentReplacer(), spec.bufferSizing(), metrics, spec.bufferPool());
+    }
+
+    ReplaceReader(Reader in, ContentReplacer contentReplacer, BufferSizing bufferSizing) {
+        this(in, contentReplacer, bufferSizing, ReplaceMetrics.global());
+    }
+
+    ReplaceReader(Reader in, ContentReplacer contentReplacer, BufferSizing bufferSizing, ReplaceMetrics metrics) {
+        this(in, contentReplacer, bufferSizing, metrics, CharBufferPool.global());
+    }
+
+    ReplaceReader(Reader in, ContentReplacer contentReplacer, BufferSizing bufferSizing, ReplaceMetrics metrics,
+                  CharBufferPool bufferPool) {
         super(in);
-        if (bufferSize <= 0) {
-            throw new IllegalArgumentException("Buffer size <= 0");
-        }
-        buffer = new char[bufferSize];
-        contentReplacer = new BufferContentReplacer(regex, replaceWith);
-        nextChar = charsInBuffer = 0;
+        buffer = bufferPool.acquire(bufferSizing.initialSize());
+        contentReplacer.setBufferPool(bufferPool);
+        this.contentReplacer = contentReplacer;
+        this.bufferSizing = bufferSizing;
+        this.metrics = metrics;
+        metricsEnabled = metrics.isEnabled();
+        events = new StreamEvents(contentReplacer.getPattern(), buffer.length);
+        this.bufferPool = bufferPool;
+        bufferLease = bufferPool.lease(this);
+        nextChar = charsInBuffer = contextLength = 0;
         incompleteMatchStartIndex = -1;
-        bufferCheckedForReplacement = false;
+        endOfStreamReached = skipLineFeed = false;
     }
 
     @Override
     public int read() throws IOException {
         if (nextChar >= charsInBuffer || nextChar == incompleteMatchStartIndex) {
             fillBuffer();
-            if (charsInBuffer == 0)
+            if (availableChars() == 0)
                 return -1;
         }
         return buffer[nextChar++];
     }
 
     private void fillBuffer() throws IOException {
-        if (incompleteMatchStartIndex > 0) {
-            reallocateBuffer(incompleteMatchStartIndex);
-            nextChar = 0;
-            incompleteMatchStartIndex = -1;
-            bufferCheckedForReplacement = false;
-        } else if (nextChar >= charsInBuffer) {
-            charsInBuffer = 0;
-            nextChar = 0;
+        if (buffer == null)
+            throw new IOException("Stream closed");
+        while (availableChars() == 0 && !endOfStreamReached) {
+            metrics.onBufferFill();
+            discardConsumedChars();
+            readFromUnderlyingStream();
+            replaceMatchingContent();
         }
+    }
+
+    private int availableChars() {
+        int lastAvailableChar = incompleteMatchStartIndex != -1 ? incompleteMatchStartIndex : charsInBuffer;
+        return lastAvailableChar - nextChar;
+    }
+
+    private void discardConsumedChars() {
+        int carryStart = incompleteMatchStartIndex != -1 ? incompleteMatchStartIndex : charsInBuffer;
+        if (incompleteMatchStartIndex != -1)
+            metrics.onCarryOver(charsInBuffer - carryStart);
+        contextLength = carriedContextLength(carryStart);
+        reallocateBuffer(carryStart);
+        incompleteMatchStartIndex = -1;
+        nextChar = 0;
+        resizeBuffer();
+    }
+
+    private int carriedContextLength(int carryStart) {
+        int carriedChars = charsInBuffer - carryStart;
+        return Math.min(contentReplacer.getContextLength(), (buffer.length - carriedChars) / 2);
+    }
+
+    private void resizeBuffer() {
+        char[] resizedBuffer = bufferSizing.resize(buffer, charsInBuffer, bufferPool);
+        if (resizedBuffer.length > buffer.length)
+            metrics.onBufferGrown(resizedBuffer.length);
+        if (resizedBuffer != buffer)
+            events.onBufferResized(buffer.length, resizedBuffer.length);
+        buffer = resizedBuffer;
+    }
+
+    private void reallocateBuffer(int startingPoint) {
+        int contentToReallocateLength = charsInBuffer - startingPoint;
+        System.arraycopy(buffer, startingPoint, buffer, contextLength, contentToReallocateLength);
+        contentReplacer.copyContext(buffer, contextLength);
+        charsInBuffer = contextLength + contentToReallocateLength;
+    }
+
+    private void readFromUnderlyingStream() throws IOException {
         int charsRead = 0;
         while (charsInBuffer < buffer.length && charsRead != -1) {
             charsRead = in.read(buffer, charsInBuffer, buffer.length - charsInBuffer);
             if (charsRead != -1) {
                 charsInBuffer += charsRead;
-                bufferCheckedForReplacement = false;
+                metrics.onCharsIn(charsRead);
+                events.onCharsIn(charsRead);
             }
-            if (!bufferCheckedForReplacement)
-                replaceMatchingContent();
         }
+        endOfStreamReached = charsRead == -1;
     }
 
-    private void reallocateBuffer(int startingPoint) {
-        int contentToReallocateLength = buffer.length - startingPoint;
-        char[] tmpBuffer = new char[buffer.length];
-        System.arraycopy(buffer, startingPoint, tmpBuffer, 0, contentToReallocateLength);
-        buffer = tmpBuffer;
-        charsInBuffer = contentToReallocateLength;
-    }
-
-    private void replaceMatchingContent() {
-        buffer = contentReplacer.replaceMatchesIfAny(buffer, charsInBuffer);
+    private void replaceMatchingContent() throws IOException {
+        int charsToReplace = charsInBuffer - contextLength;
+        BufferReplacementEvent event = events.beginReplacement();
+        long replacementStart = metricsEnabled ? System.nanoTime() : 0;
+        try {
+            buffer = contentReplacer.replaceMatchesIfAny(buffer, contextLength, charsInBuffer, endOfStreamReached);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        nextChar = contextLength;
+        if (metricsEnabled)
+            metrics.onReplacementNanos(System.nanoTime() - replacementStart);
+        events.endReplacement(event, charsToReplace, contentReplacer.getMatchesReplaced(), endOfStreamReached);
         charsInBuffer = contentReplacer.getCharsAfterReplacement();
-        if (contentReplacer.isLastMatchIncomplete())
+        if (contentReplacer.isLastMatchIncomplete()) {
             incompleteMatchStartIndex = contentReplacer.getIncompleteMatchStartIndex();
-        bufferCheckedForReplacement = true;
+            metrics.onIncompleteMatch();
+        }
+        metrics.onMatchesReplaced(contentReplacer.getMatchesReplaced());
+        metrics.onCharsOut(availableChars());
+        events.onCharsOut(availableChars());
     }
 
     @Override
@@ -89,13 +209,9 @@ public class ReplaceReader extends FilterReader {
         int charsToRead;
         while (len > 0) {
             fillBuffer();
-            charsToRead = Math.min(len, buffer.length);
-            if (charsInBuffer == 0 && charsRead == 0)
-                return -1;
-            else if (incompleteMatchStartIndex != -1 && nextChar + charsToRead > incompleteMatchStartIndex)
-                charsToRead = incompleteMatchStartIndex - nextChar;
-            else if (nextChar + charsToRead > charsInBuffer)
-                charsToRead = len = charsInBuffer - nextChar;
+            charsToRead = Math.min(len, availableChars());
+            if (charsToRead == 0)
+                return charsRead == 0 ? -1 : charsRead;
             System.arraycopy(buffer, nextChar, cbuf, off + charsRead, charsToRead);
             nextChar += charsToRead;
             charsRead += charsToRead;
@@ -104,33 +220,106 @@ public class ReplaceReader extends FilterReader {
         return charsRead;
     }
 
-    public String readLine() throws IOException {
-        StringBuilder line = new StringBuilder();
-        while (!isNextCharLineTerminator()) {
-            line.append(buffer[nextChar]);
-            nextChar++;
+    @Override
+    public long transferTo(Writer out) throws IOException {
+        Objects.requireNonNull(out, "out");
+        if (buffer == null)
+            throw new IOException("Stream closed");
+        long charsTransferred = transferAvailableChars(out);
+        if (!(contentReplacer instanceof DirectContentReplacer)) {
+            while (true) {
+                fillBuffer();
+                if (availableChars() == 0)
+                    return charsTransferred;
+                charsTransferred += transferAvailableChars(out);
+            }
         }
-        if (charsInBuffer == 0 && line.length() == 0)
-            return null;
-        return line.toString();
+        DirectContentReplacer directReplacer = (DirectContentReplacer) contentReplacer;
+        while (!endOfStreamReached) {
+            metrics.onBufferFill();
+            discardConsumedChars();
+            readFromUnderlyingStream();
+            int resolvedChars = writeMatchingContent(directReplacer, out);
+            charsTransferred += contentReplacer.getCharsAfterReplacement();
+            nextChar = resolvedChars;
+            incompleteMatchStartIndex = resolvedChars < charsInBuffer ? resolvedChars : -1;
+        }
+        return charsTransferred;
     }
 
-    private boolean isNextCharLineTerminator() throws IOException {
-        if (nextChar >= charsInBuffer || nextChar == incompleteMatchStartIndex) {
-            fillBuffer();
-            if (charsInBuffer == 0)
-                return true;
+    private int transferAvailableChars(Writer out) throws IOException {
+        int charsAvailable = availableChars();
+        if (charsAvailable > 0)
+            out.write(buffer, nextChar, charsAvailable);
+        nextChar += charsAvailable;
+        return charsAvailable;
+    }
+
+    private int writeMatchingContent(DirectContentReplacer directReplacer, Writer out) throws IOException {
+        BufferReplacementEvent event = events.beginReplacement();
+        long replacementStart = metricsEnabled ? System.nanoTime() : 0;
+        int resolvedChars;
+        try {
+            resolvedChars = directReplacer.writeMatchesReplaced(buffer, contextLength, charsInBuffer, endOfStreamReached, out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (metricsEnabled)
+            metrics.onReplacementNanos(System.nanoTime() - replacementStart);
+        events.endReplacement(event, charsInBuffer - contextLength, contentReplacer.getMatchesReplaced(), endOfStreamReached);
+        if (contentReplacer.isLastMatchIncomplete())
+            metrics.onIncompleteMatch();
+        metrics.onMatchesReplaced(contentReplacer.getMatchesReplaced());
+        metrics.onCharsOut(contentReplacer.getCharsAfterReplacement());
+        events.onCharsOut(contentReplacer.getCharsAfterReplacement());
+        return resolvedChars;
+    }
+
+    public String readLine() throws IOException {
+        StringBuilder line = null;
+        while (true) {
+            if (availableChars() == 0) {
+                fillBuffer();
+                if (availableChars() == 0)
+                    return line != null ? line.toString() : null;
+            }
+            int end = nextChar + availableChars();
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[nextChar] == '\n') {
+                    nextChar++;
+                    continue;
+                }
+            }
+            int terminator = findLineTerminator(nextChar, end);
+            if (terminator == end) {
+                if (line == null)
+                    line = new StringBuilder(end - nextChar + 16);
+                line.append(buffer, nextChar, end - nextChar);
+                nextChar = end;
+                continue;
+            }
+            String result = line == null
+                    ? new String(buffer, nextChar, terminator - nextChar)
+                    : line.append(buffer, nextChar, terminator - nextChar).toString();
+            nextChar = terminator + 1;
+            if (buffer[terminator] == '\r') {
+                if (nextChar == end)
+                    skipLineFeed = true;
+                else if (buffer[nextChar] == '\n')
+                    nextChar++;
+            }
+            return result;
         }
-        if (buffer[nextChar] == '\n') {
-            nextChar++;
-            return true;
-        } else if (buffer[nextChar] == '\r') {
-            nextChar++;
-            if (buffer[nextChar] == '\n')
-                nextChar++;
-            return true;
+    }
+
+    private int findLineTerminator(int from, int end) {
+        for (int i = from; i < end; i++) {
+            char c = buffer[i];
+            if (c == '\n' || c == '\r')
+                return i;
         }
-        return false;
+        return end;
     }
 
     @Override
@@ -140,14 +329,15 @@ public class ReplaceReader extends FilterReader {
         while (skippedCharsCount < n) {
             charsToSkip = n - skippedCharsCount;
             fillBuffer();
-            if (charsInBuffer == 0)
+            int charsAvailable = availableChars();
+            if (charsAvailable == 0)
                 break;
-            else if (charsToSkip < charsInBuffer - nextChar) {
+            else if (charsToSkip < charsAvailable) {
                 skippedCharsCount += charsToSkip;
                 nextChar += charsToSkip;
             } else {
-                skippedCharsCount += charsInBuffer - nextChar;
-                nextChar = charsInBuffer;
+                skippedCharsCount += charsAvailable;
+                nextChar += charsAvailable;
             }
         }
         return skippedCharsCount;
@@ -155,9 +345,9 @@ public class ReplaceReader extends FilterReader {
 
     @Override
     public boolean ready() throws IOException {
-        if (charsInBuffer == 0)
+        if (availableChars() == 0)
             fillBuffer();
-        return in.ready() && charsInBuffer != 0;
+        return availableChars() != 0;
     }
 
     @Override
@@ -177,6 +367,19 @@ public class ReplaceReader extends FilterReader {
 
     @Override
     public void close() throws IOException {
+        if (buffer == null)
+            return;
+        events.onStreamClosed();
+        releaseBuffers();
         in.close();
     }
+
+    private void releaseBuffers() {
+        bufferPool.release(buffer);
+        contentReplacer.releaseBuffers();
+        bufferLease.close();
+        buffer = null;
+        nextChar = charsInBuffer = contextLength = 0;
+        incompleteMatchStartIndex = -1;
+    }
 }
@@ -0,0 +1,151 @@
+package dev.withajoint.rgxreplaceio;
+
+import dev.withajoint.rgxreplaceio.engine.LiteralDictionary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.regex.Pattern;
+
+public final class ReplaceSpec {
+
+    private static final ReplaceSpecCache CACHE = new ReplaceSpecCache(ReplaceSpecCache.DEFAULT_CAPACITY);
+
+    private final String pattern;
+    private final Supplier<ContentReplacer> contentReplacers;
+    private final BufferSizing bufferSizing;
+    private final CharBufferPool bufferPool;
+
+    private ReplaceSpec(String pattern, Supplier<ContentReplacer> contentReplacers, BufferSizing bufferSizing) {
+        this(pattern, contentReplacers, bufferSizing, null);
+    }
+
+    private ReplaceSpec(String pattern, Supplier<ContentReplacer> contentReplacers, BufferSizing bufferSizing,
+                        CharBufferPool bufferPool) {
+        this.pattern = pattern;
+        this.contentReplacers = contentReplacers;
+        this.bufferSizing = bufferSizing;
+        this.bufferPool = bufferPool;
+    }
+
+    public static ReplaceSpec of(String regex, String replaceWith) {
+        return of(regex, replaceWith, defaultBufferSizing(), RegexEngine.JDK);
+    }
+
+    public static ReplaceSpec of(String regex, String replaceWith, int bufferSize, int maxBufferSize, RegexEngine engine) {
+        return of(regex, replaceWith, new BufferSizing(bufferSize, maxBufferSize), engine);
+    }
+
+    static ReplaceSpec of(String regex, String replaceWith, BufferSizing bufferSizing, RegexEngine engine) {
+        return new ReplaceSpec(regex, engine.compile(regex, replaceWith), bufferSizing);
+    }
+
+    public static ReplaceSpec of(String regex, MatchReplacer matchReplacer) {
+        return of(regex, matchReplacer, defaultBufferSizing());
+    }
+
+    public static ReplaceSpec of(String regex, MatchReplacer matchReplacer, int bufferSize, int maxBufferSize) {
+        return of(regex, matchReplacer, new BufferSizing(bufferSize, maxBufferSize));
+    }
+
+    static ReplaceSpec of(String regex, MatchReplacer matchReplacer, BufferSizing bufferSizing) {
+        Pattern compiledPattern = BufferContentReplacer.compile(regex);
+        return new ReplaceSpec(regex, () -> new BufferContentReplacer(compiledPattern, matchReplacer), bufferSizing);
+    }
+
+    public static ReplaceSpec of(Map<String, String> replacements) {
+        return of(replacements, defaultBufferSizing());
+    }
+
+    public static ReplaceSpec of(Map<String, String> replacements, int bufferSize, int maxBufferSize) {
+        return of(replacements, new BufferSizing(bufferSize, maxBufferSize));
+    }
+
+    static ReplaceSpec of(Map<String, String> replacements, BufferSizing bufferSizing) {
+        LiteralDictionary dictionary = DictionaryContentReplacer.compile(replacements);
+        String[] replacementValues = replacements.values().toArray(new String[0]);
+        return new ReplaceSpec("dictionary of " + replacementValues.length + " literals",
+                () -> new DictionaryContentReplacer(dictionary, replacementValues), bufferSizing);
+    }
+
+    static ReplaceSpec cached(String regex, String replaceWith, BufferSizing bufferSizing, RegexEngine engine) {
+        return CACHE.get(regex, replaceWith, bufferSizing, engine);
+    }
+
+    private static BufferSizing defaultBufferSizing() {
+        return BufferSizing.withDefaultMax(BufferSizing.DEFAULT_INITIAL_SIZE);
+    }
+
+    public ReplaceSpec withBufferPool(CharBufferPool bufferPool) {
+        return new ReplaceSpec(pattern, contentReplacers, bufferSizing, Objects.requireNonNull(bufferPool, "bufferPool"));
+    }
+
+    public ReplaceReader newReader(Reader in) {
+        return new ReplaceReader(in, this);
+    }
+
+    public Reader newReadAheadReader(Reader in, int depth) {
+        return newReadAheadReader(in, depth, ReadAheadReader::newDaemonThread);
+    }
+
+    public Reader newReadAheadReader(Reader in, int depth, ThreadFactory threadFactory) {
+        return new ReadAheadReader(in, this, depth, threadFactory);
+    }
+
+    public ReplaceReader newLineReader(Reader in) {
+        return new ReplaceReader(in, new LineContentReplacer(newContentReplacer()), bufferSizing, ReplaceMetrics.global(),
+                bufferPool());
+    }
+
+    public Stream<String> lines(Reader in) {
+        BufferedReader lineReader = in instanceof BufferedReader
+                ? (BufferedReader) in
+                : new BufferedReader(in, bufferSizing.initialSize());
+        ThreadLocal<LineReplacer> lineReplacers = ThreadLocal.withInitial(() -> new LineReplacer(newContentReplacer()));
+        return lineReader.lines()
+                .map(line -> lineReplacers.get().replace(line))
+                .onClose(() -> close(lineReader));
+    }
+
+    private static void close(Reader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public ReplaceWriter newWriter(Writer out) {
+        return new ReplaceWriter(out, this);
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    ContentReplacer newContentReplacer() {
+        return contentReplacers.get();
+    }
+
+    BufferSizing bufferSizing() {
+        return bufferSizing;
+    }
+
+    CharBufferPool bufferPool() {
+        return bufferPool != null ? bufferPool : CharBufferPool.global();
+    }
+
+    @Override
+    public String toString() {
+        return "ReplaceSpec{pattern=" + pattern
+                + ", bufferSize=" + bufferSizing.initialSize()
+                + ", maxBufferSize=" + bufferSizing.maxSize() + '}';
+    }
+}
@@ -0,0 +1,80 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+final class ReplaceSpecCache {
+
+    static final int DEFAULT_CAPACITY = 256;
+
+    private final Map<Key, ReplaceSpec> specs;
+
+    ReplaceSpecCache(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity <= 0");
+        specs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, ReplaceSpec> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    ReplaceSpec get(String regex, String replaceWith, BufferSizing bufferSizing, RegexEngine engine) {
+        Key key = new Key(regex, replaceWith, bufferSizing.initialSize(), bufferSizing.maxSize(), engine);
+        ReplaceSpec spec;
+        synchronized (specs) {
+            spec = specs.get(key);
+        }
+        if (spec != null)
+            return spec;
+        spec = ReplaceSpec.of(regex, replaceWith, bufferSizing, engine);
+        synchronized (specs) {
+            ReplaceSpec cachedSpec = specs.putIfAbsent(key, spec);
+            return cachedSpec != null ? cachedSpec : spec;
+        }
+    }
+
+    int size() {
+        synchronized (specs) {
+            return specs.size();
+        }
+    }
+
+    private static final class Key {
+
+        private final String regex;
+        private final String replaceWith;
+        private final int bufferSize;
+        private final int maxBufferSize;
+        private final RegexEngine engine;
+
+        private Key(String regex, String replaceWith, int bufferSize, int maxBufferSize, RegexEngine engine) {
+            this.regex = regex;
+            this.replaceWith = replaceWith;
+            this.bufferSize = bufferSize;
+            this.maxBufferSize = maxBufferSize;
+            this.engine = engine;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return bufferSize == key.bufferSize
+                    && maxBufferSize == key.maxBufferSize
+                    && regex.equals(key.regex)
+                    && replaceWith.equals(key.replaceWith)
+                    && engine == key.engine;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(regex, replaceWith, bufferSize, maxBufferSize, engine);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+
+public class ReplaceWritableByteChannel implements WritableByteChannel {
+
+    private static final int DEFAULT_BUFFER_SIZE = BufferSizing.DEFAULT_INITIAL_SIZE;
+
+    private final WritableByteChannel out;
+    private final ByteContentReplacer contentReplacer;
+    private final BufferSizing bufferSizing;
+    private byte[] buffer;
+    private boolean open;
+    private int nextByte;
+    private int contextLength;
+
+    public ReplaceWritableByteChannel(WritableByteChannel out, String regex, String replaceWith) {
+        this(out, regex, replaceWith, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ReplaceWritableByteChannel(WritableByteChannel out, String regex, String replaceWith, int bufferSize) {
+        this(out, regex, replaceWith, bufferSize, ByteEncoding.UTF_8);
+    }
+
+    public ReplaceWritableByteChannel(WritableByteChannel out, String regex, String replaceWith, int bufferSize, ByteEncoding encoding) {
+        this(out, new ByteContentReplacer(regex, replaceWith, encoding), BufferSizing.withDefaultMax(bufferSize));
+    }
+
+    public ReplaceWritableByteChannel(WritableByteChannel out, String regex, String replaceWith, int bufferSize, int maxBufferSize, ByteEncoding encoding) {
+        this(out, new ByteContentReplacer(regex, replaceWith, encoding), new BufferSizing(bufferSize, maxBufferSize));
+    }
+
+    ReplaceWritableByteChannel(WritableByteChannel out, ByteContentReplacer contentReplacer, BufferSizing bufferSizing) {
+        ensureBlocking(out);
+        this.out = out;
+        this.contentReplacer = contentReplacer;
+        this.bufferSizing = bufferSizing;
+        buffer = new byte[bufferSizing.initialSize()];
+        nextByte = contextLength = 0;
+        open = true;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (!open)
+            throw new ClosedChannelException();
+        int bytesWritten = src.remaining();
+        while (src.hasRemaining()) {
+            if (nextByte >= buffer.length)
+                replaceAndWriteResolvedContent();
+            int bytesToCopy = Math.min(src.remaining(), buffer.length - nextByte);
+            src.get(buffer, nextByte, bytesToCopy);
+            nextByte += bytesToCopy;
+        }
+        return bytesWritten;
+    }
+
+    private void replaceAndWriteResolvedContent() throws IOException {
+        buffer = contentReplacer.replaceMatchesIfAny(buffer, contextLength, nextByte, false);
+        int bytesAfterReplacement = contentReplacer.getBytesAfterReplacement();
+        int resolvedBytes = contentReplacer.isLastMatchIncomplete()
+                ? contentReplacer.getIncompleteMatchStartIndex()
+                : bytesAfterReplacement;
+        writeOnUnderlyingChannel(resolvedBytes);
+        carryOver(resolvedBytes, bytesAfterReplacement);
+    }
+
+    private void carryOver(int resolvedBytes, int contentLength) {
+        int carriedBytes = contentLength - resolvedBytes;
+        buffer = bufferSizing.reserveContext(buffer, carriedBytes, contentReplacer.getContextLength());
+        contextLength = Math.min(contentReplacer.getContextLength(), (buffer.length - carriedBytes) / 2);
+        System.arraycopy(buffer, resolvedBytes, buffer, contextLength, carriedBytes);
+        contentReplacer.copyContext(buffer, contextLength);
+        nextByte = contextLength + carriedBytes;
+        buffer = bufferSizing.resize(buffer, nextByte);
+    }
+
+    private void writeOnUnderlyingChannel(int resolvedBytes) throws IOException {
+        ensureBlocking(out);
+        ByteBuffer content = ByteBuffer.wrap(buffer, contextLength, resolvedBytes - contextLength);
+        while (content.hasRemaining())
+            out.write(content);
+    }
+
+    private static void ensureBlocking(WritableByteChannel channel) {
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking())
+            throw new IllegalBlockingModeException();
+    }
+
+    public void flush() throws IOException {
+        if (!open)
+            throw new ClosedChannelException();
+        if (nextByte > contextLength) {
+            buffer = contentReplacer.replaceMatchesIfAny(buffer, contextLength, nextByte, true);
+            int bytesAfterReplacement = contentReplacer.getBytesAfterReplacement();
+            writeOnUnderlyingChannel(bytesAfterReplacement);
+            carryOver(bytesAfterReplacement, bytesAfterReplacement);
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!open)
+            return;
+        try {
+            flush();
+        } finally {
+            open = false;
+            out.close();
+        }
+    }
+}
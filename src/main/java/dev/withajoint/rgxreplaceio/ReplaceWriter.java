@@ -2,67 +2,257 @@ package dev.withajoint.rgxreplaceio;
 
 import java.io.FilterWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.util.Map;
 
 public class ReplaceWriter extends FilterWriter {
 
-    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int DEFAULT_BUFFER_SIZE = BufferSizing.DEFAULT_INITIAL_SIZE;
 
     private char[] buffer;
-    private BufferContentReplacer contentReplacer;
+    private final ContentReplacer contentReplacer;
+    private final DirectContentReplacer directReplacer;
+    private final BufferSizing bufferSizing;
+    private final ReplaceMetrics metrics;
+    private final boolean metricsEnabled;
+    private final StreamEvents events;
+    private final CharBufferPool bufferPool;
+    private final CharBufferPool.Lease bufferLease;
     private int nextChar;
-    private int incompleteMatchStartIndex;
+    private int carriedOverChars;
+    private int contextLength;
 
     public ReplaceWriter(Writer out, String regex, String replaceWith) {
         this(out, regex, replaceWith, DEFAULT_BUFFER_SIZE);
     }
 
     public ReplaceWriter(Writer out, String regex, String replaceWith, int bufferSize) {
+        this(out, regex, replaceWith, bufferSize, RegexEngine.JDK);
+    }
+
+    public ReplaceWriter(Writer out, String regex, String replaceWith, int bufferSize, RegexEngine engine) {
+        this(out, ReplaceSpec.cached(regex, replaceWith, BufferSizing.withDefaultMax(bufferSize), engine));
+    }
+
+    public ReplaceWriter(Writer out, String regex, String replaceWith, int bufferSize, int maxBufferSize, RegexEngine engine) {
+        this(out, ReplaceSpec.cached(regex, replaceWith, new BufferSizing(bufferSize, maxBufferSize), engine));
+    }
+
+    public ReplaceWriter(Writer out, String regex, String replaceWith, int bufferSize, int maxBufferSize, RegexEngine engine,
+                         ReplaceMetrics metrics) {
+        this(out, ReplaceSpec.cached(regex, replaceWith, new BufferSizing(bufferSize, maxBufferSize), engine), metrics);
+    }
+
+    public ReplaceWriter(Writer out, String regex, MatchReplacer matchReplacer) {
+        this(out, regex, matchReplacer, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ReplaceWriter(Writer out, String regex, MatchReplacer matchReplacer, int bufferSize) {
+        this(out, new BufferContentReplacer(regex, matchReplacer), BufferSizing.withDefaultMax(bufferSize));
+    }
+
+    public ReplaceWriter(Writer out, String regex, MatchReplacer matchReplacer, int bufferSize, int maxBufferSize) {
+        this(out, new BufferContentReplacer(regex, matchReplacer), new BufferSizing(bufferSize, maxBufferSize));
+    }
+
+    public ReplaceWriter(Writer out, Map<String, String> replacements) {
+        this(out, replacements, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ReplaceWriter(Writer out, Map<String, String> replacements, int bufferSize) {
+        this(out, new DictionaryContentReplacer(replacements), BufferSizing.withDefaultMax(bufferSize));
+    }
+
+    public ReplaceWriter(Writer out, Map<String, String> replacements, int bufferSize, int maxBufferSize) {
+        this(out, new DictionaryContentReplacer(replacements), new BufferSizing(bufferSize, maxBufferSize));
+    }
+
+    public ReplaceWriter(Writer out, ReplaceSpec spec) {
+        this(out, spec, ReplaceMetrics.global());
+    }
+
+    public ReplaceWriter(Writer out, ReplaceSpec spec, ReplaceMetrics metrics) {
+        this(out, spec.newContentReplacer(), spec.bufferSizing(), metrics, spec.bufferPool());
+    }
+
+    ReplaceWriter(Writer out, ContentReplacer contentReplacer, BufferSizing bufferSizing) {
+        this(out, contentReplacer, bufferSizing, ReplaceMetrics.global());
+    }
+
+    ReplaceWriter(Writer out, ContentReplacer contentReplacer, BufferSizing bufferSizing, ReplaceMetrics metrics) {
+        this(out, contentReplacer, bufferSizing, metrics, CharBufferPool.global());
+    }
+
+    ReplaceWriter(Writer out, ContentReplacer contentReplacer, BufferSizing bufferSizing, ReplaceMetrics metrics,
+                  CharBufferPool bufferPool) {
         super(out);
-        if (bufferSize <= 0)
-            throw new IllegalArgumentException("Buffer size <= 0");
-        buffer = new char[bufferSize];
-        contentReplacer = new BufferContentReplacer(regex, replaceWith);
-        nextChar = 0;
-        incompleteMatchStartIndex = -1;
+        buffer = bufferPool.acquire(bufferSizing.initialSize());
+        contentReplacer.setBufferPool(bufferPool);
+        this.contentReplacer = contentReplacer;
+        directReplacer = contentReplacer instanceof DirectContentReplacer ? (DirectContentReplacer) contentReplacer : null;
+        this.bufferSizing = bufferSizing;
+        this.metrics = metrics;
+        metricsEnabled = metrics.isEnabled();
+        events = new StreamEvents(contentReplacer.getPattern(), buffer.length);
+        this.bufferPool = bufferPool;
+        bufferLease = bufferPool.lease(this);
+        nextChar = carriedOverChars = contextLength = 0;
     }
 
     @Override
     public void write(int c) throws IOException {
+        ensureOpen();
         if (nextChar >= buffer.length)
-            writeOnUnderlyingStream();
+            replaceAndWriteResolvedContent();
         buffer[nextChar++] = (char) c;
     }
 
-    private void writeOnUnderlyingStream() throws IOException {
-        out.write(buffer, 0, nextChar);
-        nextChar = 0;
-    }
-
     @Override
     public void write(char[] cbuf, int off, int len) throws IOException {
-        super.write(cbuf, off, len);
+        ensureOpen();
+        if ((off < 0) || (off > cbuf.length) || (len < 0) ||
+                ((off + len) > cbuf.length) || ((off + len) < 0)) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            int charsToCopy = prepareBufferSpace(len);
+            System.arraycopy(cbuf, off, buffer, nextChar, charsToCopy);
+            nextChar += charsToCopy;
+            off += charsToCopy;
+            len -= charsToCopy;
+        }
     }
 
     @Override
     public void write(String str, int off, int len) throws IOException {
-        super.write(str, off, len);
+        ensureOpen();
+        if ((off < 0) || (off > str.length()) || (len < 0) ||
+                ((off + len) > str.length()) || ((off + len) < 0)) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            int charsToCopy = prepareBufferSpace(len);
+            str.getChars(off, off + charsToCopy, buffer, nextChar);
+            nextChar += charsToCopy;
+            off += charsToCopy;
+            len -= charsToCopy;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (buffer == null)
+            throw new IOException("Stream closed");
+    }
+
+    private int prepareBufferSpace(int charsToWrite) throws IOException {
+        if (nextChar >= buffer.length)
+            replaceAndWriteResolvedContent();
+        return Math.min(charsToWrite, buffer.length - nextChar);
+    }
+
+    private void replaceAndWriteResolvedContent() throws IOException {
+        int contentLength = nextChar;
+        int resolvedChars = replaceMatchingContent(false);
+        if (directReplacer == null) {
+            contentLength = contentReplacer.getCharsAfterReplacement();
+            writeResolvedContent(resolvedChars);
+        }
+        carryOver(resolvedChars, contentLength);
+    }
+
+    private void carryOver(int resolvedChars, int contentLength) {
+        int carriedChars = contentLength - resolvedChars;
+        if (carriedChars > 0)
+            metrics.onCarryOver(carriedChars);
+        contextLength = Math.min(contentReplacer.getContextLength(), (buffer.length - carriedChars) / 2);
+        System.arraycopy(buffer, resolvedChars, buffer, contextLength, carriedChars);
+        contentReplacer.copyContext(buffer, contextLength);
+        nextChar = carriedOverChars = contextLength + carriedChars;
+        resizeBuffer();
+    }
+
+    private int replaceMatchingContent(boolean endOfInput) throws IOException {
+        metrics.onBufferFill();
+        metrics.onCharsIn(nextChar - carriedOverChars);
+        events.onCharsIn(nextChar - carriedOverChars);
+        BufferReplacementEvent event = events.beginReplacement();
+        long replacementStart = metricsEnabled ? System.nanoTime() : 0;
+        int resolvedChars;
+        try {
+            if (directReplacer != null) {
+                resolvedChars = directReplacer.writeMatchesReplaced(buffer, contextLength, nextChar, endOfInput, out);
+            } else {
+                buffer = contentReplacer.replaceMatchesIfAny(buffer, contextLength, nextChar, endOfInput);
+                resolvedChars = contentReplacer.isLastMatchIncomplete()
+                        ? contentReplacer.getIncompleteMatchStartIndex()
+                        : contentReplacer.getCharsAfterReplacement();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (metricsEnabled)
+            metrics.onReplacementNanos(System.nanoTime() - replacementStart);
+        events.endReplacement(event, nextChar - contextLength, contentReplacer.getMatchesReplaced(), endOfInput);
+        if (contentReplacer.isLastMatchIncomplete())
+            metrics.onIncompleteMatch();
+        metrics.onMatchesReplaced(contentReplacer.getMatchesReplaced());
+        if (directReplacer != null) {
+            metrics.onCharsOut(contentReplacer.getCharsAfterReplacement());
+            events.onCharsOut(contentReplacer.getCharsAfterReplacement());
+        }
+        return resolvedChars;
+    }
+
+    private void writeResolvedContent(int resolvedChars) throws IOException {
+        int charsOut = resolvedChars - contextLength;
+        out.write(buffer, contextLength, charsOut);
+        metrics.onCharsOut(charsOut);
+        events.onCharsOut(charsOut);
+    }
+
+    private void resizeBuffer() {
+        char[] resizedBuffer = bufferSizing.resize(buffer, nextChar, bufferPool);
+        if (resizedBuffer.length > buffer.length)
+            metrics.onBufferGrown(resizedBuffer.length);
+        if (resizedBuffer != buffer)
+            events.onBufferResized(buffer.length, resizedBuffer.length);
+        buffer = resizedBuffer;
     }
 
     @Override
     public void flush() throws IOException {
-        replaceMatchingContent();
-        writeOnUnderlyingStream();
+        ensureOpen();
+        if (nextChar > contextLength) {
+            int contentLength = nextChar;
+            int resolvedChars = replaceMatchingContent(true);
+            if (directReplacer == null) {
+                contentLength = contentReplacer.getCharsAfterReplacement();
+                writeResolvedContent(resolvedChars);
+            }
+            carryOver(resolvedChars, contentLength);
+        }
         out.flush();
     }
 
-    private void replaceMatchingContent() {
-        buffer = contentReplacer.replaceMatchesIfAny(buffer, nextChar);
-        nextChar = contentReplacer.getCharsAfterReplacement();
-    }
-
     @Override
     public void close() throws IOException {
-        super.close();
+        if (buffer == null)
+            return;
+        try {
+            flush();
+        } finally {
+            events.onStreamClosed();
+            releaseBuffers();
+            out.close();
+        }
+    }
+
+    private void releaseBuffers() {
+        bufferPool.release(buffer);
+        contentReplacer.releaseBuffers();
+        bufferLease.close();
+        buffer = null;
+        nextChar = carriedOverChars = contextLength = 0;
     }
 }
@@ -0,0 +1,84 @@
+package dev.withajoint.rgxreplaceio;
+
+final class ReplacementOutput {
+
+    private static final int RETAINED_CAPACITY_FACTOR = 4;
+    private static final char[] EMPTY_BUFFER = new char[0];
+
+    private char[] outputBuffer;
+    private int outputLength;
+    private CharBufferPool bufferPool;
+
+    ReplacementOutput() {
+        outputBuffer = EMPTY_BUFFER;
+        outputLength = 0;
+        bufferPool = CharBufferPool.NONE;
+    }
+
+    void setBufferPool(final CharBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    void reset(final int minCapacity) {
+        if (outputBuffer.length < minCapacity || outputBuffer.length / RETAINED_CAPACITY_FACTOR > minCapacity) {
+            bufferPool.release(outputBuffer);
+            outputBuffer = bufferPool.acquire(minCapacity);
+        }
+        outputLength = 0;
+    }
+
+    void release() {
+        bufferPool.release(outputBuffer);
+        outputBuffer = EMPTY_BUFFER;
+        outputLength = 0;
+    }
+
+    void append(final char[] chars, final int offset, final int length, final int charsStillExpected) {
+        ensureCapacity(outputLength + length, charsStillExpected);
+        System.arraycopy(chars, offset, outputBuffer, outputLength, length);
+        outputLength += length;
+    }
+
+    void append(final String string, final int charsStillExpected) {
+        int length = string.length();
+        ensureCapacity(outputLength + length, charsStillExpected);
+        string.getChars(0, length, outputBuffer, outputLength);
+        outputLength += length;
+    }
+
+    void append(final CharSequence chars, final int start, final int end, final int charsStillExpected) {
+        ensureCapacity(outputLength + end - start, charsStillExpected);
+        if (chars instanceof String) {
+            ((String) chars).getChars(start, end, outputBuffer, outputLength);
+            outputLength += end - start;
+        } else {
+            for (int i = start; i < end; i++)
+                outputBuffer[outputLength++] = chars.charAt(i);
+        }
+    }
+
+    void append(final char c, final int charsStillExpected) {
+        ensureCapacity(outputLength + 1, charsStillExpected);
+        outputBuffer[outputLength++] = c;
+    }
+
+    private void ensureCapacity(final int requiredLength, final int charsStillExpected) {
+        if (requiredLength > outputBuffer.length) {
+            int grownLength = Math.max(requiredLength + charsStillExpected, outputBuffer.length + (outputBuffer.length >> 1));
+            char[] grownBuffer = bufferPool.acquire(grownLength);
+            System.arraycopy(outputBuffer, 0, grownBuffer, 0, outputLength);
+            bufferPool.release(outputBuffer);
+            outputBuffer = grownBuffer;
+        }
+    }
+
+    int length() {
+        return outputLength;
+    }
+
+    char[] swap(final char[] replacedBuffer) {
+        char[] bufferReplaced = outputBuffer;
+        outputBuffer = replacedBuffer;
+        return bufferReplaced;
+    }
+}
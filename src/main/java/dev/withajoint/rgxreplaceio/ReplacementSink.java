@@ -0,0 +1,38 @@
+package dev.withajoint.rgxreplaceio;
+
+final class ReplacementSink implements Appendable {
+
+    private final ReplacementOutput output;
+    private int charsStillExpected;
+
+    ReplacementSink(ReplacementOutput output) {
+        this.output = output;
+        charsStillExpected = 0;
+    }
+
+    void expect(final int charsStillExpected) {
+        this.charsStillExpected = charsStillExpected;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) {
+        CharSequence content = csq != null ? csq : "null";
+        output.append(content, 0, content.length(), charsStillExpected);
+        return this;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) {
+        CharSequence content = csq != null ? csq : "null";
+        if (start < 0 || start > end || end > content.length())
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + content.length());
+        output.append(content, start, end, charsStillExpected);
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) {
+        output.append(c, charsStillExpected);
+        return this;
+    }
+}
@@ -0,0 +1,231 @@
+package dev.withajoint.rgxreplaceio;
+
+import dev.withajoint.rgxreplaceio.engine.StreamMatch;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+final class ReplacementTemplate {
+
+    static final int LITERAL_SEGMENT = -1;
+
+    private final String[] literals;
+    private final int[] groups;
+    private final int maxGroup;
+
+    private ReplacementTemplate(String[] literals, int[] groups) {
+        this.literals = literals;
+        this.groups = groups;
+        int maxGroup = LITERAL_SEGMENT;
+        for (int group : groups)
+            maxGroup = Math.max(maxGroup, group);
+        this.maxGroup = maxGroup;
+    }
+
+    static ReplacementTemplate compile(String replacement, Pattern pattern) {
+        int groupCount = pattern.matcher("").groupCount();
+        Map<String, Integer> namedGroups = replacement.contains("${") ? namedGroups(pattern.pattern(), groupCount) : Map.of();
+        return compile(replacement, groupCount, namedGroups);
+    }
+
+    static ReplacementTemplate compile(String replacement, int groupCount, Map<String, Integer> namedGroups) {
+        return new Parser(replacement, groupCount, namedGroups).parse();
+    }
+
+    int segmentCount() {
+        return groups.length;
+    }
+
+    String literal(int segment) {
+        return literals[segment];
+    }
+
+    int group(int segment) {
+        return groups[segment];
+    }
+
+    boolean hasGroupReferences() {
+        return maxGroup != LITERAL_SEGMENT;
+    }
+
+    int maxGroup() {
+        return maxGroup;
+    }
+
+    String expand(String match) {
+        StringBuilder expanded = new StringBuilder();
+        for (int i = 0; i < groups.length; i++)
+            expanded.append(groups[i] == LITERAL_SEGMENT ? literals[i] : match);
+        return expanded.toString();
+    }
+
+    void appendTo(ReplacementOutput output, char[] content, MatchResult match, int charsStillExpected) {
+        for (int i = 0; i < groups.length; i++) {
+            int group = groups[i];
+            if (group == LITERAL_SEGMENT)
+                output.append(literals[i], charsStillExpected);
+            else if (match.start(group) != -1)
+                output.append(content, match.start(group), match.end(group) - match.start(group), charsStillExpected);
+        }
+    }
+
+    int writeTo(Writer out, char[] content, MatchResult match) throws IOException {
+        int charsWritten = 0;
+        for (int i = 0; i < groups.length; i++) {
+            int group = groups[i];
+            if (group == LITERAL_SEGMENT) {
+                out.write(literals[i]);
+                charsWritten += literals[i].length();
+            } else if (match.start(group) != -1) {
+                out.write(content, match.start(group), match.end(group) - match.start(group));
+                charsWritten += match.end(group) - match.start(group);
+            }
+        }
+        return charsWritten;
+    }
+
+    void appendTo(ReplacementOutput output, StreamMatch match) {
+        for (int i = 0; i < groups.length; i++) {
+            String segment = groups[i] == LITERAL_SEGMENT ? literals[i] : match.group(groups[i]);
+            if (segment != null)
+                output.append(segment, 0);
+        }
+    }
+
+    private static Map<String, Integer> namedGroups(String regex, int groupCount) {
+        Map<String, Integer> namedGroups = new HashMap<>();
+        int group = 0;
+        boolean inCharClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\' && regex.startsWith("Q", i + 1)) {
+                int quoteEnd = regex.indexOf("\\E", i + 2);
+                i = quoteEnd == -1 ? regex.length() : quoteEnd + 1;
+            } else if (c == '\\') {
+                i++;
+            } else if (inCharClass) {
+                inCharClass = c != ']';
+            } else if (c == '[') {
+                inCharClass = true;
+                if (regex.startsWith("^", i + 1))
+                    i++;
+                if (regex.startsWith("]", i + 1))
+                    i++;
+            } else if (c == '(' && !regex.startsWith("?", i + 1)) {
+                group++;
+            } else if (c == '(' && regex.startsWith("?<", i + 1) && i + 3 < regex.length()
+                    && isAsciiLetter(regex.charAt(i + 3))) {
+                int nameEnd = regex.indexOf('>', i + 3);
+                namedGroups.put(regex.substring(i + 3, nameEnd), ++group);
+            }
+        }
+        if (group != groupCount)
+            throw new IllegalArgumentException("Named group references are not supported for regex " + regex);
+        return namedGroups;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static final class Parser {
+
+        private final String replacement;
+        private final int groupCount;
+        private final Map<String, Integer> namedGroups;
+        private final List<String> literals;
+        private final List<Integer> groups;
+        private final StringBuilder literal;
+        private int position;
+
+        private Parser(String replacement, int groupCount, Map<String, Integer> namedGroups) {
+            this.replacement = replacement;
+            this.groupCount = groupCount;
+            this.namedGroups = namedGroups;
+            literals = new ArrayList<>();
+            groups = new ArrayList<>();
+            literal = new StringBuilder();
+            position = 0;
+        }
+
+        private ReplacementTemplate parse() {
+            while (position < replacement.length()) {
+                char c = replacement.charAt(position++);
+                if (c == '\\')
+                    parseEscape();
+                else if (c == '$')
+                    addGroup(parseGroupReference());
+                else
+                    literal.append(c);
+            }
+            flushLiteral();
+            int[] groupSegments = new int[groups.size()];
+            for (int i = 0; i < groupSegments.length; i++)
+                groupSegments[i] = groups.get(i);
+            return new ReplacementTemplate(literals.toArray(new String[0]), groupSegments);
+        }
+
+        private void parseEscape() {
+            if (position == replacement.length())
+                throw new IllegalArgumentException("character to be escaped is missing");
+            literal.append(replacement.charAt(position++));
+        }
+
+        private int parseGroupReference() {
+            if (position == replacement.length())
+                throw new IllegalArgumentException("Illegal group reference: group index is missing");
+            char c = replacement.charAt(position++);
+            if (c == '{')
+                return parseNamedGroupReference();
+            int group = c - '0';
+            if (group < 0 || group > 9)
+                throw new IllegalArgumentException("Illegal group reference");
+            if (group > groupCount)
+                throw new IndexOutOfBoundsException("No group " + group);
+            while (position < replacement.length()) {
+                int nextDigit = replacement.charAt(position) - '0';
+                if (nextDigit < 0 || nextDigit > 9 || group * 10 + nextDigit > groupCount)
+                    break;
+                group = group * 10 + nextDigit;
+                position++;
+            }
+            return group;
+        }
+
+        private int parseNamedGroupReference() {
+            int nameEnd = position;
+            while (nameEnd < replacement.length() && Character.isLetterOrDigit(replacement.charAt(nameEnd)))
+                nameEnd++;
+            if (nameEnd == replacement.length() || replacement.charAt(nameEnd) != '}')
+                throw new IllegalArgumentException("named capturing group is missing trailing '}'");
+            String name = replacement.substring(position, nameEnd);
+            if (name.isEmpty())
+                throw new IllegalArgumentException("named capturing group has 0 length name");
+            Integer group = namedGroups.get(name);
+            if (group == null)
+                throw new IllegalArgumentException("No group with name {" + name + "}");
+            position = nameEnd + 1;
+            return group;
+        }
+
+        private void addGroup(int group) {
+            flushLiteral();
+            literals.add(null);
+            groups.add(group);
+        }
+
+        private void flushLiteral() {
+            if (literal.length() == 0)
+                return;
+            literals.add(literal.toString());
+            groups.add(LITERAL_SEGMENT);
+            literal.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public final class RgxReplaceFiles {
+
+    private RgxReplaceFiles() {
+    }
+
+    public static void replace(Path in, Path out, String regex, String replaceWith) throws IOException {
+        replace(in, out, regex, replaceWith, ByteEncoding.UTF_8);
+    }
+
+    public static void replace(Path in, Path out, String regex, String replaceWith, ByteEncoding encoding) throws IOException {
+        replace(in, out, new MappedContentReplacer(regex, replaceWith, encoding));
+    }
+
+    public static void replaceInParallel(Path in, Path out, String regex, String replaceWith, int maxMatchLength) throws IOException {
+        replaceInParallel(in, out, regex, replaceWith, maxMatchLength, ByteEncoding.UTF_8);
+    }
+
+    public static void replaceInParallel(Path in, Path out, String regex, String replaceWith, int maxMatchLength,
+                                         ByteEncoding encoding) throws IOException {
+        replace(in, out, new ParallelContentReplacer(regex, replaceWith, encoding, maxMatchLength));
+    }
+
+    public static CompletableFuture<FileReplacement> replaceAsync(Path in, Path out, String regex, String replaceWith) {
+        return replaceAsync(in, out, regex, replaceWith, ByteEncoding.UTF_8, AsyncFileReplacer.DEFAULT_CHUNK_SIZE,
+                AsyncFileReplacer.DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public static CompletableFuture<FileReplacement> replaceAsync(Path in, Path out, String regex, String replaceWith,
+                                                                  ByteEncoding encoding, int chunkSize, int maxInFlight) {
+        ByteContentReplacer contentReplacer = new ByteContentReplacer(regex, replaceWith, encoding);
+        AsyncFileReplacer fileReplacer = new AsyncFileReplacer(in,
+                new ByteChunkReplacer(contentReplacer, BufferSizing.withDefaultMax(chunkSize)), chunkSize, maxInFlight);
+        try {
+            if (Files.exists(out) && Files.isSameFile(in, out))
+                throw new IllegalArgumentException("Input and output must be different files");
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return fileReplacer.replace(out);
+    }
+
+    public static List<FileReplacement> replaceTree(Path directory, String regex, String replaceWith, int maxConcurrency)
+            throws IOException, InterruptedException {
+        List<Path> files;
+        try (Stream<Path> tree = Files.walk(directory)) {
+            files = tree.filter(file -> Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)).collect(Collectors.toList());
+        }
+        return replaceAll(files.stream(), regex, replaceWith, maxConcurrency);
+    }
+
+    public static List<FileReplacement> replaceAll(Stream<Path> files, String regex, String replaceWith, int maxConcurrency)
+            throws InterruptedException {
+        return replaceAll(files, regex, replaceWith, maxConcurrency, ByteEncoding.UTF_8);
+    }
+
+    public static List<FileReplacement> replaceAll(Stream<Path> files, String regex, String replaceWith, int maxConcurrency,
+                                                   ByteEncoding encoding) throws InterruptedException {
+        return new BatchReplacer(regex, replaceWith, encoding, maxConcurrency).replaceAll(files);
+    }
+
+    static void replace(Path in, Path out, MappedContentReplacer contentReplacer) throws IOException {
+        try (FileChannel input = openInput(in, out); FileChannel output = openOutput(out)) {
+            contentReplacer.replace(input, output);
+        }
+    }
+
+    static void replace(Path in, Path out, ParallelContentReplacer contentReplacer) throws IOException {
+        try (FileChannel input = openInput(in, out); FileChannel output = openOutput(out)) {
+            contentReplacer.replace(input, output);
+        }
+    }
+
+    private static FileChannel openInput(Path in, Path out) throws IOException {
+        if (Files.exists(out) && Files.isSameFile(in, out))
+            throw new IllegalArgumentException("Input and output must be different files");
+        return FileChannel.open(in, StandardOpenOption.READ);
+    }
+
+    private static FileChannel openOutput(Path out) throws IOException {
+        return FileChannel.open(out, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+}
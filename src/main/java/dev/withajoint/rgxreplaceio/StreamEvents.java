@@ -0,0 +1,87 @@
+package dev.withajoint.rgxreplaceio;
+
+import jdk.jfr.EventType;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+final class StreamEvents {
+
+    private static final AtomicLong NEXT_STREAM_ID = new AtomicLong();
+    private static final EventType BUFFER_REPLACEMENT = EventType.getEventType(BufferReplacementEvent.class);
+
+    private final long streamId;
+    private final String pattern;
+    private long charsIn;
+    private long charsOut;
+    private long matchesReplaced;
+    private long bufferFills;
+    private int maxBufferSize;
+
+    StreamEvents(String pattern, int bufferSize) {
+        streamId = NEXT_STREAM_ID.incrementAndGet();
+        this.pattern = pattern;
+        maxBufferSize = bufferSize;
+    }
+
+    long streamId() {
+        return streamId;
+    }
+
+    BufferReplacementEvent beginReplacement() {
+        if (!BUFFER_REPLACEMENT.isEnabled())
+            return null;
+        BufferReplacementEvent event = new BufferReplacementEvent();
+        event.begin();
+        return event;
+    }
+
+    void endReplacement(BufferReplacementEvent event, int chars, int matches, boolean endOfInput) {
+        bufferFills++;
+        matchesReplaced += matches;
+        if (event == null)
+            return;
+        event.end();
+        if (event.shouldCommit()) {
+            event.streamId = streamId;
+            event.pattern = pattern;
+            event.chars = chars;
+            event.matchesReplaced = matches;
+            event.endOfInput = endOfInput;
+            event.commit();
+        }
+    }
+
+    void onCharsIn(int chars) {
+        charsIn += chars;
+    }
+
+    void onCharsOut(int chars) {
+        charsOut += chars;
+    }
+
+    void onBufferResized(int previousSize, int size) {
+        maxBufferSize = Math.max(maxBufferSize, size);
+        BufferResizeEvent event = new BufferResizeEvent();
+        if (event.shouldCommit()) {
+            event.streamId = streamId;
+            event.pattern = pattern;
+            event.previousSize = previousSize;
+            event.size = size;
+            event.commit();
+        }
+    }
+
+    void onStreamClosed() {
+        StreamSummaryEvent event = new StreamSummaryEvent();
+        if (event.shouldCommit()) {
+            event.streamId = streamId;
+            event.pattern = pattern;
+            event.charsIn = charsIn;
+            event.charsOut = charsOut;
+            event.matchesReplaced = matchesReplaced;
+            event.bufferFills = bufferFills;
+            event.maxBufferSize = maxBufferSize;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package dev.withajoint.rgxreplaceio;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.withajoint.rgxreplaceio.StreamSummary")
+@Label("Stream Summary")
+@Category("RgxReplaceIO")
+@Description("Totals of a replace stream, emitted when the stream is closed")
+@StackTrace(false)
+final class StreamSummaryEvent extends Event {
+
+    @Label("Stream Id")
+    long streamId;
+
+    @Label("Pattern")
+    String pattern;
+
+    @Label("Chars In")
+    long charsIn;
+
+    @Label("Chars Out")
+    long charsOut;
+
+    @Label("Matches Replaced")
+    long matchesReplaced;
+
+    @Label("Buffer Fills")
+    long bufferFills;
+
+    @Label("Max Buffer Size")
+    int maxBufferSize;
+}
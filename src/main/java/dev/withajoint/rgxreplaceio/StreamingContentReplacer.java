@@ -0,0 +1,96 @@
+package dev.withajoint.rgxreplaceio;
+
+import dev.withajoint.rgxreplaceio.engine.MatchListener;
+import dev.withajoint.rgxreplaceio.engine.NfaMatcher;
+import dev.withajoint.rgxreplaceio.engine.StreamMatch;
+import dev.withajoint.rgxreplaceio.engine.NfaPattern;
+
+class StreamingContentReplacer implements ContentReplacer, MatchListener {
+
+    private final NfaMatcher matcher;
+    private final ReplacementTemplate replaceWith;
+    private final ReplacementOutput output;
+    private int charsAfterReplacement;
+    private int matchesReplaced;
+
+    StreamingContentReplacer(String regex, String replaceWith) {
+        this(compile(regex), replaceWith);
+    }
+
+    private StreamingContentReplacer(NfaPattern pattern, String replaceWith) {
+        this(pattern, compileTemplate(replaceWith, pattern));
+    }
+
+    StreamingContentReplacer(NfaPattern pattern, ReplacementTemplate replaceWith) {
+        this.replaceWith = replaceWith;
+        matcher = pattern.matcher(replaceWith.hasGroupReferences());
+        output = new ReplacementOutput();
+    }
+
+    static NfaPattern compile(String regex) {
+        if (regex.isBlank())
+            throw new IllegalArgumentException("Invalid regex");
+        return NfaPattern.compile(regex);
+    }
+
+    static ReplacementTemplate compileTemplate(String replaceWith, NfaPattern pattern) {
+        return ReplacementTemplate.compile(replaceWith, pattern.groupCount(), pattern.namedGroups());
+    }
+
+    @Override
+    public char[] replaceMatchesIfAny(char[] buffer, final int charsInBuffer, final boolean endOfInput) {
+        output.reset(buffer.length);
+        matchesReplaced = 0;
+        matcher.feed(buffer, 0, charsInBuffer, this);
+        if (endOfInput)
+            matcher.finish(this);
+        charsAfterReplacement = output.length();
+        return output.swap(buffer);
+    }
+
+    @Override
+    public void onText(char[] chars, int offset, int length) {
+        output.append(chars, offset, length, 0);
+    }
+
+    @Override
+    public void onMatch(StreamMatch match) {
+        matchesReplaced++;
+        replaceWith.appendTo(output, match);
+    }
+
+    @Override
+    public int getCharsAfterReplacement() {
+        return charsAfterReplacement;
+    }
+
+    @Override
+    public int getMatchesReplaced() {
+        return matchesReplaced;
+    }
+
+    @Override
+    public String getPattern() {
+        return matcher.pattern().pattern();
+    }
+
+    @Override
+    public boolean isLastMatchIncomplete() {
+        return false;
+    }
+
+    @Override
+    public int getIncompleteMatchStartIndex() {
+        return -1;
+    }
+
+    @Override
+    public void setBufferPool(CharBufferPool bufferPool) {
+        output.setBufferPool(bufferPool);
+    }
+
+    @Override
+    public void releaseBuffers() {
+        output.release();
+    }
+}
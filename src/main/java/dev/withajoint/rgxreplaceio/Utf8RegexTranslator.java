@@ -0,0 +1,267 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.PatternSyntaxException;
+
+final class Utf8RegexTranslator {
+
+    private static final String MULTI_BYTE_SEQUENCE =
+            "[\\xC2-\\xDF][\\x80-\\xBF]|[\\xE0-\\xEF][\\x80-\\xBF]{2}|[\\xF0-\\xF4][\\x80-\\xBF]{3}";
+    private static final String ANY_BUT_LINE_TERMINATOR =
+            "(?:[^\\n\\r\\x80-\\xFF]|(?!\\xC2\\x85|\\xE2\\x80[\\xA8\\xA9])(?:" + MULTI_BYTE_SEQUENCE + "))";
+    private static final String WORD_BOUNDARY = "(?:(?<=\\w)(?!\\w)|(?<!\\w)(?=\\w))";
+    private static final String NOT_WORD_BOUNDARY = "(?:(?<=\\w)(?=\\w)|(?<!\\w)(?!\\w))";
+    private static final String SUPPORTED_INLINE_FLAGS = "imx-";
+    private static final String UNSUPPORTED_ESCAPES = "pPhHvVRXN";
+
+    private final String regex;
+    private final StringBuilder translated;
+    private int position;
+
+    private Utf8RegexTranslator(String regex) {
+        this.regex = regex;
+        translated = new StringBuilder(regex.length() * 2);
+        position = 0;
+    }
+
+    static String translate(String regex) {
+        return new Utf8RegexTranslator(regex).translate();
+    }
+
+    private String translate() {
+        while (hasMore()) {
+            int c = nextCodePoint();
+            if (c == '\\')
+                translateEscape();
+            else if (c == '[')
+                translateCharClass();
+            else if (c == '.')
+                translated.append(ANY_BUT_LINE_TERMINATOR);
+            else if (c == '(')
+                translateGroupStart();
+            else
+                appendLiteral(c);
+        }
+        return translated.toString();
+    }
+
+    private void translateEscape() {
+        if (!hasMore()) {
+            translated.append('\\');
+            return;
+        }
+        int c = nextCodePoint();
+        switch (c) {
+            case 'Q':
+                translateQuotedLiteral();
+                break;
+            case 'D':
+                appendNegatedClass("\\d");
+                break;
+            case 'W':
+                appendNegatedClass("\\w");
+                break;
+            case 'S':
+                appendNegatedClass("\\s");
+                break;
+            case 'b':
+                if (hasMore() && peek() == '{')
+                    throw unsupported("Boundary matcher \\b{");
+                translated.append(WORD_BOUNDARY);
+                break;
+            case 'B':
+                translated.append(NOT_WORD_BOUNDARY);
+                break;
+            case 'x':
+            case 'u':
+            case '0':
+                appendEscapedLiteral(parseCharCode(c));
+                break;
+            default:
+                if (UNSUPPORTED_ESCAPES.indexOf(c) != -1)
+                    throw unsupported("Escape \\" + (char) c);
+                if (c < 0x80)
+                    translated.append('\\').append((char) c);
+                else
+                    appendLiteral(c);
+        }
+    }
+
+    private void translateQuotedLiteral() {
+        int end = regex.indexOf("\\E", position);
+        if (end == -1)
+            end = regex.length();
+        while (position < end)
+            appendEscapedLiteral(nextCodePoint());
+        position = Math.min(end + 2, regex.length());
+    }
+
+    private void translateGroupStart() {
+        translated.append('(');
+        if (!hasMore() || peek() != '?')
+            return;
+        int flagsEnd = position + 1;
+        while (flagsEnd < regex.length() && (Character.isLetter(regex.charAt(flagsEnd)) || regex.charAt(flagsEnd) == '-'))
+            flagsEnd++;
+        if (flagsEnd == regex.length() || (regex.charAt(flagsEnd) != ')' && regex.charAt(flagsEnd) != ':'))
+            return;
+        for (int i = position + 1; i < flagsEnd; i++) {
+            if (SUPPORTED_INLINE_FLAGS.indexOf(regex.charAt(i)) == -1)
+                throw unsupported("Inline flag '" + regex.charAt(i) + "'");
+        }
+    }
+
+    private void translateCharClass() {
+        boolean negated = hasMore() && peek() == '^';
+        if (negated)
+            position++;
+        int bodyStart = position;
+        int bodyEnd = scanCharClass(negated);
+        String body = regex.substring(bodyStart, bodyEnd);
+        if (negated)
+            appendNegatedClass(body);
+        else
+            translated.append('[').append(body).append(']');
+    }
+
+    private int scanCharClass(boolean negated) {
+        int depth = 1;
+        boolean first = true;
+        while (true) {
+            if (!hasMore())
+                throw syntaxError("Unclosed character class");
+            int c = nextCodePoint();
+            if (c >= 0x80)
+                throw unsupported("Non-ASCII character class member");
+            if (c == '\\') {
+                scanCharClassEscape();
+            } else if (c == '[') {
+                if (hasMore() && peek() == '^')
+                    throw unsupported("Nested negated character class");
+                depth++;
+                first = true;
+                continue;
+            } else if (c == ']' && !first) {
+                if (--depth == 0)
+                    return position - 1;
+            } else if (c == '&' && negated && hasMore() && peek() == '&') {
+                throw unsupported("Negated character class intersection");
+            }
+            first = false;
+        }
+    }
+
+    private void scanCharClassEscape() {
+        if (!hasMore())
+            throw syntaxError("Unclosed character class");
+        int c = nextCodePoint();
+        if (c == 'Q') {
+            int end = regex.indexOf("\\E", position);
+            if (end == -1)
+                throw syntaxError("Unclosed character class");
+            while (position < end) {
+                if (nextCodePoint() >= 0x80)
+                    throw unsupported("Non-ASCII character class member");
+            }
+            position = end + 2;
+        } else if (c == 'D' || c == 'W' || c == 'S') {
+            throw unsupported("Negated predefined class \\" + (char) c + " inside a character class");
+        } else if (c == 'x' || c == 'u' || c == '0') {
+            if (parseCharCode(c) >= 0x80)
+                throw unsupported("Non-ASCII character class member");
+        } else if (UNSUPPORTED_ESCAPES.indexOf(c) != -1 || c >= 0x80) {
+            throw unsupported("Escape \\" + new String(Character.toChars(c)));
+        }
+    }
+
+    private int parseCharCode(int escape) {
+        int codePoint;
+        if (escape == 'x' && hasMore() && peek() == '{') {
+            int end = regex.indexOf('}', position);
+            if (end == -1)
+                throw syntaxError("Unclosed hexadecimal escape sequence");
+            codePoint = parseNumber(position + 1, end, 16);
+            position = end + 1;
+        } else if (escape == 'x') {
+            codePoint = parseNumber(position, position + 2, 16);
+            position += 2;
+        } else if (escape == 'u') {
+            codePoint = parseNumber(position, position + 4, 16);
+            position += 4;
+        } else {
+            int start = position;
+            codePoint = 0;
+            while (hasMore() && Character.digit(peek(), 8) != -1 && codePoint * 8 + Character.digit(peek(), 8) <= 0377)
+                codePoint = codePoint * 8 + Character.digit(regex.charAt(position++), 8);
+            if (start == position)
+                throw syntaxError("Illegal octal escape sequence");
+        }
+        if (!Character.isValidCodePoint(codePoint) || isSurrogate(codePoint))
+            throw syntaxError("Illegal escape sequence");
+        return codePoint;
+    }
+
+    private int parseNumber(int start, int end, int radix) {
+        if (start == end || end > regex.length())
+            throw syntaxError("Illegal escape sequence");
+        try {
+            return Integer.parseInt(regex.substring(start, end), radix);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Illegal escape sequence");
+        }
+    }
+
+    private void appendNegatedClass(String positiveBody) {
+        translated.append("(?:(?![").append(positiveBody).append("])[\\x00-\\x7F]|")
+                .append(MULTI_BYTE_SEQUENCE).append(')');
+    }
+
+    private void appendLiteral(int codePoint) {
+        if (codePoint < 0x80)
+            translated.append((char) codePoint);
+        else
+            appendEncodedCodePoint(codePoint);
+    }
+
+    private void appendEscapedLiteral(int codePoint) {
+        if (codePoint < 0x80)
+            translated.append(String.format("\\x%02X", codePoint));
+        else
+            appendEncodedCodePoint(codePoint);
+    }
+
+    private void appendEncodedCodePoint(int codePoint) {
+        if (isSurrogate(codePoint))
+            throw syntaxError("Unpaired surrogate");
+        translated.append("(?:");
+        for (byte b : new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8))
+            translated.append(String.format("\\x%02X", b & 0xFF));
+        translated.append(')');
+    }
+
+    private static boolean isSurrogate(int codePoint) {
+        return codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE;
+    }
+
+    private boolean hasMore() {
+        return position < regex.length();
+    }
+
+    private char peek() {
+        return regex.charAt(position);
+    }
+
+    private int nextCodePoint() {
+        int codePoint = regex.codePointAt(position);
+        position += Character.charCount(codePoint);
+        return codePoint;
+    }
+
+    private IllegalArgumentException unsupported(String construct) {
+        return new IllegalArgumentException(construct + " is not supported in UTF-8 mode");
+    }
+
+    private PatternSyntaxException syntaxError(String description) {
+        return new PatternSyntaxException(description, regex, position - 1);
+    }
+}
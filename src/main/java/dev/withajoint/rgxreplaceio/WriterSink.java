@@ -0,0 +1,50 @@
+package dev.withajoint.rgxreplaceio;
+
+import java.io.IOException;
+import java.io.Writer;
+
+final class WriterSink implements Appendable {
+
+    private Writer out;
+    private int charsWritten;
+
+    WriterSink() {
+        out = null;
+        charsWritten = 0;
+    }
+
+    void reset(final Writer out) {
+        this.out = out;
+        charsWritten = 0;
+    }
+
+    int charsWritten() {
+        return charsWritten;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) throws IOException {
+        CharSequence content = csq != null ? csq : "null";
+        return append(content, 0, content.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) throws IOException {
+        CharSequence content = csq != null ? csq : "null";
+        if (start < 0 || start > end || end > content.length())
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + content.length());
+        if (content instanceof String)
+            out.write((String) content, start, end - start);
+        else
+            out.append(content, start, end);
+        charsWritten += end - start;
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) throws IOException {
+        out.write(c);
+        charsWritten++;
+        return this;
+    }
+}
@@ -0,0 +1,85 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class CharClass {
+
+    static final CharClass DIGIT = new CharClass().addRange('0', '9');
+    static final CharClass WORD = new CharClass().addRange('a', 'z').addRange('A', 'Z').addRange('0', '9').addRange('_', '_');
+    static final CharClass SPACE = new CharClass().addRange(' ', ' ').addRange('\t', '\r');
+    static final CharClass ANY_BUT_LINE_TERMINATOR = new CharClass()
+            .addRange('\n', '\n').addRange('\r', '\r')
+            .addRange('\u0085', '\u0085').addRange(' ', ' ')
+            .negate();
+
+    private final List<int[]> ranges;
+    private final List<CharClass> nestedClasses;
+    private boolean negated;
+    private boolean[] asciiTable;
+
+    CharClass() {
+        ranges = new ArrayList<>();
+        nestedClasses = new ArrayList<>();
+        negated = false;
+    }
+
+    CharClass addRange(char from, char to) {
+        ranges.add(new int[]{from, to});
+        asciiTable = null;
+        return this;
+    }
+
+    CharClass addClass(CharClass charClass) {
+        nestedClasses.add(charClass);
+        asciiTable = null;
+        return this;
+    }
+
+    CharClass negate() {
+        negated = !negated;
+        asciiTable = null;
+        return this;
+    }
+
+    CharClass negated() {
+        return new CharClass().addClass(this).negate().freeze();
+    }
+
+    CharClass freeze() {
+        asciiTable = buildAsciiTable();
+        return this;
+    }
+
+    boolean matches(char c) {
+        if (c < 128 && asciiTable != null)
+            return asciiTable[c];
+        return matchesUncached(c);
+    }
+
+    private boolean[] buildAsciiTable() {
+        boolean[] table = new boolean[128];
+        for (char c = 0; c < 128; c++)
+            table[c] = matchesUncached(c);
+        return table;
+    }
+
+    private boolean matchesUncached(char c) {
+        boolean matching = false;
+        for (int[] range : ranges) {
+            if (c >= range[0] && c <= range[1]) {
+                matching = true;
+                break;
+            }
+        }
+        if (!matching) {
+            for (CharClass nestedClass : nestedClasses) {
+                if (nestedClass.matches(c)) {
+                    matching = true;
+                    break;
+                }
+            }
+        }
+        return matching != negated;
+    }
+}
@@ -0,0 +1,68 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+import java.util.Arrays;
+
+final class CharWindow {
+
+    private static final int INITIAL_SIZE = 256;
+
+    private char[] chars;
+    private long start;
+    private int length;
+    private long emittedUpTo;
+
+    CharWindow() {
+        chars = new char[INITIAL_SIZE];
+        clear();
+    }
+
+    void append(char[] source, int offset, int count) {
+        int discardedChars = (int) (emittedUpTo - start);
+        if (discardedChars > 0) {
+            System.arraycopy(chars, discardedChars, chars, 0, length - discardedChars);
+            length -= discardedChars;
+            start = emittedUpTo;
+        }
+        if (length + count > chars.length)
+            chars = Arrays.copyOf(chars, Math.max(length + count, chars.length * 2));
+        System.arraycopy(source, offset, chars, length, count);
+        length += count;
+    }
+
+    char charAt(long position) {
+        return chars[(int) (position - start)];
+    }
+
+    long end() {
+        return start + length;
+    }
+
+    long getEmittedUpTo() {
+        return emittedUpTo;
+    }
+
+    int pendingChars() {
+        return (int) (end() - emittedUpTo);
+    }
+
+    void emitUpTo(long end, MatchListener listener) {
+        if (end <= emittedUpTo)
+            return;
+        listener.onText(chars, (int) (emittedUpTo - start), (int) (end - emittedUpTo));
+        emittedUpTo = end;
+    }
+
+    void skipUpTo(long end) {
+        emittedUpTo = Math.max(emittedUpTo, end);
+    }
+
+    String substring(long from, long to) {
+        return new String(chars, (int) (from - start), (int) (to - from));
+    }
+
+    void clear() {
+        start = 0;
+        length = 0;
+        emittedUpTo = 0;
+    }
+}
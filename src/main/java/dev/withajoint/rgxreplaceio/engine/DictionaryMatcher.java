@@ -0,0 +1,120 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+public final class DictionaryMatcher implements StreamMatch {
+
+    private final LiteralDictionary dictionary;
+    private final CharWindow window;
+    private long position;
+    private int state;
+    private boolean matchFound;
+    private long matchStart;
+    private long matchEnd;
+    private int matchLiteral;
+
+    DictionaryMatcher(LiteralDictionary dictionary) {
+        this.dictionary = dictionary;
+        window = new CharWindow();
+        reset();
+    }
+
+    public void feed(char[] chars, int offset, int length, MatchListener listener) {
+        window.append(chars, offset, length);
+        consumeWindow(listener);
+    }
+
+    public void finish(MatchListener listener) {
+        consumeWindow(listener);
+        while (matchFound) {
+            finalizeMatch(listener);
+            consumeWindow(listener);
+        }
+        window.emitUpTo(window.end(), listener);
+        reset();
+    }
+
+    public void reset() {
+        window.clear();
+        position = 0;
+        state = LiteralDictionary.ROOT;
+        matchFound = false;
+    }
+
+    public int pendingChars() {
+        return window.pendingChars();
+    }
+
+    public int literalIndex() {
+        return matchLiteral;
+    }
+
+    @Override
+    public long start() {
+        return matchStart;
+    }
+
+    @Override
+    public long end() {
+        return matchEnd;
+    }
+
+    @Override
+    public String group() {
+        return dictionary.literal(matchLiteral);
+    }
+
+    @Override
+    public String group(int group) {
+        if (group != 0)
+            throw new IndexOutOfBoundsException("No group " + group);
+        return group();
+    }
+
+    @Override
+    public int groupCount() {
+        return 0;
+    }
+
+    private void consumeWindow(MatchListener listener) {
+        while (position < window.end()) {
+            step(window.charAt(position));
+            resolve(listener);
+        }
+    }
+
+    private void step(char c) {
+        state = dictionary.nextState(state, c);
+        position++;
+        int literal = dictionary.longestLiteralEndingAt(state);
+        if (literal != -1) {
+            long start = position - dictionary.literal(literal).length();
+            if (!matchFound || start < matchStart || (start == matchStart && position > matchEnd))
+                recordMatch(start, literal);
+        }
+    }
+
+    private void recordMatch(long start, int literal) {
+        matchFound = true;
+        matchStart = start;
+        matchEnd = position;
+        matchLiteral = literal;
+    }
+
+    private void resolve(MatchListener listener) {
+        long earliestLiveStart = position - dictionary.extendableDepth(state);
+        if (!matchFound)
+            window.emitUpTo(earliestLiveStart, listener);
+        else if (earliestLiveStart > matchStart)
+            finalizeMatch(listener);
+        else
+            window.emitUpTo(Math.min(matchStart, earliestLiveStart), listener);
+    }
+
+    private void finalizeMatch(MatchListener listener) {
+        window.emitUpTo(matchStart, listener);
+        listener.onMatch(this);
+        window.skipUpTo(matchEnd);
+        position = matchEnd;
+        state = LiteralDictionary.ROOT;
+        matchFound = false;
+    }
+}
@@ -0,0 +1,148 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+public final class LiteralDictionary {
+
+    static final int ROOT = 0;
+    private static final int NO_STATE = -1;
+    private static final int ASCII_SIZE = 128;
+
+    private final String[] literals;
+    private final char[][] transitionChars;
+    private final int[][] transitionTargets;
+    private final int[] rootAsciiTransitions;
+    private final int[] failureLinks;
+    private final int[] extendableDepths;
+    private final int[] longestLiterals;
+
+    private LiteralDictionary(String[] literals, List<TreeMap<Character, Integer>> trie, int[] terminalLiterals) {
+        this.literals = literals;
+        int states = trie.size();
+        transitionChars = new char[states][];
+        transitionTargets = new int[states][];
+        for (int state = 0; state < states; state++)
+            freezeTransitions(state, trie.get(state));
+        rootAsciiTransitions = new int[ASCII_SIZE];
+        Arrays.fill(rootAsciiTransitions, NO_STATE);
+        for (Map.Entry<Character, Integer> transition : trie.get(ROOT).entrySet()) {
+            if (transition.getKey() < ASCII_SIZE)
+                rootAsciiTransitions[transition.getKey()] = transition.getValue();
+        }
+        failureLinks = new int[states];
+        extendableDepths = new int[states];
+        longestLiterals = new int[states];
+        linkStates(terminalLiterals);
+    }
+
+    public static LiteralDictionary compile(Collection<String> literals) {
+        if (literals.isEmpty())
+            throw new IllegalArgumentException("No literals");
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        List<Integer> terminals = new ArrayList<>();
+        terminals.add(NO_STATE);
+        String[] literalArray = literals.toArray(new String[0]);
+        for (int i = 0; i < literalArray.length; i++) {
+            String literal = literalArray[i];
+            if (literal == null || literal.isEmpty())
+                throw new IllegalArgumentException("Invalid literal");
+            int state = ROOT;
+            for (int j = 0; j < literal.length(); j++) {
+                Integer nextState = trie.get(state).get(literal.charAt(j));
+                if (nextState == null) {
+                    nextState = trie.size();
+                    trie.get(state).put(literal.charAt(j), nextState);
+                    trie.add(new TreeMap<>());
+                    terminals.add(NO_STATE);
+                }
+                state = nextState;
+            }
+            if (terminals.get(state) == NO_STATE)
+                terminals.set(state, i);
+        }
+        int[] terminalLiterals = terminals.stream().mapToInt(Integer::intValue).toArray();
+        return new LiteralDictionary(literalArray, trie, terminalLiterals);
+    }
+
+    public DictionaryMatcher matcher() {
+        return new DictionaryMatcher(this);
+    }
+
+    public int size() {
+        return literals.length;
+    }
+
+    public String literal(int index) {
+        return literals[index];
+    }
+
+    int nextState(int state, char c) {
+        while (true) {
+            int nextState = transition(state, c);
+            if (nextState != NO_STATE)
+                return nextState;
+            if (state == ROOT)
+                return ROOT;
+            state = failureLinks[state];
+        }
+    }
+
+    int extendableDepth(int state) {
+        return extendableDepths[state];
+    }
+
+    int longestLiteralEndingAt(int state) {
+        return longestLiterals[state];
+    }
+
+    private void freezeTransitions(int state, TreeMap<Character, Integer> transitions) {
+        char[] chars = new char[transitions.size()];
+        int[] targets = new int[transitions.size()];
+        int i = 0;
+        for (Map.Entry<Character, Integer> transition : transitions.entrySet()) {
+            chars[i] = transition.getKey();
+            targets[i++] = transition.getValue();
+        }
+        transitionChars[state] = chars;
+        transitionTargets[state] = targets;
+    }
+
+    private int transition(int state, char c) {
+        if (state == ROOT && c < ASCII_SIZE)
+            return rootAsciiTransitions[c];
+        int index = Arrays.binarySearch(transitionChars[state], c);
+        return index >= 0 ? transitionTargets[state][index] : NO_STATE;
+    }
+
+    private void linkStates(int[] terminalLiterals) {
+        int[] depths = new int[failureLinks.length];
+        Queue<Integer> statesToLink = new ArrayDeque<>();
+        statesToLink.add(ROOT);
+        while (!statesToLink.isEmpty()) {
+            int state = statesToLink.remove();
+            for (int i = 0; i < transitionChars[state].length; i++) {
+                int child = transitionTargets[state][i];
+                depths[child] = depths[state] + 1;
+                failureLinks[child] = state == ROOT ? ROOT : nextState(failureLinks[state], transitionChars[state][i]);
+                statesToLink.add(child);
+            }
+            boolean extendable = transitionChars[state].length > 0;
+            if (state == ROOT) {
+                extendableDepths[state] = 0;
+                longestLiterals[state] = NO_STATE;
+            } else {
+                extendableDepths[state] = extendable ? depths[state] : extendableDepths[failureLinks[state]];
+                longestLiterals[state] = terminalLiterals[state] != NO_STATE
+                        ? terminalLiterals[state] : longestLiterals[failureLinks[state]];
+            }
+        }
+    }
+}
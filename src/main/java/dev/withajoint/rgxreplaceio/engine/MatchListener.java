@@ -0,0 +1,8 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+public interface MatchListener {
+
+    void onText(char[] chars, int offset, int length);
+
+    void onMatch(StreamMatch match);
+}
@@ -0,0 +1,264 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+import java.util.Arrays;
+
+public final class NfaMatcher implements StreamMatch {
+
+    private static final int END_OF_INPUT = -1;
+    private static final int NO_CHAR = -1;
+
+    private final NfaPattern pattern;
+    private final Program program;
+    private final boolean capturingGroups;
+    private final long[] emptyCaptures;
+    private final ThreadList runnableThreads;
+    private final int[] closureStackPcs;
+    private final long[][] closureStackCaptures;
+    private final CharWindow window;
+    private ThreadList currentThreads;
+    private ThreadList nextThreads;
+    private long position;
+    private int previousChar;
+    private long seedSuppressedAt;
+    private boolean matchFound;
+    private long matchStart;
+    private long matchEnd;
+    private long[] matchCaptures;
+    private int charBeforeMatchEnd;
+
+    NfaMatcher(NfaPattern pattern, boolean capturingGroups) {
+        this.pattern = pattern;
+        this.program = pattern.getProgram();
+        this.capturingGroups = capturingGroups;
+        emptyCaptures = new long[(pattern.groupCount() + 1) * 2];
+        Arrays.fill(emptyCaptures, -1);
+        runnableThreads = new ThreadList(program.size());
+        currentThreads = new ThreadList(program.size());
+        nextThreads = new ThreadList(program.size());
+        closureStackPcs = new int[program.size() * 2 + 1];
+        closureStackCaptures = new long[program.size() * 2 + 1][];
+        window = new CharWindow();
+        reset();
+    }
+
+    public void feed(char[] chars, int offset, int length, MatchListener listener) {
+        window.append(chars, offset, length);
+        consumeWindow(listener);
+    }
+
+    public void finish(MatchListener listener) {
+        consumeWindow(listener);
+        step(END_OF_INPUT);
+        while (matchFound) {
+            finalizeMatch(listener);
+            consumeWindow(listener);
+            step(END_OF_INPUT);
+        }
+        window.emitUpTo(window.end(), listener);
+        reset();
+    }
+
+    public void reset() {
+        currentThreads.clear();
+        nextThreads.clear();
+        window.clear();
+        position = 0;
+        previousChar = NO_CHAR;
+        seedSuppressedAt = -1;
+        matchFound = false;
+        matchCaptures = null;
+    }
+
+    public int pendingChars() {
+        return window.pendingChars();
+    }
+
+    public NfaPattern pattern() {
+        return pattern;
+    }
+
+    @Override
+    public long start() {
+        return matchStart;
+    }
+
+    @Override
+    public long end() {
+        return matchEnd;
+    }
+
+    public long start(int group) {
+        if (group == 0)
+            return matchStart;
+        return captures()[checkGroup(group) * 2];
+    }
+
+    public long end(int group) {
+        if (group == 0)
+            return matchEnd;
+        return captures()[checkGroup(group) * 2 + 1];
+    }
+
+    @Override
+    public String group() {
+        return group(0);
+    }
+
+    @Override
+    public String group(int group) {
+        long groupStart = start(group);
+        long groupEnd = end(group);
+        if (groupStart == -1 || groupEnd == -1)
+            return null;
+        if (!capturingGroups)
+            throw new IllegalStateException("Matched text is only retained by capturing matchers");
+        return window.substring(groupStart, groupEnd);
+    }
+
+    @Override
+    public int groupCount() {
+        return pattern.groupCount();
+    }
+
+    private long[] captures() {
+        if (!capturingGroups)
+            throw new IllegalStateException("Groups are only tracked by capturing matchers");
+        return matchCaptures;
+    }
+
+    private int checkGroup(int group) {
+        if (group < 0 || group > pattern.groupCount())
+            throw new IndexOutOfBoundsException("No group " + group);
+        return group;
+    }
+
+    private void consumeWindow(MatchListener listener) {
+        while (position < window.end()) {
+            step(window.charAt(position));
+            resolve(listener);
+        }
+    }
+
+    private void step(int c) {
+        runnableThreads.clear();
+        for (int i = 0; i < currentThreads.size(); i++)
+            addThread(currentThreads.pc(i), currentThreads.start(i), currentThreads.captures(i), c);
+        if (!matchFound && position != seedSuppressedAt)
+            addThread(0, position, capturingGroups ? emptyCaptures : null, c);
+        nextThreads.clear();
+        for (int i = 0; i < runnableThreads.size(); i++) {
+            int pc = runnableThreads.pc(i);
+            if (program.opcode(pc) == Program.MATCH) {
+                recordMatch(runnableThreads.start(i), runnableThreads.captures(i));
+                break;
+            }
+            if (c != END_OF_INPUT && consumes(pc, (char) c) && nextThreads.visit(pc + 1))
+                nextThreads.add(pc + 1, runnableThreads.start(i), runnableThreads.captures(i));
+        }
+        ThreadList consumedThreads = currentThreads;
+        currentThreads = nextThreads;
+        nextThreads = consumedThreads;
+        if (c != END_OF_INPUT) {
+            previousChar = c;
+            position++;
+        }
+    }
+
+    private void addThread(int initialPc, long start, long[] initialCaptures, int c) {
+        int stackSize = 0;
+        closureStackPcs[stackSize] = initialPc;
+        closureStackCaptures[stackSize++] = initialCaptures;
+        while (stackSize > 0) {
+            int pc = closureStackPcs[--stackSize];
+            long[] threadCaptures = closureStackCaptures[stackSize];
+            closureStackCaptures[stackSize] = null;
+            if (!runnableThreads.visit(pc))
+                continue;
+            switch (program.opcode(pc)) {
+                case Program.JUMP:
+                    closureStackPcs[stackSize] = program.argument(pc);
+                    closureStackCaptures[stackSize++] = threadCaptures;
+                    break;
+                case Program.SPLIT:
+                    closureStackPcs[stackSize] = program.alternative(pc);
+                    closureStackCaptures[stackSize++] = threadCaptures;
+                    closureStackPcs[stackSize] = program.argument(pc);
+                    closureStackCaptures[stackSize++] = threadCaptures;
+                    break;
+                case Program.SAVE:
+                    if (capturingGroups) {
+                        threadCaptures = threadCaptures.clone();
+                        threadCaptures[program.argument(pc)] = position;
+                    }
+                    closureStackPcs[stackSize] = pc + 1;
+                    closureStackCaptures[stackSize++] = threadCaptures;
+                    break;
+                case Program.ASSERT:
+                    if (assertionHolds(program.argument(pc), c)) {
+                        closureStackPcs[stackSize] = pc + 1;
+                        closureStackCaptures[stackSize++] = threadCaptures;
+                    }
+                    break;
+                default:
+                    runnableThreads.add(pc, start, threadCaptures);
+            }
+        }
+    }
+
+    private boolean assertionHolds(int assertion, int c) {
+        switch (assertion) {
+            case Program.ASSERT_INPUT_START:
+                return position == 0;
+            case Program.ASSERT_INPUT_END:
+                return c == END_OF_INPUT;
+            case Program.ASSERT_WORD_BOUNDARY:
+                return isWordChar(previousChar) != isWordChar(c);
+            case Program.ASSERT_NOT_WORD_BOUNDARY:
+                return isWordChar(previousChar) == isWordChar(c);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isWordChar(int c) {
+        return c != NO_CHAR && (c == '_' || Character.isLetterOrDigit(c));
+    }
+
+    private boolean consumes(int pc, char c) {
+        if (program.opcode(pc) == Program.CHAR)
+            return program.argument(pc) == c;
+        return program.charClass(pc).matches(c);
+    }
+
+    private void recordMatch(long start, long[] threadCaptures) {
+        matchFound = true;
+        matchStart = start;
+        matchEnd = position;
+        matchCaptures = threadCaptures;
+        charBeforeMatchEnd = previousChar;
+    }
+
+    private void resolve(MatchListener listener) {
+        if (!matchFound) {
+            window.emitUpTo(currentThreads.isEmpty() ? position : currentThreads.start(0), listener);
+        } else if (currentThreads.isEmpty()) {
+            finalizeMatch(listener);
+        } else {
+            long earliestStart = currentThreads.start(0);
+            window.emitUpTo(Math.min(matchStart, earliestStart), listener);
+            if (!capturingGroups && earliestStart == matchStart)
+                window.skipUpTo(matchEnd);
+        }
+    }
+
+    private void finalizeMatch(MatchListener listener) {
+        window.emitUpTo(matchStart, listener);
+        listener.onMatch(this);
+        window.skipUpTo(matchEnd);
+        position = matchEnd;
+        previousChar = charBeforeMatchEnd;
+        seedSuppressedAt = matchStart == matchEnd ? matchEnd : -1;
+        currentThreads.clear();
+        matchFound = false;
+    }
+}
@@ -0,0 +1,53 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+import java.util.Map;
+
+public final class NfaPattern {
+
+    private final String regex;
+    private final Program program;
+    private final int groupCount;
+    private final Map<String, Integer> namedGroups;
+
+    private NfaPattern(String regex, Program program, int groupCount, Map<String, Integer> namedGroups) {
+        this.regex = regex;
+        this.program = program;
+        this.groupCount = groupCount;
+        this.namedGroups = namedGroups;
+    }
+
+    public static NfaPattern compile(String regex) {
+        RegexParser parser = new RegexParser(regex);
+        Node root = parser.parse();
+        return new NfaPattern(regex, Program.compile(regex, root), parser.getGroupCount(), Map.copyOf(parser.getNamedGroups()));
+    }
+
+    public NfaMatcher matcher() {
+        return matcher(false);
+    }
+
+    public NfaMatcher matcher(boolean capturingGroups) {
+        return new NfaMatcher(this, capturingGroups);
+    }
+
+    public String pattern() {
+        return regex;
+    }
+
+    public int groupCount() {
+        return groupCount;
+    }
+
+    public Map<String, Integer> namedGroups() {
+        return namedGroups;
+    }
+
+    Program getProgram() {
+        return program;
+    }
+
+    @Override
+    public String toString() {
+        return regex;
+    }
+}
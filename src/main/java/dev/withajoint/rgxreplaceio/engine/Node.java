@@ -0,0 +1,72 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+import java.util.List;
+
+abstract class Node {
+
+    static final int UNBOUNDED = -1;
+
+    static final class CharNode extends Node {
+        final char c;
+
+        CharNode(char c) {
+            this.c = c;
+        }
+    }
+
+    static final class ClassNode extends Node {
+        final CharClass charClass;
+
+        ClassNode(CharClass charClass) {
+            this.charClass = charClass;
+        }
+    }
+
+    static final class AssertNode extends Node {
+        final int kind;
+
+        AssertNode(int kind) {
+            this.kind = kind;
+        }
+    }
+
+    static final class ConcatNode extends Node {
+        final List<Node> nodes;
+
+        ConcatNode(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+    }
+
+    static final class AlternationNode extends Node {
+        final List<Node> alternatives;
+
+        AlternationNode(List<Node> alternatives) {
+            this.alternatives = alternatives;
+        }
+    }
+
+    static final class GroupNode extends Node {
+        final Node node;
+        final int index;
+
+        GroupNode(Node node, int index) {
+            this.node = node;
+            this.index = index;
+        }
+    }
+
+    static final class RepeatNode extends Node {
+        final Node node;
+        final int min;
+        final int max;
+        final boolean greedy;
+
+        RepeatNode(Node node, int min, int max, boolean greedy) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+            this.greedy = greedy;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+import java.util.Arrays;
+import java.util.regex.PatternSyntaxException;
+
+final class Program {
+
+    static final int CHAR = 0;
+    static final int CLASS = 1;
+    static final int SPLIT = 2;
+    static final int JUMP = 3;
+    static final int SAVE = 4;
+    static final int ASSERT = 5;
+    static final int MATCH = 6;
+
+    static final int ASSERT_INPUT_START = 0;
+    static final int ASSERT_INPUT_END = 1;
+    static final int ASSERT_WORD_BOUNDARY = 2;
+    static final int ASSERT_NOT_WORD_BOUNDARY = 3;
+
+    private static final int MAX_INSTRUCTIONS = 1 << 16;
+
+    private final String regex;
+    private int[] opcodes;
+    private int[] arguments;
+    private int[] alternatives;
+    private CharClass[] charClasses;
+    private int size;
+
+    Program(String regex) {
+        this.regex = regex;
+        opcodes = new int[16];
+        arguments = new int[16];
+        alternatives = new int[16];
+        charClasses = new CharClass[16];
+        size = 0;
+    }
+
+    static Program compile(String regex, Node root) {
+        Program program = new Program(regex);
+        program.emitNode(root);
+        program.emit(MATCH, 0, 0, null);
+        program.trim();
+        return program;
+    }
+
+    int opcode(int pc) {
+        return opcodes[pc];
+    }
+
+    int argument(int pc) {
+        return arguments[pc];
+    }
+
+    int alternative(int pc) {
+        return alternatives[pc];
+    }
+
+    CharClass charClass(int pc) {
+        return charClasses[pc];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void emitNode(Node node) {
+        if (node instanceof Node.CharNode) {
+            emit(CHAR, ((Node.CharNode) node).c, 0, null);
+        } else if (node instanceof Node.ClassNode) {
+            emit(CLASS, 0, 0, ((Node.ClassNode) node).charClass);
+        } else if (node instanceof Node.AssertNode) {
+            emit(ASSERT, ((Node.AssertNode) node).kind, 0, null);
+        } else if (node instanceof Node.ConcatNode) {
+            for (Node child : ((Node.ConcatNode) node).nodes)
+                emitNode(child);
+        } else if (node instanceof Node.AlternationNode) {
+            emitAlternation((Node.AlternationNode) node);
+        } else if (node instanceof Node.GroupNode) {
+            emitGroup((Node.GroupNode) node);
+        } else if (node instanceof Node.RepeatNode) {
+            emitRepeat((Node.RepeatNode) node);
+        }
+    }
+
+    private void emitAlternation(Node.AlternationNode node) {
+        int alternativesLeft = node.alternatives.size();
+        int[] jumpsToEnd = new int[alternativesLeft - 1];
+        for (int i = 0; i < node.alternatives.size(); i++) {
+            Node alternative = node.alternatives.get(i);
+            if (--alternativesLeft == 0) {
+                emitNode(alternative);
+                break;
+            }
+            int split = emit(SPLIT, size + 1, 0, null);
+            emitNode(alternative);
+            jumpsToEnd[i] = emit(JUMP, 0, 0, null);
+            alternatives[split] = size;
+        }
+        for (int jump : jumpsToEnd)
+            arguments[jump] = size;
+    }
+
+    private void emitGroup(Node.GroupNode node) {
+        if (node.index == -1) {
+            emitNode(node.node);
+            return;
+        }
+        emit(SAVE, node.index * 2, 0, null);
+        emitNode(node.node);
+        emit(SAVE, node.index * 2 + 1, 0, null);
+    }
+
+    private void emitRepeat(Node.RepeatNode node) {
+        for (int i = 0; i < node.min; i++)
+            emitNode(node.node);
+        if (node.max == Node.UNBOUNDED) {
+            int split = emit(SPLIT, 0, 0, null);
+            emitNode(node.node);
+            emit(JUMP, split, 0, null);
+            setSplitTargets(split, split + 1, size, node.greedy);
+            return;
+        }
+        int optionalRepetitions = node.max - node.min;
+        int[] splits = new int[optionalRepetitions];
+        for (int i = 0; i < optionalRepetitions; i++) {
+            splits[i] = emit(SPLIT, 0, 0, null);
+            emitNode(node.node);
+        }
+        for (int split : splits)
+            setSplitTargets(split, split + 1, size, node.greedy);
+    }
+
+    private void setSplitTargets(int split, int body, int exit, boolean greedy) {
+        arguments[split] = greedy ? body : exit;
+        alternatives[split] = greedy ? exit : body;
+    }
+
+    private int emit(int opcode, int argument, int alternative, CharClass charClass) {
+        if (size == MAX_INSTRUCTIONS)
+            throw new PatternSyntaxException("Regex too large for the streaming engine", regex, -1);
+        if (size == opcodes.length) {
+            int newLength = opcodes.length * 2;
+            opcodes = Arrays.copyOf(opcodes, newLength);
+            arguments = Arrays.copyOf(arguments, newLength);
+            alternatives = Arrays.copyOf(alternatives, newLength);
+            charClasses = Arrays.copyOf(charClasses, newLength);
+        }
+        opcodes[size] = opcode;
+        arguments[size] = argument;
+        alternatives[size] = alternative;
+        charClasses[size] = charClass;
+        return size++;
+    }
+
+    private void trim() {
+        opcodes = Arrays.copyOf(opcodes, size);
+        arguments = Arrays.copyOf(arguments, size);
+        alternatives = Arrays.copyOf(alternatives, size);
+        charClasses = Arrays.copyOf(charClasses, size);
+    }
+}
@@ -0,0 +1,350 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.PatternSyntaxException;
+
+final class RegexParser {
+
+    private static final int MAX_REPETITION = 1000;
+
+    private final String regex;
+    private final Map<String, Integer> namedGroups;
+    private int position;
+    private int groupCount;
+
+    RegexParser(String regex) {
+        this.regex = regex;
+        namedGroups = new HashMap<>();
+        position = 0;
+        groupCount = 0;
+    }
+
+    Node parse() {
+        Node root = parseAlternation();
+        if (hasMore())
+            throw syntaxError("Unmatched closing ')'");
+        return root;
+    }
+
+    int getGroupCount() {
+        return groupCount;
+    }
+
+    Map<String, Integer> getNamedGroups() {
+        return namedGroups;
+    }
+
+    private Node parseAlternation() {
+        List<Node> alternatives = new ArrayList<>();
+        alternatives.add(parseConcatenation());
+        while (hasMore() && peek() == '|') {
+            position++;
+            alternatives.add(parseConcatenation());
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : new Node.AlternationNode(alternatives);
+    }
+
+    private Node parseConcatenation() {
+        List<Node> nodes = new ArrayList<>();
+        while (hasMore() && peek() != '|' && peek() != ')')
+            nodes.add(parseRepetition(parseAtom()));
+        return nodes.size() == 1 ? nodes.get(0) : new Node.ConcatNode(nodes);
+    }
+
+    private Node parseRepetition(Node atom) {
+        while (hasMore()) {
+            int min;
+            int max;
+            char c = peek();
+            if (c == '*') {
+                min = 0;
+                max = Node.UNBOUNDED;
+                position++;
+            } else if (c == '+') {
+                min = 1;
+                max = Node.UNBOUNDED;
+                position++;
+            } else if (c == '?') {
+                min = 0;
+                max = 1;
+                position++;
+            } else if (c == '{') {
+                int[] bounds = parseBounds();
+                min = bounds[0];
+                max = bounds[1];
+            } else {
+                return atom;
+            }
+            boolean greedy = true;
+            if (hasMore() && peek() == '?') {
+                greedy = false;
+                position++;
+            } else if (hasMore() && peek() == '+') {
+                throw syntaxError("Possessive quantifiers are not supported");
+            }
+            atom = new Node.RepeatNode(atom, min, max, greedy);
+        }
+        return atom;
+    }
+
+    private int[] parseBounds() {
+        position++;
+        int min = parseNumber();
+        int max = min;
+        if (hasMore() && peek() == ',') {
+            position++;
+            max = hasMore() && peek() == '}' ? Node.UNBOUNDED : parseNumber();
+        }
+        if (!hasMore() || peek() != '}')
+            throw syntaxError("Unclosed counted closure");
+        position++;
+        if (max != Node.UNBOUNDED && max < min)
+            throw syntaxError("Illegal repetition range");
+        if (min > MAX_REPETITION || max > MAX_REPETITION)
+            throw syntaxError("Repetition bound too large for the streaming engine");
+        return new int[]{min, max};
+    }
+
+    private int parseNumber() {
+        int start = position;
+        while (hasMore() && Character.isDigit(peek()))
+            position++;
+        if (start == position)
+            throw syntaxError("Illegal repetition");
+        try {
+            return Integer.parseInt(regex.substring(start, position));
+        } catch (NumberFormatException e) {
+            throw syntaxError("Illegal repetition");
+        }
+    }
+
+    private Node parseAtom() {
+        char c = next();
+        switch (c) {
+            case '(':
+                return parseGroup();
+            case '[':
+                return new Node.ClassNode(parseCharClass().freeze());
+            case '.':
+                return new Node.ClassNode(CharClass.ANY_BUT_LINE_TERMINATOR);
+            case '^':
+                return new Node.AssertNode(Program.ASSERT_INPUT_START);
+            case '$':
+                return new Node.AssertNode(Program.ASSERT_INPUT_END);
+            case '\\':
+                return parseEscape();
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw syntaxError("Dangling meta character '" + c + "'");
+            default:
+                return new Node.CharNode(c);
+        }
+    }
+
+    private Node parseGroup() {
+        int index = -1;
+        if (hasMore() && peek() == '?') {
+            position++;
+            char groupType = next();
+            if (groupType == '<' && hasMore() && peek() != '=' && peek() != '!') {
+                index = ++groupCount;
+                namedGroups.put(parseGroupName(), index);
+            } else if (groupType != ':') {
+                throw syntaxError("Lookaround, inline flags and atomic groups are not supported");
+            }
+        } else {
+            index = ++groupCount;
+        }
+        Node node = parseAlternation();
+        if (!hasMore() || next() != ')')
+            throw syntaxError("Unclosed group");
+        return new Node.GroupNode(node, index);
+    }
+
+    private String parseGroupName() {
+        int start = position;
+        while (hasMore() && Character.isLetterOrDigit(peek()))
+            position++;
+        if (start == position || !hasMore() || next() != '>')
+            throw syntaxError("Named capturing group is missing trailing '>'");
+        String name = regex.substring(start, position - 1);
+        if (namedGroups.containsKey(name))
+            throw syntaxError("Named capturing group <" + name + "> is already defined");
+        return name;
+    }
+
+    private Node parseEscape() {
+        if (!hasMore())
+            throw syntaxError("Unexpected internal error");
+        char c = peek();
+        switch (c) {
+            case 'b':
+                position++;
+                return new Node.AssertNode(Program.ASSERT_WORD_BOUNDARY);
+            case 'B':
+                position++;
+                return new Node.AssertNode(Program.ASSERT_NOT_WORD_BOUNDARY);
+            case 'A':
+                position++;
+                return new Node.AssertNode(Program.ASSERT_INPUT_START);
+            case 'z':
+                position++;
+                return new Node.AssertNode(Program.ASSERT_INPUT_END);
+            case 'Q':
+                position++;
+                return parseQuotedLiteral();
+            default:
+                CharClass predefinedClass = parsePredefinedClass();
+                if (predefinedClass != null)
+                    return new Node.ClassNode(predefinedClass);
+                return new Node.CharNode(parseEscapedChar());
+        }
+    }
+
+    private Node parseQuotedLiteral() {
+        int end = regex.indexOf("\\E", position);
+        if (end == -1)
+            end = regex.length();
+        List<Node> nodes = new ArrayList<>();
+        for (int i = position; i < end; i++)
+            nodes.add(new Node.CharNode(regex.charAt(i)));
+        position = Math.min(end + 2, regex.length());
+        return nodes.size() == 1 ? nodes.get(0) : new Node.ConcatNode(nodes);
+    }
+
+    private CharClass parsePredefinedClass() {
+        CharClass predefinedClass;
+        switch (peek()) {
+            case 'd':
+                predefinedClass = CharClass.DIGIT;
+                break;
+            case 'D':
+                predefinedClass = CharClass.DIGIT.negated();
+                break;
+            case 'w':
+                predefinedClass = CharClass.WORD;
+                break;
+            case 'W':
+                predefinedClass = CharClass.WORD.negated();
+                break;
+            case 's':
+                predefinedClass = CharClass.SPACE;
+                break;
+            case 'S':
+                predefinedClass = CharClass.SPACE.negated();
+                break;
+            default:
+                return null;
+        }
+        position++;
+        return predefinedClass;
+    }
+
+    private char parseEscapedChar() {
+        char c = next();
+        switch (c) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case 'a':
+                return '\u0007';
+            case 'e':
+                return '\u001B';
+            case '0':
+                return (char) parseCharCode(8, 3);
+            case 'x':
+                return (char) parseCharCode(16, 2);
+            case 'u':
+                return (char) parseCharCode(16, 4);
+            default:
+                if (Character.isLetterOrDigit(c))
+                    throw syntaxError("Illegal/unsupported escape sequence");
+                return c;
+        }
+    }
+
+    private int parseCharCode(int radix, int maxDigits) {
+        int start = position;
+        int value = 0;
+        while (hasMore() && position - start < maxDigits && Character.digit(peek(), radix) != -1)
+            value = value * radix + Character.digit(next(), radix);
+        if (start == position)
+            throw syntaxError("Illegal escape sequence");
+        return value;
+    }
+
+    private CharClass parseCharClass() {
+        CharClass charClass = new CharClass();
+        boolean negated = hasMore() && peek() == '^';
+        if (negated)
+            position++;
+        boolean first = true;
+        while (true) {
+            if (!hasMore())
+                throw syntaxError("Unclosed character class");
+            char c = next();
+            if (c == ']' && !first)
+                break;
+            first = false;
+            if (c == '[') {
+                charClass.addClass(parseCharClass().freeze());
+                continue;
+            }
+            if (c == '&' && hasMore() && peek() == '&')
+                throw syntaxError("Character class intersection is not supported");
+            if (c == '\\') {
+                if (!hasMore())
+                    throw syntaxError("Unclosed character class");
+                CharClass predefinedClass = parsePredefinedClass();
+                if (predefinedClass != null) {
+                    charClass.addClass(predefinedClass);
+                    continue;
+                }
+                c = parseEscapedChar();
+            }
+            if (hasMore() && peek() == '-' && position + 1 < regex.length() && regex.charAt(position + 1) != ']') {
+                position++;
+                char to = next();
+                if (to == '\\') {
+                    if (!hasMore())
+                        throw syntaxError("Unclosed character class");
+                    to = parseEscapedChar();
+                }
+                if (to < c)
+                    throw syntaxError("Illegal character range");
+                charClass.addRange(c, to);
+            } else {
+                charClass.addRange(c, c);
+            }
+        }
+        if (negated)
+            charClass.negate();
+        return charClass;
+    }
+
+    private boolean hasMore() {
+        return position < regex.length();
+    }
+
+    private char peek() {
+        return regex.charAt(position);
+    }
+
+    private char next() {
+        return regex.charAt(position++);
+    }
+
+    private PatternSyntaxException syntaxError(String description) {
+        return new PatternSyntaxException(description, regex, position - 1);
+    }
+}
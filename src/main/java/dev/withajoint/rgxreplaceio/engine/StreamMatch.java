@@ -0,0 +1,14 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+public interface StreamMatch {
+
+    long start();
+
+    long end();
+
+    String group();
+
+    String group(int group);
+
+    int groupCount();
+}
@@ -0,0 +1,66 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+import java.util.Arrays;
+
+final class ThreadList {
+
+    private final int[] programCounters;
+    private final long[] starts;
+    private final long[][] captures;
+    private final int[] visitMarks;
+    private int generation;
+    private int size;
+
+    ThreadList(int programSize) {
+        programCounters = new int[programSize];
+        starts = new long[programSize];
+        captures = new long[programSize][];
+        visitMarks = new int[programSize];
+        generation = 1;
+        size = 0;
+    }
+
+    boolean visit(int pc) {
+        if (visitMarks[pc] == generation)
+            return false;
+        visitMarks[pc] = generation;
+        return true;
+    }
+
+    void add(int pc, long start, long[] threadCaptures) {
+        programCounters[size] = pc;
+        starts[size] = start;
+        captures[size] = threadCaptures;
+        size++;
+    }
+
+    int pc(int index) {
+        return programCounters[index];
+    }
+
+    long start(int index) {
+        return starts[index];
+    }
+
+    long[] captures(int index) {
+        return captures[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++)
+            captures[i] = null;
+        size = 0;
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(visitMarks, 0);
+            generation = 1;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class BatchReplacerTest {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("rgxreplace-batch");
+    }
+
+    @AfterMethod
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> tree = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) tree.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(path);
+        }
+    }
+
+    @Test
+    public void replaceTree_nestedFiles_replaceEveryFileInPlace() throws IOException, InterruptedException {
+        Path first = Files.writeString(directory.resolve("first.txt"), "user=alice id=1");
+        Path second = Files.writeString(Files.createDirectory(directory.resolve("nested")).resolve("second.txt"), "id=22 id=333");
+
+        List<FileReplacement> replacements = RgxReplaceFiles.replaceTree(directory, "id=\\d+", "id=#", 2);
+
+        assert replacements.size() == 2;
+        assert "user=alice id=#".equals(Files.readString(first));
+        assert "id=# id=#".equals(Files.readString(second));
+        assert replacements.stream().mapToLong(FileReplacement::getReplacements).sum() == 3;
+    }
+
+    @Test
+    public void replaceAll_fileWithoutMatches_leaveFileUntouched() throws IOException, InterruptedException {
+        Path file = Files.writeString(directory.resolve("plain.txt"), "nothing to replace");
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+
+        FileReplacement replacement = RgxReplaceFiles.replaceAll(Stream.of(file), "\\d+", "#", 1).get(0);
+
+        assert replacement.isSuccessful() && replacement.getReplacements() == 0;
+        assert Files.getLastModifiedTime(file).toMillis() == lastModified;
+        try (Stream<Path> files = Files.list(directory)) {
+            assert files.count() == 1;
+        }
+    }
+
+    @Test
+    public void replaceAll_missingFile_reportFailureAndReplaceOthers() throws IOException, InterruptedException {
+        Path missing = directory.resolve("missing.txt");
+        Path existing = Files.writeString(directory.resolve("existing.txt"), "a1b2");
+
+        List<FileReplacement> replacements = RgxReplaceFiles.replaceAll(Stream.of(missing, existing), "\\d", "#", 4);
+
+        assert !replacements.get(0).isSuccessful();
+        assert replacements.get(1).isSuccessful() && replacements.get(1).getBytesWritten() == 4;
+        assert "a#b#".equals(Files.readString(existing));
+    }
+
+    @Test
+    public void replaceAll_walkedDirectoryWithSymlink_replaceOnlyRegularFilesOnce() throws IOException, InterruptedException {
+        Path first = Files.writeString(directory.resolve("first.txt"), "id=1");
+        Path second = Files.writeString(directory.resolve("second.txt"), "id=22");
+        Path link = Files.createSymbolicLink(directory.resolve("link.txt"), first);
+
+        List<FileReplacement> replacements;
+        try (Stream<Path> tree = Files.walk(directory)) {
+            replacements = RgxReplaceFiles.replaceAll(tree, "\\d+", "#", 2);
+        }
+
+        assert replacements.size() == 2 : replacements.size();
+        assert replacements.stream().allMatch(FileReplacement::isSuccessful);
+        assert "id=#".equals(Files.readString(first));
+        assert "id=#".equals(Files.readString(second));
+        assert Files.isSymbolicLink(link);
+        try (Stream<Path> files = Files.list(directory)) {
+            assert files.count() == 3;
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void instantiation_maxConcurrencyLessThanOrEqualTo0_throwException() {
+        new BatchReplacer("a", "b", ByteEncoding.UTF_8, 0);
+    }
+}
@@ -2,6 +2,9 @@ package dev.withajoint.rgxreplaceio;
 
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 public class BufferContentReplacerTest {
 
     @Test(expectedExceptions = IllegalArgumentException.class)
@@ -9,12 +12,15 @@ public class BufferContentReplacerTest {
         new BufferContentReplacer("", "");
     }
 
-    @Test(expectedExceptions = IllegalStateException.class)
-    public void replacement_regexMatchWholeBuffer_throwException() {
+    @Test
+    public void replacement_regexMatchWholeBuffer_reportIncompleteMatchAtStart() {
         char[] buffer = {'1', '2', '3'};
         BufferContentReplacer contentReplacer = new BufferContentReplacer("\\d+", "");
 
         contentReplacer.replaceMatchesIfAny(buffer, buffer.length);
+
+        assert contentReplacer.isLastMatchIncomplete();
+        assert contentReplacer.getIncompleteMatchStartIndex() == 0;
     }
 
     @Test
@@ -76,6 +82,48 @@ public class BufferContentReplacerTest {
         assertReplacement(buffer, buffer.length, bufferReplaced, charsInBuffer);
     }
 
+    @Test
+    public void replacement_consecutiveReplacements_reuseBuffers() {
+        char[] buffer = {'a', '0', 'b', 'c'};
+        BufferContentReplacer contentReplacer = new BufferContentReplacer("0", "1");
+
+        char[] firstBufferReplaced = contentReplacer.replaceMatchesIfAny(buffer, buffer.length);
+        char[] secondBufferReplaced = contentReplacer.replaceMatchesIfAny(new char[]{'0', 'd', 'e', 'f'}, buffer.length);
+
+        assert firstBufferReplaced != buffer;
+        assert secondBufferReplaced == buffer;
+        assertReplacement(new char[]{'1', 'd', 'e', 'f'}, 4, secondBufferReplaced, contentReplacer.getCharsAfterReplacement());
+    }
+
+    @Test
+    public void replacement_replacementWithEscapedDollarSign_replaceLiterally() {
+        char[] buffer = {'a', '0', 'b'};
+        char[] expected = {'a', '$', '1', 'b'};
+        BufferContentReplacer contentReplacer = new BufferContentReplacer("0", "\\$1");
+
+        char[] bufferReplaced = contentReplacer.replaceMatchesIfAny(buffer, buffer.length);
+        int charsInBuffer = contentReplacer.getCharsAfterReplacement();
+
+        assertReplacement(expected, expected.length, bufferReplaced, charsInBuffer);
+    }
+
+    @Test
+    public void replacement_groupReferences_replaceWithCapturedContent() {
+        char[] buffer = "k=12;j=3".toCharArray();
+        char[] expected = "12:k;3:j".toCharArray();
+        BufferContentReplacer contentReplacer = new BufferContentReplacer("(\\w)=(?<value>\\d+)", "${value}:$1");
+
+        char[] bufferReplaced = contentReplacer.replaceMatchesIfAny(buffer, buffer.length, true);
+        int charsInBuffer = contentReplacer.getCharsAfterReplacement();
+
+        assert new String(bufferReplaced, 0, charsInBuffer).equals(new String(expected));
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void instantiation_referenceToMissingGroup_throwException() {
+        new BufferContentReplacer("(a)", "$2");
+    }
+
     @Test
     public void incompleteMatchState_noIncompleteMatch_returnDefault() {
         char[] buffer = {'a', '0', 'e'};
@@ -124,6 +172,123 @@ public class BufferContentReplacerTest {
         assert contentReplacer.getIncompleteMatchStartIndex() == expectedStartIndex;
     }
 
+    @Test
+    public void incompleteMatchState_matchAtEndOfInput_replaceMatch() {
+        char[] buffer = {'a', 'b', '0'};
+        char[] expected = {'a', 'b', 'c'};
+        BufferContentReplacer contentReplacer = new BufferContentReplacer("0", "c");
+
+        char[] bufferReplaced = contentReplacer.replaceMatchesIfAny(buffer, buffer.length, true);
+        int charsInBuffer = contentReplacer.getCharsAfterReplacement();
+
+        assert !contentReplacer.isLastMatchIncomplete();
+        assertReplacement(expected, expected.length, bufferReplaced, charsInBuffer);
+    }
+
+    @Test
+    public void incompleteMatchState_partialMatchOutsideCarryOverWindow_returnDefault() {
+        char[] buffer = {'n', 'o', ' ', '3', '3', '3', '-', 'a', 'b'};
+        int expectedStartIndex = -1;
+        BufferContentReplacer contentReplacer = new BufferContentReplacer("\\d{3}-[a-z]{4}", "###-####", 2);
+
+        contentReplacer.replaceMatchesIfAny(buffer, buffer.length);
+
+        assert !contentReplacer.isLastMatchIncomplete();
+        assert contentReplacer.getIncompleteMatchStartIndex() == expectedStartIndex;
+    }
+
+    @Test
+    public void incompleteMatchState_shorterReplacementBeforePartialMatch_returnAdjustedStartIndex() {
+        char[] buffer = {'a', 'x', 'x', 'b', '1', '2'};
+        int expectedStartIndex = 2;
+        BufferContentReplacer contentReplacer = new BufferContentReplacer("x+|\\d{3}", "");
+
+        contentReplacer.replaceMatchesIfAny(buffer, buffer.length);
+
+        assert contentReplacer.isLastMatchIncomplete();
+        assert contentReplacer.getIncompleteMatchStartIndex() == expectedStartIndex;
+    }
+
+
+    @Test
+    public void replacement_noLeadingCharInBuffer_returnBufferUntouched() {
+        char[] buffer = "no digits here".toCharArray();
+        BufferContentReplacer contentReplacer = new BufferContentReplacer("\\d+x", "#");
+
+        char[] bufferReplaced = contentReplacer.replaceMatchesIfAny(buffer, buffer.length);
+
+        assert bufferReplaced == buffer;
+        assert !contentReplacer.isLastMatchIncomplete();
+        assert contentReplacer.getMatchesReplaced() == 0;
+    }
+
+    @Test
+    public void replacement_candidateAtEndOfBuffer_reportIncompleteMatch() {
+        char[] buffer = "a1x b2 c34".toCharArray();
+        BufferContentReplacer contentReplacer = new BufferContentReplacer("\\d+x", "#");
+
+        char[] bufferReplaced = contentReplacer.replaceMatchesIfAny(buffer, buffer.length);
+        String result = new String(bufferReplaced, 0, contentReplacer.getCharsAfterReplacement());
+
+        assert "a# b2 c34".equals(result) : result;
+        assert contentReplacer.isLastMatchIncomplete();
+        assert contentReplacer.getIncompleteMatchStartIndex() == 7 : contentReplacer.getIncompleteMatchStartIndex();
+    }
+
+    @Test
+    public void replacement_contextBeforeContent_matchLookBehindWithoutReplacingContext() {
+        char[] buffer = "yabab".toCharArray();
+        BufferContentReplacer contentReplacer = new BufferContentReplacer("\\bab", "#");
+
+        char[] bufferReplaced = contentReplacer.replaceMatchesIfAny(buffer, 1, buffer.length, true);
+        String result = new String(bufferReplaced, 0, contentReplacer.getCharsAfterReplacement());
+
+        assert "yabab".equals(result) : result;
+        assert contentReplacer.getContextLength() == 5;
+    }
+
+    @Test
+    public void replacement_matchBeforeCarryOver_keepOriginalCharsAsContext() {
+        char[] buffer = "ab cd a".toCharArray();
+        BufferContentReplacer contentReplacer = new BufferContentReplacer("ab|a\\w+", "#");
+        char[] context = new char[6];
+
+        contentReplacer.replaceMatchesIfAny(buffer, buffer.length);
+        contentReplacer.copyContext(context, context.length);
+
+        assert contentReplacer.getIncompleteMatchStartIndex() == 5 : contentReplacer.getIncompleteMatchStartIndex();
+        assert contentReplacer.getContextLength() == 6 : contentReplacer.getContextLength();
+        assert "ab cd ".equals(new String(context)) : new String(context);
+    }
+
+    @Test
+    public void writeMatchesReplaced_groupReferences_writeReplacementWithoutCarry() throws IOException {
+        char[] buffer = "k=12;j=3;x=".toCharArray();
+        StringWriter out = new StringWriter();
+        BufferContentReplacer contentReplacer = new BufferContentReplacer("(\\w)=(\\d+)", "$2:$1");
+
+        int resolvedChars = contentReplacer.writeMatchesReplaced(buffer, 0, buffer.length, false, out);
+
+        assert "12:k;3:j;".equals(out.toString()) : out;
+        assert resolvedChars == 9 : resolvedChars;
+        assert contentReplacer.getIncompleteMatchStartIndex() == 9;
+        assert contentReplacer.getCharsAfterReplacement() == 9;
+    }
+
+    @Test
+    public void writeMatchesReplaced_matchReplacer_countCharsWritten() throws IOException {
+        char[] buffer = "a1b22".toCharArray();
+        StringWriter out = new StringWriter();
+        BufferContentReplacer contentReplacer = new BufferContentReplacer("\\d+",
+                (match, sink) -> sink.append('<').append(match.group()).append(">"));
+
+        int resolvedChars = contentReplacer.writeMatchesReplaced(buffer, 0, buffer.length, true, out);
+
+        assert "a<1>b<22>".equals(out.toString()) : out;
+        assert resolvedChars == buffer.length;
+        assert contentReplacer.getCharsAfterReplacement() == 9;
+        assert contentReplacer.getMatchesReplaced() == 2;
+    }
 
     private void assertReplacement(char[] expectedBuffer, int expectedCharsInBuffer, char[] bufferReplaced, int charsInBuffer) {
         assert expectedBuffer.length == bufferReplaced.length;
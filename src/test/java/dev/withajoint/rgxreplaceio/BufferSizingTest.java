@@ -0,0 +1,77 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+public class BufferSizingTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void instantiation_initialSizeLessThanOrEqualTo0_throwException() {
+        new BufferSizing(0, 16);
+    }
+
+    @Test
+    public void resize_bufferFull_doubleBufferKeepingContent() {
+        BufferSizing bufferSizing = new BufferSizing(4, 16);
+        char[] buffer = {'a', 'b', 'c', 'd'};
+
+        char[] resized = bufferSizing.resize(buffer, buffer.length);
+
+        assert resized.length == 8;
+        assert new String(resized, 0, 4).equals("abcd");
+    }
+
+    @Test
+    public void resize_growthExceedsMaxSize_capAtMaxSize() {
+        BufferSizing bufferSizing = new BufferSizing(4, 6);
+
+        byte[] resized = bufferSizing.resize(new byte[4], 4);
+
+        assert resized.length == 6;
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void resize_bufferFullAtMaxSize_throwException() {
+        BufferSizing bufferSizing = new BufferSizing(4, 8);
+
+        bufferSizing.resize(new char[8], 8);
+    }
+
+    @Test
+    public void resize_grownBufferMostlyEmpty_shrinkToInitialSize() {
+        BufferSizing bufferSizing = new BufferSizing(4, 16);
+        char[] buffer = {'a', 'b', 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+
+        char[] resized = bufferSizing.resize(buffer, 2);
+
+        assert resized.length == 4;
+        assert resized[0] == 'a' && resized[1] == 'b';
+    }
+
+    @Test
+    public void resize_initialBufferPartiallyFilled_returnSameBuffer() {
+        BufferSizing bufferSizing = new BufferSizing(4, 16);
+        char[] buffer = new char[4];
+
+        assert bufferSizing.resize(buffer, 3) == buffer;
+    }
+
+    @Test
+    public void reserveContext_noRoomForContextBesideCarriedBytes_growUpToMaxSize() {
+        BufferSizing bufferSizing = new BufferSizing(2, 16);
+        byte[] buffer = {'a', 'b'};
+
+        byte[] reserved = bufferSizing.reserveContext(buffer, 1, 64);
+
+        assert reserved.length == 16;
+        assert reserved[0] == 'a' && reserved[1] == 'b';
+        assert bufferSizing.reserveContext(reserved, 1, 64) == reserved;
+    }
+
+    @Test
+    public void reserveContext_enoughRoomForContext_returnSameBuffer() {
+        BufferSizing bufferSizing = new BufferSizing(8, 16);
+        byte[] buffer = new byte[8];
+
+        assert bufferSizing.reserveContext(buffer, 2, 3) == buffer;
+    }
+}
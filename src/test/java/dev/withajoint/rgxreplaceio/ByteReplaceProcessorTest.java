@@ -0,0 +1,69 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.SubmissionPublisher;
+
+public class ByteReplaceProcessorTest {
+
+    @Test
+    public void onNext_multibyteMatchSplitAcrossChunks_emitReplacedBytes() throws InterruptedException {
+        ByteReplaceProcessor processor = new ByteReplaceProcessor("é+", "e", 4, 64, ByteEncoding.UTF_8);
+        ReplaceProcessorTest.CollectingSubscriber<ByteBuffer> subscriber =
+                new ReplaceProcessorTest.CollectingSubscriber<>(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+        byte[] input = "caféé au lait".getBytes(StandardCharsets.UTF_8);
+
+        try (SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            for (int i = 0; i < input.length; i += 3)
+                publisher.submit(ByteBuffer.wrap(Arrays.copyOfRange(input, i, Math.min(i + 3, input.length))));
+        }
+
+        assert subscriber.await();
+        assert joinBytes(subscriber.items).equals("cafe au lait") : joinBytes(subscriber.items);
+    }
+
+    @Test
+    public void onNext_directBufferChunks_emitReplacedBytes() {
+        ByteReplaceProcessor processor = new ByteReplaceProcessor("\\d+", "#");
+        ReplaceProcessorTest.CollectingSubscriber<ByteBuffer> subscriber =
+                new ReplaceProcessorTest.CollectingSubscriber<>(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+        processor.onSubscribe(new ReplaceProcessorTest.RecordingSubscription());
+        ByteBuffer chunk = ByteBuffer.allocateDirect(8).put("ab12".getBytes(StandardCharsets.US_ASCII)).flip();
+
+        processor.onNext(chunk);
+        processor.onComplete();
+
+        assert subscriber.completed;
+        assert joinBytes(subscriber.items).equals("ab#") : joinBytes(subscriber.items);
+    }
+
+    @Test
+    public void onNext_lookBehindAcrossChunks_seePreviousChunk() {
+        ByteReplaceProcessor processor = new ByteReplaceProcessor("(?<=x)y|\\bab", "#", 2, 64, ByteEncoding.UTF_8);
+        ReplaceProcessorTest.CollectingSubscriber<ByteBuffer> subscriber =
+                new ReplaceProcessorTest.CollectingSubscriber<>(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+        processor.onSubscribe(new ReplaceProcessorTest.RecordingSubscription());
+
+        for (String chunk : new String[]{"x", "y", "-1", "ab", " a", "b"})
+            processor.onNext(ByteBuffer.wrap(chunk.getBytes(StandardCharsets.US_ASCII)));
+        processor.onComplete();
+
+        assert joinBytes(subscriber.items).equals("x#-1ab #") : joinBytes(subscriber.items);
+    }
+
+    private static String joinBytes(List<ByteBuffer> chunks) {
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        for (ByteBuffer chunk : chunks)
+            joined.write(chunk.array(), chunk.position(), chunk.remaining());
+        return joined.toString(StandardCharsets.UTF_8);
+    }
+}
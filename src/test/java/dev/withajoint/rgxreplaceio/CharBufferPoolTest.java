@@ -0,0 +1,109 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+public class CharBufferPoolTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void create_maxRetainedCharsLessThan0_throwException() {
+        CharBufferPool.create(-1);
+    }
+
+    @Test
+    public void acquire_sizeClassReleasedBefore_reuseBuffer() {
+        CharBufferPool pool = CharBufferPool.create(1 << 16);
+        char[] buffer = pool.acquire(1024);
+        pool.release(buffer);
+
+        char[] reused = pool.acquire(1024);
+
+        assert reused == buffer;
+        assert pool.retainedChars() == 0;
+    }
+
+    @Test
+    public void release_lengthNotASizeClass_dropBuffer() {
+        CharBufferPool pool = CharBufferPool.create(1 << 16);
+
+        pool.release(new char[1000]);
+
+        assert pool.retainedChars() == 0;
+    }
+
+    @Test
+    public void release_retainedCharsOverMax_dropBuffer() {
+        CharBufferPool pool = CharBufferPool.create(1024);
+        pool.release(new char[1024]);
+
+        pool.release(new char[512]);
+
+        assert pool.retainedChars() == 1024 : pool.retainedChars();
+    }
+
+    @Test
+    public void release_nonePool_retainNothing() {
+        char[] buffer = CharBufferPool.NONE.acquire(1024);
+        CharBufferPool.NONE.release(buffer);
+
+        assert CharBufferPool.NONE.acquire(1024) != buffer;
+        assert CharBufferPool.NONE.retainedChars() == 0;
+    }
+
+    @Test
+    public void close_readerFromPooledSpec_returnBuffersToPool() throws IOException {
+        CharBufferPool pool = CharBufferPool.create(1 << 16);
+        ReplaceSpec spec = ReplaceSpec.of("\\d+", "#", 256, 1024, RegexEngine.JDK).withBufferPool(pool);
+        ReplaceReader reader = spec.newReader(new StringReader("ab12cd"));
+        while (reader.read() != -1) ;
+
+        reader.close();
+
+        assert pool.retainedChars() == 512 : pool.retainedChars();
+        spec.newReader(new StringReader("ab12cd"));
+        assert pool.retainedChars() == 256 : pool.retainedChars();
+    }
+
+    @Test
+    public void close_writerFromPooledSpec_returnBuffersToPool() throws IOException {
+        CharBufferPool pool = CharBufferPool.create(1 << 16);
+        ReplaceSpec spec = ReplaceSpec.of("\\d+", "#", 256, 1024, RegexEngine.NATIVE).withBufferPool(pool);
+        StringWriter out = new StringWriter();
+        ReplaceWriter writer = spec.newWriter(out);
+        writer.write("ab12cd");
+
+        writer.close();
+
+        assert out.toString().equals("ab#cd") : out;
+        assert pool.retainedChars() == 512 : pool.retainedChars();
+    }
+
+    @Test
+    public void leaksDetected_readerNeverClosed_reportLeak() throws InterruptedException {
+        CharBufferPool pool = CharBufferPool.create(1 << 16, true);
+        ReplaceSpec spec = ReplaceSpec.of("\\d+", "#").withBufferPool(pool);
+        spec.newReader(new StringReader("ab12cd"));
+
+        for (int i = 0; i < 100 && pool.leaksDetected() == 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assert pool.leaksDetected() == 1 : pool.leaksDetected();
+    }
+
+    @Test
+    public void leaksDetected_readerClosed_reportNothing() throws IOException, InterruptedException {
+        CharBufferPool pool = CharBufferPool.create(1 << 16, true);
+        ReplaceSpec spec = ReplaceSpec.of("\\d+", "#").withBufferPool(pool);
+        spec.newReader(new StringReader("ab12cd")).close();
+
+        System.gc();
+        Thread.sleep(50);
+
+        assert pool.leaksDetected() == 0 : pool.leaksDetected();
+    }
+}
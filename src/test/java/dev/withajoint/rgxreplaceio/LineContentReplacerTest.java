@@ -0,0 +1,41 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+public class LineContentReplacerTest {
+
+    @Test
+    public void replacement_lastLineWithoutTerminator_markLineIncomplete() {
+        LineContentReplacer replacer = new LineContentReplacer(new BufferContentReplacer("\\d+", "#"));
+        char[] buffer = "a1\nb2".toCharArray();
+
+        char[] result = replacer.replaceMatchesIfAny(buffer, buffer.length, false);
+
+        assert new String(result, 0, replacer.getCharsAfterReplacement()).equals("a#\nb2");
+        assert replacer.isLastMatchIncomplete();
+        assert replacer.getIncompleteMatchStartIndex() == 3;
+        assert replacer.getMatchesReplaced() == 1;
+    }
+
+    @Test
+    public void replacement_carriageReturnAtEndOfBuffer_keepItWithIncompleteLine() {
+        LineContentReplacer replacer = new LineContentReplacer(new BufferContentReplacer("\\d+", "#"));
+        char[] buffer = "a1\r".toCharArray();
+
+        replacer.replaceMatchesIfAny(buffer, buffer.length, false);
+
+        assert replacer.getIncompleteMatchStartIndex() == 0;
+        assert replacer.getMatchesReplaced() == 0;
+    }
+
+    @Test
+    public void replacement_endOfInput_replaceLastLine() {
+        LineContentReplacer replacer = new LineContentReplacer(new BufferContentReplacer("b$", "#"));
+        char[] buffer = "ab\r\nab".toCharArray();
+
+        char[] result = replacer.replaceMatchesIfAny(buffer, buffer.length, true);
+
+        assert new String(result, 0, replacer.getCharsAfterReplacement()).equals("a#\r\na#");
+        assert !replacer.isLastMatchIncomplete();
+    }
+}
@@ -0,0 +1,128 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import java.util.regex.Pattern;
+
+public class LiteralContentReplacerTest {
+
+    @Test
+    public void literalExtraction_regexWithoutMetacharacters_returnRegex() {
+        String result = LiteralContentReplacer.extractLiteral("error-code 42");
+
+        assert "error-code 42".equals(result);
+    }
+
+    @Test
+    public void literalExtraction_quotedRegex_returnQuotedContent() {
+        String literal = "a.b\\Ec*";
+
+        String result = LiteralContentReplacer.extractLiteral(Pattern.quote(literal));
+
+        assert literal.equals(result) : result;
+    }
+
+    @Test
+    public void literalExtraction_escapedMetacharacter_returnLiteral() {
+        String result = LiteralContentReplacer.extractLiteral("1\\.5\\$");
+
+        assert "1.5$".equals(result);
+    }
+
+    @Test
+    public void literalExtraction_regexWithMetacharacters_returnNull() {
+        assert LiteralContentReplacer.extractLiteral("a+b") == null;
+        assert LiteralContentReplacer.extractLiteral("\\d") == null;
+    }
+
+    @Test
+    public void replacement_literalFound_replaceEveryOccurrence() {
+        char[] buffer = "abcabxabc".toCharArray();
+        char[] expected = "XabxX".toCharArray();
+        LiteralContentReplacer contentReplacer = new LiteralContentReplacer("abc", "X");
+
+        char[] bufferReplaced = contentReplacer.replaceMatchesIfAny(buffer, buffer.length, true);
+        int charsInBuffer = contentReplacer.getCharsAfterReplacement();
+
+        assertReplacement(expected, bufferReplaced, charsInBuffer);
+    }
+
+    @Test
+    public void incompleteMatchState_literalPrefixAtEndOfBuffer_returnStartingIndex() {
+        char[] buffer = "xxabcxab".toCharArray();
+        int expectedStartIndex = 4;
+        LiteralContentReplacer contentReplacer = new LiteralContentReplacer("abc", "Y");
+
+        contentReplacer.replaceMatchesIfAny(buffer, buffer.length, false);
+
+        assert contentReplacer.isLastMatchIncomplete();
+        assert contentReplacer.getIncompleteMatchStartIndex() == expectedStartIndex;
+    }
+
+    @Test
+    public void incompleteMatchState_completeLiteralAtEndOfBuffer_replaceLiteral() {
+        char[] buffer = "xxabc".toCharArray();
+        char[] expected = "xxY".toCharArray();
+        LiteralContentReplacer contentReplacer = new LiteralContentReplacer("abc", "Y");
+
+        char[] bufferReplaced = contentReplacer.replaceMatchesIfAny(buffer, buffer.length, false);
+        int charsInBuffer = contentReplacer.getCharsAfterReplacement();
+
+        assert !contentReplacer.isLastMatchIncomplete();
+        assertReplacement(expected, bufferReplaced, charsInBuffer);
+    }
+
+    @Test
+    public void replacement_sameResultAsRegexReplacement() {
+        String input = "aaaabaaab aab ab b aaaab";
+        char[] buffer = input.toCharArray();
+        LiteralContentReplacer contentReplacer = new LiteralContentReplacer("aab", "#");
+
+        char[] bufferReplaced = contentReplacer.replaceMatchesIfAny(buffer, buffer.length, true);
+        String result = new String(bufferReplaced, 0, contentReplacer.getCharsAfterReplacement());
+
+        assert input.replace("aab", "#").equals(result) : result;
+    }
+
+    @Test
+    public void compilation_quotedWhitespaceRegex_replaceWhitespaceLiteral() {
+        for (String regex : new String[]{Pattern.quote(" "), "\\ "}) {
+            char[] buffer = "a b c".toCharArray();
+            ContentReplacer contentReplacer = RegexEngine.JDK.compile(regex, "_").get();
+
+            char[] bufferReplaced = contentReplacer.replaceMatchesIfAny(buffer, buffer.length, true);
+            String result = new String(bufferReplaced, 0, contentReplacer.getCharsAfterReplacement());
+
+            assert contentReplacer instanceof LiteralContentReplacer : regex;
+            assert "a_b_c".equals(result) : result;
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void compilation_blankRegex_throwException() {
+        RegexEngine.JDK.compile("  ", "_");
+    }
+
+    @Test
+    public void writeMatchesReplaced_literalPrefixAtEndOfBuffer_writeOnlyResolvedContent() throws IOException {
+        char[] buffer = "abcxabcxab".toCharArray();
+        StringWriter out = new StringWriter();
+        LiteralContentReplacer contentReplacer = new LiteralContentReplacer("abc", "YY");
+
+        int resolvedChars = contentReplacer.writeMatchesReplaced(buffer, 0, buffer.length, false, out);
+
+        assert "YYxYYx".equals(out.toString()) : out;
+        assert resolvedChars == 8 : resolvedChars;
+        assert contentReplacer.getCharsAfterReplacement() == 6;
+        assert contentReplacer.getMatchesReplaced() == 2;
+    }
+
+    private void assertReplacement(char[] expectedBuffer, char[] bufferReplaced, int charsInBuffer) {
+        assert expectedBuffer.length == charsInBuffer;
+        for (int i = 0; i < expectedBuffer.length; i++)
+            assert expectedBuffer[i] == bufferReplaced[i];
+    }
+}
@@ -0,0 +1,25 @@
+package dev.withajoint.rgxreplaceio;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+public class MicrometerReplaceMetricsTest {
+
+    @Test
+    public void read_registryAdapterAttached_recordMeters() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReplaceReader reader = new ReplaceReader(new StringReader("ab12345678cd9"), "\\d+", "#", 4, 64, RegexEngine.JDK,
+                new MicrometerReplaceMetrics(registry));
+
+        while (reader.read() != -1) ;
+
+        assert registry.get("rgxreplace.chars.in").counter().count() == 13;
+        assert registry.get("rgxreplace.chars.out").counter().count() == 6;
+        assert registry.get("rgxreplace.matches.replaced").counter().count() == 2;
+        assert registry.get("rgxreplace.buffer.growths").summary().count() > 0;
+        assert registry.get("rgxreplace.replacement.time").timer().count() > 0;
+    }
+}
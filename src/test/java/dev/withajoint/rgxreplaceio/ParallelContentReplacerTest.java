@@ -0,0 +1,90 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelContentReplacerTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private Path in;
+    private Path out;
+
+    @BeforeMethod
+    public void createFiles() throws IOException {
+        in = Files.createTempFile("rgxreplace-in", ".txt");
+        out = Files.createTempFile("rgxreplace-out", ".txt");
+    }
+
+    @AfterMethod
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(in);
+        Files.deleteIfExists(out);
+    }
+
+    @AfterClass
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @DataProvider
+    public Object[][] patternsAcrossChunks() {
+        return new Object[][]{
+                {"id=\\d+", "id=12345; name=café; id=678; id=9\n"},
+                {"a|ab", "abab aab b "},
+                {"x*", "abxxc"},
+                {"aaa", "aaaaaaa b "},
+                {"\\bcat\\b", "cat concat cat_ cat. "},
+                {"^start|end$", "start middle end"},
+                {"é+", "cafééé "},
+        };
+    }
+
+    @Test(dataProvider = "patternsAcrossChunks")
+    public void replace_smallChunks_sameResultAsSequentialReplacement(String regex, String line) throws IOException {
+        String content = line.repeat(40);
+        Files.writeString(in, content);
+
+        RgxReplaceFiles.replace(in, out, new ParallelContentReplacer(regex, "<#>", ByteEncoding.UTF_8, 8, 7, pool));
+
+        String expected = content.replaceAll(regex, "<#>");
+        String result = Files.readString(out);
+        assert expected.equals(result) : "expected: " + expected + " result: " + result;
+    }
+
+    @Test
+    public void replace_groupReferences_sameResultAsSequentialReplacement() throws IOException {
+        String content = "id=12345; name=café; id=678; id=9\n".repeat(40);
+        Files.writeString(in, content);
+
+        RgxReplaceFiles.replace(in, out, new ParallelContentReplacer("(\\w+)=(?<value>[^;\\n]+)", "${value}<-$1",
+                ByteEncoding.UTF_8, 16, 7, pool));
+
+        String expected = content.replaceAll("(\\w+)=(?<value>[^;\\n]+)", "${value}<-$1");
+        String result = Files.readString(out);
+        assert expected.equals(result) : "expected: " + expected + " result: " + result;
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void replace_matchLongerThanMaxMatchLength_throwException() throws IOException {
+        Files.writeString(in, "ab" + "1".repeat(100) + "cd");
+
+        RgxReplaceFiles.replace(in, out, new ParallelContentReplacer("\\d+", "#", ByteEncoding.UTF_8, 8, 16, pool));
+    }
+
+    @Test
+    public void replaceInParallel_defaultChunks_replaceEveryMatch() throws IOException {
+        Files.writeString(in, "abc123defg45");
+
+        RgxReplaceFiles.replaceInParallel(in, out, "\\d+", "#", 64);
+
+        assert "abc#defg#".equals(Files.readString(out));
+    }
+}
@@ -0,0 +1,175 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ReadAheadReaderTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void instantiation_depthLessThanOrEqualTo0_throwException() {
+        ReplaceSpec.of("\\d+", "#").newReadAheadReader(new StringReader("abc"), 0);
+    }
+
+    @Test
+    public void read_inputSpanningManyChunks_sameResultAsStringReplace() throws IOException {
+        String input = "id=12345; name=abc; id=678\n".repeat(2000);
+        ReplaceSpec spec = ReplaceSpec.of("id=\\d+", "id=#", 64, 1024, RegexEngine.JDK);
+        StringBuilder result = new StringBuilder();
+        char[] chunk = new char[100];
+
+        try (Reader reader = spec.newReadAheadReader(new StringReader(input), 3)) {
+            int c;
+            while ((c = reader.read()) != -1) {
+                result.append((char) c);
+                int charsRead = reader.read(chunk, 0, chunk.length);
+                if (charsRead == -1)
+                    break;
+                result.append(chunk, 0, charsRead);
+            }
+            assert reader.read() == -1;
+        }
+
+        assert result.toString().equals(input.replaceAll("id=\\d+", "id=#"));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void read_replacementFailsInBackground_rethrowFailure() throws IOException {
+        ReplaceSpec spec = ReplaceSpec.of("a\\d+", "#", 4, 8, RegexEngine.JDK);
+        Reader reader = spec.newReadAheadReader(new StringReader("a12345678901234567890"), 2);
+
+        while (reader.read() != -1) ;
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void read_underlyingReaderFails_rethrowFailure() throws IOException {
+        Reader failingReader = new Reader() {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("disk gone");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Reader reader = ReplaceSpec.of("\\d+", "#").newReadAheadReader(failingReader, 2);
+
+        reader.read();
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void read_afterClose_throwException() throws IOException {
+        Reader reader = ReplaceSpec.of("\\d+", "#").newReadAheadReader(new StringReader("abc"), 2);
+        reader.close();
+
+        reader.read();
+    }
+
+    @Test
+    public void close_producerWaitingForFreeSlot_stopProducerThread() throws IOException, InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        ReplaceSpec spec = ReplaceSpec.of("\\d+", "#", 16, 64, RegexEngine.JDK);
+        Reader reader = spec.newReadAheadReader(new StringReader("abc1".repeat(1000)), 2, runnable -> {
+            Thread thread = new Thread(runnable);
+            threads.add(thread);
+            return thread;
+        });
+        reader.read();
+
+        reader.close();
+
+        threads.get(0).join(5000);
+        assert !threads.get(0).isAlive();
+    }
+
+    @Test
+    public void close_producerBlockedOnSlowSource_closeSourceOnceOnProducerThread() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        SlowReader slowReader = new SlowReader(null);
+        Reader reader = ReplaceSpec.of("\\d+", "#").newReadAheadReader(slowReader, 2, runnable -> {
+            Thread thread = new Thread(runnable);
+            threads.add(thread);
+            return thread;
+        });
+        assert slowReader.readStarted.await(5, TimeUnit.SECONDS);
+
+        reader.close();
+
+        assert !threads.get(0).isAlive();
+        assert slowReader.closingThreads.size() == 1 : slowReader.closingThreads;
+        assert slowReader.closingThreads.get(0) == threads.get(0);
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "close failed")
+    public void close_sourceCloseFails_rethrowFailure() throws Exception {
+        SlowReader slowReader = new SlowReader(new IOException("close failed"));
+        Reader reader = ReplaceSpec.of("\\d+", "#").newReadAheadReader(slowReader, 2);
+        assert slowReader.readStarted.await(5, TimeUnit.SECONDS);
+
+        reader.close();
+    }
+
+    @Test
+    public void close_consumerWaitingForChunk_readThrows() throws Exception {
+        SlowReader slowReader = new SlowReader(null);
+        Reader reader = ReplaceSpec.of("\\d+", "#").newReadAheadReader(slowReader, 2);
+        AtomicReference<Throwable> readFailure = new AtomicReference<>();
+        Thread consumer = new Thread(() -> {
+            try {
+                reader.read();
+            } catch (Throwable e) {
+                readFailure.set(e);
+            }
+        });
+        consumer.start();
+        assert slowReader.readStarted.await(5, TimeUnit.SECONDS);
+        while (consumer.getState() != Thread.State.WAITING && consumer.isAlive())
+            Thread.onSpinWait();
+
+        reader.close();
+
+        consumer.join(5000);
+        assert !consumer.isAlive();
+        assert readFailure.get() instanceof IOException : readFailure.get();
+    }
+
+    private static final class SlowReader extends Reader {
+
+        private final CountDownLatch readStarted = new CountDownLatch(1);
+        private final CountDownLatch neverReleased = new CountDownLatch(1);
+        private final List<Thread> closingThreads = new CopyOnWriteArrayList<>();
+        private final IOException closeFailure;
+
+        private SlowReader(IOException closeFailure) {
+            this.closeFailure = closeFailure;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            readStarted.countDown();
+            try {
+                neverReleased.await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closingThreads.add(Thread.currentThread());
+            if (closeFailure != null)
+                throw closeFailure;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.regex.Pattern;
+
+public class RegexPrefilterTest {
+
+    @Test
+    public void analysis_literalPrefix_findOnlyFirstLiteralChar() {
+        RegexPrefilter prefilter = prefilterOf("error-\\d+");
+        String content = "ok rr e error";
+
+        assert prefilter.nextCandidate(content, 0, content.length()) == 6;
+        assert prefilter.nextCandidate(content, 7, content.length()) == 8;
+        assert prefilter.nextCandidate(content, 9, content.length()) == -1;
+    }
+
+    @Test
+    public void analysis_alternationOfGroupsAndClasses_findEveryLeadingChar() {
+        RegexPrefilter prefilter = prefilterOf("(?:ab|[x-z]c)+|\\Qq.\\E|\\x41");
+        String content = "-a-y-q-A-b";
+
+        String result = candidates(prefilter, content);
+
+        assert "ayqA".equals(result) : result;
+    }
+
+    @Test
+    public void analysis_leadingCharsAcrossContentTypes_findSamePositions() {
+        RegexPrefilter prefilter = prefilterOf("[0-9a-f]{2}x");
+        String content = "zz1zzfz";
+        CharArraySequence arrayContent = new CharArraySequence();
+        arrayContent.reset(content.toCharArray(), content.length());
+
+        assert prefilter.nextCandidate(content, 0, content.length()) == 2;
+        assert prefilter.nextCandidate(arrayContent, 0, content.length()) == 2;
+        assert prefilter.nextCandidate(arrayContent, 3, content.length()) == 5;
+    }
+
+    @Test
+    public void analysis_firstAtomMayBeSkipped_noPrefilter() {
+        assert RegexPrefilter.of(Pattern.compile("a?b")) == null;
+        assert RegexPrefilter.of(Pattern.compile("(ab)*c")) == null;
+        assert RegexPrefilter.of(Pattern.compile("a{0,2}b")) == null;
+        assert RegexPrefilter.of(Pattern.compile("ab|")) == null;
+    }
+
+    @Test
+    public void analysis_unknownLeadingChars_noPrefilter() {
+        assert RegexPrefilter.of(Pattern.compile(".+x")) == null;
+        assert RegexPrefilter.of(Pattern.compile("^ab")) == null;
+        assert RegexPrefilter.of(Pattern.compile("[^a]b")) == null;
+        assert RegexPrefilter.of(Pattern.compile("(?i)ab")) == null;
+        assert RegexPrefilter.of(Pattern.compile("(?<=a)b")) == null;
+        assert RegexPrefilter.of(Pattern.compile("\\bab")) == null;
+        assert RegexPrefilter.of(Pattern.compile("ab", Pattern.CASE_INSENSITIVE)) == null;
+    }
+
+    @Test
+    public void analysis_tooManyLeadingChars_noPrefilter() {
+        assert RegexPrefilter.of(Pattern.compile("\\w+")) == null;
+        assert RegexPrefilter.of(Pattern.compile("[a-z]+")) != null;
+        assert RegexPrefilter.of(Pattern.compile("[a-zA-Z]+")) == null;
+    }
+
+    @Test
+    public void replacement_longerAlternativeStartsBeforeMatchAtBufferEnd_carryOverFromEarlierCandidate() {
+        char[] buffer = "xabz".toCharArray();
+        prefilterOf("x[a-z]*y|z");
+        BufferContentReplacer contentReplacer = new BufferContentReplacer("x[a-z]*y|z", "R");
+
+        contentReplacer.replaceMatchesIfAny(buffer, buffer.length);
+
+        assert contentReplacer.getMatchesReplaced() == 0;
+        assert contentReplacer.getIncompleteMatchStartIndex() == 0 : contentReplacer.getIncompleteMatchStartIndex();
+    }
+
+    @Test
+    public void read_matchSpansSmallBuffers_replaceLeftmostMatch() throws IOException {
+        ReplaceReader reader = new ReplaceReader(new StringReader("xabzy-z"), "x[a-z]*y|z", "R", 4);
+        StringWriter out = new StringWriter();
+
+        reader.transferTo(out);
+
+        assert "R-R".equals(out.toString()) : out;
+    }
+
+    private RegexPrefilter prefilterOf(String regex) {
+        RegexPrefilter prefilter = RegexPrefilter.of(Pattern.compile(regex));
+        assert prefilter != null : regex;
+        return prefilter;
+    }
+
+    private String candidates(RegexPrefilter prefilter, String content) {
+        StringBuilder candidates = new StringBuilder();
+        int candidate = prefilter.nextCandidate(content, 0, content.length());
+        while (candidate != -1) {
+            candidates.append(content.charAt(candidate));
+            candidate = prefilter.nextCandidate(content, candidate + 1, content.length());
+        }
+        return candidates.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public class ReplaceInputStreamTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void instantiation_bufferSizeLessThanOrEqualTo0_throwException() {
+        initStream("source", "uselessForThisTest", "", 0);
+    }
+
+    @Test
+    public void read_contentLongerThanBufferSize_readAllBytes() throws IOException {
+        String sourceContent = "abcdefgh";
+        InputStream in = initStream(sourceContent, "uselessForThisTest", "", 5);
+
+        String result = readByteByByte(in);
+
+        assertStringEqualityOutputDifferences(sourceContent, result);
+    }
+
+    @Test
+    public void readIntoBuffer_endOfStreamReached_returnMinus1() throws IOException {
+        InputStream in = initStream("", "uselessForThisTest", "", 8);
+
+        int bytesRead = in.read(new byte[10], 0, 10);
+
+        assert bytesRead == -1;
+    }
+
+    @Test
+    public void readIntoBuffer_matchSpansBufferBoundary_replaceMatch() throws IOException {
+        String expected = "abc#defg#";
+        InputStream in = initStream("abc123defg45", "\\d+", "#", 4);
+
+        String result = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+
+        assertStringEqualityOutputDifferences(expected, result);
+    }
+
+    @Test
+    public void readIntoBuffer_matchLongerThanBuffer_growBufferAndReplaceMatch() throws IOException {
+        String expected = "ab#cd";
+        InputStream in = initStream("ab12345678901234567890cd", "\\d+", "#", 4);
+
+        String result = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+
+        assertStringEqualityOutputDifferences(expected, result);
+    }
+
+    @Test
+    public void read_utf8NonAsciiRegexAndReplacement_replaceEncodedBytes() throws IOException {
+        String expected = "naïve → naïve, café → coffee";
+        InputStream in = initStream("naïve → naïve, café → café", "café$", "coffee", 8);
+
+        String result = readByteByByte(in);
+
+        assertStringEqualityOutputDifferences(expected, result);
+    }
+
+    @Test
+    public void read_utf8NegatedClassAcrossBufferBoundary_keepSequencesWhole() throws IOException {
+        String expected = "a#b#c";
+        InputStream in = initStream("a€b😀c", "[^abc]", "#", 5);
+
+        String result = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+
+        assertStringEqualityOutputDifferences(expected, result);
+    }
+
+    @Test
+    public void read_utf8GroupReference_copyCapturedBytes() throws IOException {
+        String expected = "«café» and «naïve»";
+        InputStream in = initStream("\"café\" and \"naïve\"", "\"([^\"]*)\"", "«$1»", 4);
+
+        String result = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+
+        assertStringEqualityOutputDifferences(expected, result);
+    }
+
+    @Test
+    public void read_latin1Encoding_matchRawBytes() throws IOException {
+        byte[] source = {0x01, (byte) 0xFF, (byte) 0xFE, 0x02};
+        InputStream in = new ReplaceInputStream(new ByteArrayInputStream(source), "\\xFF\\xFE", "\u0000", 8, ByteEncoding.LATIN_1);
+
+        byte[] result = in.readAllBytes();
+
+        assert result.length == 3 && result[0] == 0x01 && result[1] == 0 && result[2] == 0x02;
+    }
+
+    @Test
+    public void read_wordBoundaryAcrossBufferBoundary_matchOnlyWordStarts() throws IOException {
+        for (int bufferSize = 2; bufferSize <= 4; bufferSize++) {
+            InputStream in = initStream("1bab ab yab", "\\bab", "#", bufferSize);
+
+            String result = readByteByByte(in);
+
+            assertStringEqualityOutputDifferences("1bab # yab", result);
+        }
+    }
+
+    @Test
+    public void readIntoBuffer_lookBehindAcrossBufferBoundary_seePreviousBuffer() throws IOException {
+        for (int bufferSize = 2; bufferSize <= 4; bufferSize++) {
+            InputStream in = initStream("xyxy-y-xxy", "(?<=x)y", "#", bufferSize);
+
+            String result = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+
+            assertStringEqualityOutputDifferences("x#x#-y-xx#", result);
+        }
+    }
+
+    private String readByteByByte(InputStream in) throws IOException {
+        byte[] content = new byte[256];
+        int length = 0;
+        int readByte;
+        while ((readByte = in.read()) != -1)
+            content[length++] = (byte) readByte;
+        return new String(content, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private InputStream initStream(String source, String regex, String replaceWith, int bufferSize) {
+        return new ReplaceInputStream(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)), regex, replaceWith, bufferSize);
+    }
+
+    private void assertStringEqualityOutputDifferences(String expected, String result) {
+        assert expected.contentEquals(result) : "expected: " + expected + " result: " + result;
+    }
+}
@@ -0,0 +1,94 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+public class ReplaceOutputStreamTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void instantiation_bufferSizeLessThanOrEqualTo0_throwException() {
+        new ReplaceOutputStream(new ByteArrayOutputStream(), "uselessForThisTest", "", 0);
+    }
+
+    @Test
+    public void write_bytesExceedBufferLength_writeAllBytes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String expected = "abcdefgh";
+        OutputStream stream = new ReplaceOutputStream(out, "uselessForThisTest", "", 5);
+
+        writeByteByByteAndFlush(stream, expected);
+
+        assertStringEqualityOutputDifferences(expected, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_matchSpansBufferBoundary_writeReplacement() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String expected = "abc#defg#";
+        OutputStream stream = new ReplaceOutputStream(out, "\\d+", "#", 4);
+
+        writeByteByByteAndFlush(stream, "abc123defg45");
+
+        assertStringEqualityOutputDifferences(expected, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writeArray_contentLongerThanBuffer_replaceEveryMatch() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String expected = "x-€-y-€-z";
+        OutputStream stream = new ReplaceOutputStream(out, "euro", "€", 6);
+
+        stream.write("x-euro-y-euro-z".getBytes(StandardCharsets.UTF_8));
+        stream.close();
+
+        assertStringEqualityOutputDifferences(expected, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void flush_nothingWritten_writeNothing() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OutputStream stream = new ReplaceOutputStream(out, "x*", "#", 8);
+
+        stream.flush();
+
+        assert out.size() == 0;
+    }
+
+    @Test
+    public void write_wordBoundaryAcrossBufferBoundary_matchOnlyWordStarts() throws IOException {
+        for (int bufferSize = 2; bufferSize <= 4; bufferSize++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            OutputStream stream = new ReplaceOutputStream(out, "\\bab", "#", bufferSize);
+
+            writeByteByByteAndFlush(stream, "1bab ab yab");
+
+            assertStringEqualityOutputDifferences("1bab # yab", out.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void write_lookBehindAcrossBufferBoundary_seePreviousBuffer() throws IOException {
+        for (int bufferSize = 2; bufferSize <= 4; bufferSize++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            OutputStream stream = new ReplaceOutputStream(out, "(?<=x)y", "#", bufferSize);
+
+            writeByteByByteAndFlush(stream, "xyxy-y-xxy");
+
+            assertStringEqualityOutputDifferences("x#x#-y-xx#", out.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void writeByteByByteAndFlush(OutputStream stream, String content) throws IOException {
+        for (byte b : content.getBytes(StandardCharsets.UTF_8))
+            stream.write(b);
+        stream.flush();
+    }
+
+    private void assertStringEqualityOutputDifferences(String expected, String result) {
+        assert expected.contentEquals(result) : "expected: " + expected + " result: " + result;
+    }
+}
@@ -0,0 +1,224 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+public class ReplaceProcessorTest {
+
+    @Test
+    public void onNext_matchSplitAcrossChunks_emitReplacedContent() throws InterruptedException {
+        ReplaceProcessor processor = new ReplaceProcessor("\\d+", "#");
+        CollectingSubscriber<CharBuffer> subscriber = new CollectingSubscriber<>(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+
+        try (SubmissionPublisher<CharBuffer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            for (String chunk : new String[]{"ab12", "34cd", "5", "6ef7"})
+                publisher.submit(CharBuffer.wrap(chunk));
+        }
+
+        assert subscriber.await();
+        assert joinChars(subscriber.items).equals("ab#cd#ef#") : joinChars(subscriber.items);
+    }
+
+    @Test
+    public void request_demandExhausted_holdBackUpstreamRequests() {
+        ReplaceProcessor processor = new ReplaceProcessor("\\d+", "#");
+        CollectingSubscriber<CharBuffer> subscriber = new CollectingSubscriber<>(1);
+        RecordingSubscription upstream = new RecordingSubscription();
+        processor.subscribe(subscriber);
+        processor.onSubscribe(upstream);
+
+        processor.onNext(CharBuffer.wrap("ab1"));
+
+        assert upstream.requested == 1 : upstream.requested;
+        assert subscriber.items.size() == 1;
+        subscriber.subscription.request(1);
+        assert upstream.requested == 2 : upstream.requested;
+        processor.onNext(CharBuffer.wrap("2cd"));
+        processor.onComplete();
+        assert subscriber.completed;
+        assert joinChars(subscriber.items).equals("ab#cd") : joinChars(subscriber.items);
+    }
+
+    @Test
+    public void onNext_unresolvedChunk_requestNextChunk() {
+        ReplaceProcessor processor = new ReplaceProcessor("\\d+", "#");
+        CollectingSubscriber<CharBuffer> subscriber = new CollectingSubscriber<>(1);
+        RecordingSubscription upstream = new RecordingSubscription();
+        processor.subscribe(subscriber);
+        processor.onSubscribe(upstream);
+
+        processor.onNext(CharBuffer.wrap("12"));
+
+        assert subscriber.items.isEmpty();
+        assert upstream.requested == 2 : upstream.requested;
+    }
+
+    @Test
+    public void onNext_nativeEngineSpec_emitReplacedContent() {
+        ReplaceProcessor processor = new ReplaceProcessor(ReplaceSpec.of("a(b+)c", "<$1>", 4, 16, RegexEngine.NATIVE));
+        CollectingSubscriber<CharBuffer> subscriber = new CollectingSubscriber<>(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+        processor.onSubscribe(new RecordingSubscription());
+
+        processor.onNext(CharBuffer.wrap("xab"));
+        processor.onNext(CharBuffer.wrap("bbbbbbbbbbbbbbbbbbbbc"));
+        processor.onComplete();
+
+        assert joinChars(subscriber.items).equals("x<" + "b".repeat(21) + ">") : joinChars(subscriber.items);
+    }
+
+    @Test
+    public void onNext_unresolvedTailLongerThanMaxBufferSize_cancelUpstreamAndSignalError() {
+        ReplaceProcessor processor = new ReplaceProcessor(ReplaceSpec.of("\\d+", "#", 4, 8, RegexEngine.JDK));
+        CollectingSubscriber<CharBuffer> subscriber = new CollectingSubscriber<>(Long.MAX_VALUE);
+        RecordingSubscription upstream = new RecordingSubscription();
+        processor.subscribe(subscriber);
+        processor.onSubscribe(upstream);
+
+        processor.onNext(CharBuffer.wrap("ab12345678901234567890"));
+
+        assert upstream.cancelled;
+        assert subscriber.error instanceof IllegalStateException : subscriber.error;
+    }
+
+    @Test
+    public void onNext_lookBehindAcrossChunks_seePreviousChunk() {
+        assert replaceChunks("\\bab", "1", "ab").equals("1ab");
+        assert replaceChunks("(?<=x)y", "x", "y").equals("x#");
+        assert replaceChunks("\\Bc", "c", "c", "c").equals("c##");
+    }
+
+    @Test
+    public void onNext_chunkLongerThanMaxBufferSize_replaceWithoutGrowingPastMax() {
+        String chunk = "a1b2c3d4e5f6g7h8i9";
+
+        String result = replaceChunks(ReplaceSpec.of("\\d", "#", 4, 8, RegexEngine.JDK), chunk);
+
+        assert result.equals(chunk.replaceAll("\\d", "#")) : result;
+    }
+
+    @Test
+    public void request_nonPositive_signalError() {
+        ReplaceProcessor processor = new ReplaceProcessor("\\d+", "#");
+        CollectingSubscriber<CharBuffer> subscriber = new CollectingSubscriber<>(0);
+        processor.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        assert subscriber.error instanceof IllegalArgumentException : subscriber.error;
+    }
+
+    @Test
+    public void subscribe_secondSubscriber_signalError() {
+        ReplaceProcessor processor = new ReplaceProcessor("\\d+", "#");
+        processor.subscribe(new CollectingSubscriber<>(1));
+        CollectingSubscriber<CharBuffer> secondSubscriber = new CollectingSubscriber<>(1);
+
+        processor.subscribe(secondSubscriber);
+
+        assert secondSubscriber.error instanceof IllegalStateException : secondSubscriber.error;
+    }
+
+    @Test
+    public void cancel_downstreamCancels_cancelUpstream() {
+        ReplaceProcessor processor = new ReplaceProcessor("\\d+", "#");
+        CollectingSubscriber<CharBuffer> subscriber = new CollectingSubscriber<>(1);
+        RecordingSubscription upstream = new RecordingSubscription();
+        processor.subscribe(subscriber);
+        processor.onSubscribe(upstream);
+
+        subscriber.subscription.cancel();
+
+        assert upstream.cancelled;
+    }
+
+    private static String replaceChunks(String regex, String... chunks) {
+        return replaceChunks(ReplaceSpec.of(regex, "#"), chunks);
+    }
+
+    private static String replaceChunks(ReplaceSpec spec, String... chunks) {
+        ReplaceProcessor processor = new ReplaceProcessor(spec);
+        CollectingSubscriber<CharBuffer> subscriber = new CollectingSubscriber<>(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+        processor.onSubscribe(new RecordingSubscription());
+        for (String chunk : chunks)
+            processor.onNext(CharBuffer.wrap(chunk));
+        processor.onComplete();
+        assert subscriber.completed : subscriber.error;
+        return joinChars(subscriber.items);
+    }
+
+    private static String joinChars(List<CharBuffer> chunks) {
+        StringBuilder joined = new StringBuilder();
+        for (CharBuffer chunk : chunks)
+            joined.append(chunk);
+        return joined.toString();
+    }
+
+    static class CollectingSubscriber<T> implements Flow.Subscriber<T> {
+
+        final List<T> items = new ArrayList<>();
+        final CountDownLatch terminated = new CountDownLatch(1);
+        final long initialRequest;
+        Flow.Subscription subscription;
+        volatile boolean completed;
+        volatile Throwable error;
+
+        CollectingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        boolean await() throws InterruptedException {
+            return terminated.await(5, TimeUnit.SECONDS) && completed;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0)
+                subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+    }
+
+    static class RecordingSubscription implements Flow.Subscription {
+
+        long requested;
+        boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
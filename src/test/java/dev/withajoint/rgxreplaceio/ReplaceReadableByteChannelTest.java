@@ -0,0 +1,89 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+public class ReplaceReadableByteChannelTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void instantiation_bufferSizeLessThanOrEqualTo0_throwException() {
+        initChannel("source", "uselessForThisTest", "", 0);
+    }
+
+    @Test
+    public void read_endOfStreamReached_returnMinus1() throws IOException {
+        ReadableByteChannel channel = initChannel("", "uselessForThisTest", "", 8);
+
+        int bytesRead = channel.read(ByteBuffer.allocate(10));
+
+        assert bytesRead == -1;
+    }
+
+    @Test
+    public void read_heapBufferSmallerThanContent_replaceEveryMatch() throws IOException {
+        String expected = "abc#defg#";
+        ReadableByteChannel channel = initChannel("abc123defg45", "\\d+", "#", 4);
+
+        String result = readAll(channel, ByteBuffer.allocate(3));
+
+        assertStringEqualityOutputDifferences(expected, result);
+    }
+
+    @Test
+    public void read_lookBehindAcrossBufferBoundary_seePreviousBuffer() throws IOException {
+        for (int bufferSize = 2; bufferSize <= 4; bufferSize++) {
+            ReadableByteChannel channel = initChannel("xyxy-1bab ab-xxy", "(?<=x)y|\\bab", "#", bufferSize);
+
+            String result = readAll(channel, ByteBuffer.allocate(3));
+
+            assertStringEqualityOutputDifferences("x#x#-1bab #-xx#", result);
+        }
+    }
+
+    @Test
+    public void read_directBuffer_replaceEveryMatch() throws IOException {
+        String expected = "host=HOST port=1 host=HOST";
+        ReadableByteChannel channel = initChannel("host=db01 port=1 host=db02", "db0\\d", "HOST", 8);
+
+        String result = readAll(channel, ByteBuffer.allocateDirect(5));
+
+        assertStringEqualityOutputDifferences(expected, result);
+    }
+
+    @Test(expectedExceptions = ClosedChannelException.class)
+    public void read_closedChannel_throwException() throws IOException {
+        ReadableByteChannel channel = initChannel("abc", "b", "", 8);
+        channel.close();
+
+        channel.read(ByteBuffer.allocate(8));
+    }
+
+    private String readAll(ReadableByteChannel channel, ByteBuffer dst) throws IOException {
+        StringBuilder result = new StringBuilder();
+        byte[] bytes = new byte[dst.capacity()];
+        while (channel.read(dst) != -1) {
+            dst.flip();
+            int length = dst.remaining();
+            dst.get(bytes, 0, length);
+            result.append(new String(bytes, 0, length, StandardCharsets.UTF_8));
+            dst.clear();
+        }
+        return result.toString();
+    }
+
+    private ReadableByteChannel initChannel(String source, String regex, String replaceWith, int bufferSize) {
+        ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)));
+        return new ReplaceReadableByteChannel(in, regex, replaceWith, bufferSize);
+    }
+
+    private void assertStringEqualityOutputDifferences(String expected, String result) {
+        assert expected.contentEquals(result) : "expected: " + expected + " result: " + result;
+    }
+}
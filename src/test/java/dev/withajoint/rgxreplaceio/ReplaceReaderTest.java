@@ -5,6 +5,9 @@ import org.testng.annotations.Test;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class ReplaceReaderTest {
 
@@ -112,6 +115,191 @@ public class ReplaceReaderTest {
         assertStringEqualityOutputDifferences(expected, result.toString());
     }
 
+    @Test
+    public void readIntoBuffer_matchSpansBufferBoundary_replaceMatch() throws IOException {
+        String expected = "ab#cd#";
+        StringBuilder result = new StringBuilder();
+        ReplaceReader reader = initReader("ab123cd456", "\\d{3}", "#", 4);
+
+        readIntoBuffer(reader, 20, result);
+
+        assertStringEqualityOutputDifferences(expected, result.toString());
+    }
+
+    @Test
+    public void readIntoBuffer_readAgainAfterStoppingBeforeIncompleteMatch_readReplacedContent() throws IOException {
+        String expected = "abcdefghil";
+        StringBuilder result = new StringBuilder();
+        ReplaceReader reader = initReader("abcdefgh00", "\\d+", "il", 10);
+
+        readIntoBuffer(reader, 5, result);
+        readIntoBuffer(reader, 10, result);
+
+        assertStringEqualityOutputDifferences(expected, result.toString());
+    }
+
+    @Test
+    public void read_wholeBufferReplacedWithEmptyString_keepReading() throws IOException {
+        String expected = "bc";
+        StringBuilder result = new StringBuilder();
+        ReplaceReader reader = initReader("aaaaaabc", "a", "", 3);
+
+        readCharByChar(reader, result);
+
+        assertStringEqualityOutputDifferences(expected, result.toString());
+    }
+
+    @Test
+    public void readIntoBuffer_nativeEngineMatchLongerThanBuffer_replaceMatch() throws IOException {
+        String expected = "ab#cd";
+        StringBuilder result = new StringBuilder();
+        ReplaceReader reader = new ReplaceReader(new StringReader("ab1234567890123cd"), "\\d+", "#", 4, RegexEngine.NATIVE);
+
+        readIntoBuffer(reader, 20, result);
+
+        assertStringEqualityOutputDifferences(expected, result.toString());
+    }
+
+    @Test
+    public void read_nativeEngineMatchSpansBufferBoundary_replaceMatch() throws IOException {
+        String expected = "no ###-####### here";
+        StringBuilder result = new StringBuilder();
+        ReplaceReader reader = new ReplaceReader(new StringReader("no 333-4444444 here"),
+                "\\d{3}-\\d{7}\\b", "###-#######", 5, RegexEngine.NATIVE);
+
+        readCharByChar(reader, result);
+
+        assertStringEqualityOutputDifferences(expected, result.toString());
+    }
+
+    @Test
+    public void readIntoBuffer_matchLongerThanBuffer_growBufferAndReplaceMatch() throws IOException {
+        String expected = "ab#cd#";
+        StringBuilder result = new StringBuilder();
+        ReplaceReader reader = initReader("ab12345678901234567890cd42", "\\d+", "#", 4);
+
+        readIntoBuffer(reader, 30, result);
+
+        assertStringEqualityOutputDifferences(expected, result.toString());
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void read_matchLongerThanMaxBufferSize_throwException() throws IOException {
+        ReplaceReader reader = new ReplaceReader(new StringReader("ab12345678901234567890cd"), "\\d+", "#", 4, 8, RegexEngine.JDK);
+
+        readCharByChar(reader, new StringBuilder());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void instantiation_maxBufferSizeLessThanBufferSize_throwException() {
+        new ReplaceReader(new StringReader("source"), "\\d+", "#", 8, 4, RegexEngine.JDK);
+    }
+
+    @Test
+    public void readIntoBuffer_nativeEngineGroupReferences_replaceWithCapturedContent() throws IOException {
+        String expected = "12:k;3:j";
+        StringBuilder result = new StringBuilder();
+        ReplaceReader reader = new ReplaceReader(new StringReader("k=12;j=3"), "(\\w)=(?<value>\\d+)", "${value}:$1", 4, RegexEngine.NATIVE);
+
+        readIntoBuffer(reader, 20, result);
+
+        assertStringEqualityOutputDifferences(expected, result.toString());
+    }
+
+    @Test
+    public void readIntoBuffer_literalRegexWholeMatchReference_expandReplacement() throws IOException {
+        String expected = "[ab]c[ab]";
+        StringBuilder result = new StringBuilder();
+        ReplaceReader reader = initReader("abcab", "ab", "[$0]", 4);
+
+        readIntoBuffer(reader, 20, result);
+
+        assertStringEqualityOutputDifferences(expected, result.toString());
+    }
+
+    @Test
+    public void readIntoBuffer_matchReplacerAcrossBufferBoundary_appendComputedReplacement() throws IOException {
+        String expected = "id=<5> id=<13>";
+        StringBuilder result = new StringBuilder();
+        ReplaceReader reader = new ReplaceReader(new StringReader("id=abcde id=abcdefghijklm"), "id=([a-z]+)",
+                (match, sink) -> sink.append("id=<").append(Integer.toString(match.end(1) - match.start(1))).append('>'), 4);
+
+        readIntoBuffer(reader, 30, result);
+
+        assertStringEqualityOutputDifferences(expected, result.toString());
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void read_matchReplacerThrowsIOException_propagateException() throws IOException {
+        ReplaceReader reader = new ReplaceReader(new StringReader("abc"), "b", (match, sink) -> {
+            throw new IOException("lookup failed");
+        });
+
+        readCharByChar(reader, new StringBuilder());
+    }
+
+    @Test
+    public void readIntoBuffer_metricsAttached_countCharsMatchesAndGrowth() throws IOException {
+        RecordingMetrics metrics = new RecordingMetrics();
+        ReplaceReader reader = new ReplaceReader(new StringReader("ab12345678cd9"), "\\d+", "#", 4, 64, RegexEngine.JDK, metrics);
+
+        readIntoBuffer(reader, 20, new StringBuilder());
+
+        assert metrics.charsIn == 13 : metrics.charsIn;
+        assert metrics.charsOut == 6 : metrics.charsOut;
+        assert metrics.matchesReplaced == 2 : metrics.matchesReplaced;
+        assert metrics.bufferGrowths > 0 && metrics.incompleteMatches > 0 && metrics.carriedOverChars > 0;
+        assert metrics.bufferFills > 0 && metrics.replacementNanos > 0;
+    }
+
+    @Test
+    public void read_globalMetricsSet_attachToNewReaders() throws IOException {
+        RecordingMetrics metrics = new RecordingMetrics();
+        ReplaceMetrics.setGlobal(metrics);
+        try {
+            readCharByChar(initReader("a1b2", "\\d", "#"), new StringBuilder());
+        } finally {
+            ReplaceMetrics.setGlobal(ReplaceMetrics.NONE);
+        }
+
+        assert metrics.matchesReplaced == 2 : metrics.matchesReplaced;
+    }
+
+    @Test
+    public void readIntoBuffer_literalDictionary_replaceEveryLiteral() throws IOException {
+        String expected = "HOST asked CUSTOMER for HOST-2";
+        StringBuilder result = new StringBuilder();
+        Map<String, String> replacements = new LinkedHashMap<>();
+        replacements.put("db01.example.com", "HOST");
+        replacements.put("db01.example.com-2", "HOST-2");
+        replacements.put("customer-42", "CUSTOMER");
+        ReplaceReader reader = new ReplaceReader(new StringReader("db01.example.com asked customer-42 for db01.example.com-2"),
+                replacements, 4);
+
+        readIntoBuffer(reader, 50, result);
+
+        assertStringEqualityOutputDifferences(expected, result.toString());
+    }
+
+    @Test
+    public void readLine_carriageReturnAtEndOfBuffer_skipFollowingLineFeed() throws IOException {
+        ReplaceReader reader = initReader("abc\r\ndef", "uselessForThisTest", "", 4);
+
+        assertStringEqualityOutputDifferences("abc", reader.readLine());
+        assertStringEqualityOutputDifferences("def", reader.readLine());
+        assert reader.readLine() == null;
+    }
+
+    @Test
+    public void readLine_emptyLineBeforeLastLine_returnEmptyLine() throws IOException {
+        ReplaceReader reader = initReader("a\n\nb");
+
+        assertStringEqualityOutputDifferences("a", reader.readLine());
+        assertStringEqualityOutputDifferences("", reader.readLine());
+        assertStringEqualityOutputDifferences("b", reader.readLine());
+        assert reader.readLine() == null;
+    }
+
     @Test
     public void readLine_noCharsToRead_returnNull() throws IOException {
         ReplaceReader reader = initReader("");
@@ -331,6 +519,127 @@ public class ReplaceReaderTest {
         assert !result;
     }
 
+    @Test
+    public void transferTo_matchesAcrossBuffers_writeReplacedContent() throws IOException {
+        String source = "ab12345678901234567890cd42ef";
+        StringWriter out = new StringWriter();
+        ReplaceReader reader = initReader(source, "\\d+", "#", 4);
+
+        long charsTransferred = reader.transferTo(out);
+
+        assertStringEqualityOutputDifferences("ab#cd#ef", out.toString());
+        assert charsTransferred == 8 : charsTransferred;
+        assert reader.read() == -1;
+    }
+
+    @Test
+    public void transferTo_literalSplitAcrossBuffers_writeReplacedContent() throws IOException {
+        String source = "xxabcxxxabcabcxab";
+        StringWriter out = new StringWriter();
+        ReplaceReader reader = initReader(source, "abc", "Y", 4);
+
+        long charsTransferred = reader.transferTo(out);
+
+        assertStringEqualityOutputDifferences("xxYxxxYYxab", out.toString());
+        assert charsTransferred == 11 : charsTransferred;
+    }
+
+    @Test
+    public void transferTo_afterPartialRead_writeRemainingContent() throws IOException {
+        StringWriter out = new StringWriter();
+        ReplaceReader reader = initReader("ab1cd23456789ef", "\\d+", "#", 4);
+        StringBuilder result = new StringBuilder();
+        readCharByChar(reader, 3, result);
+
+        reader.transferTo(out);
+
+        assertStringEqualityOutputDifferences("ab#cd#ef", result.append(out).toString());
+    }
+
+    @Test
+    public void transferTo_nativeEngine_writeReplacedContent() throws IOException {
+        StringWriter out = new StringWriter();
+        ReplaceReader reader = new ReplaceReader(new StringReader("ab1234567890123cd"), "\\d+", "#", 4, RegexEngine.NATIVE);
+
+        reader.transferTo(out);
+
+        assertStringEqualityOutputDifferences("ab#cd", out.toString());
+    }
+
+    @Test
+    public void transferTo_metricsAttached_countCharsAndMatches() throws IOException {
+        RecordingMetrics metrics = new RecordingMetrics();
+        ReplaceReader reader = new ReplaceReader(new StringReader("ab12345678cd9"), "\\d+", "#", 4, 64, RegexEngine.JDK, metrics);
+
+        reader.transferTo(new StringWriter());
+
+        assert metrics.charsIn == 13 : metrics.charsIn;
+        assert metrics.charsOut == 6 : metrics.charsOut;
+        assert metrics.matchesReplaced == 2 : metrics.matchesReplaced;
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void transferTo_afterClose_throwException() throws IOException {
+        ReplaceReader reader = initReader("abc", "b", "#", 4);
+        reader.close();
+
+        reader.transferTo(new StringWriter());
+    }
+
+    @Test
+    public void read_longerAlternativeStartsBeforeMatchAtBufferEnd_replaceLeftmostMatch() throws IOException {
+        StringBuilder result = new StringBuilder();
+        ReplaceReader reader = initReader("xabzy", "(?<!0)x[a-z]*y|z", "R", 4);
+
+        readCharByChar(reader, result);
+
+        assertStringEqualityOutputDifferences("R", result.toString());
+    }
+
+    @Test
+    public void transferTo_longerAlternativeStartsBeforeMatchAtBufferEnd_replaceLeftmostMatch() throws IOException {
+        StringWriter out = new StringWriter();
+        ReplaceReader reader = initReader("xabzy", "x[a-z]*y|z", "R", 4);
+
+        reader.transferTo(out);
+
+        assertStringEqualityOutputDifferences("R", out.toString());
+    }
+
+    @Test
+    public void read_wordBoundaryAfterCarryOver_matchOnlyWholeWords() throws IOException {
+        for (int bufferSize = 2; bufferSize <= 6; bufferSize++) {
+            StringBuilder result = new StringBuilder();
+            ReplaceReader reader = initReader("yyab ab yab", "\\bab\\b", "#", bufferSize);
+
+            readCharByChar(reader, result);
+
+            assertStringEqualityOutputDifferences("yyab # yab", result.toString());
+        }
+    }
+
+    @Test
+    public void read_lookBehindOverReplacedMatch_seeOriginalChars() throws IOException {
+        for (int bufferSize = 3; bufferSize <= 6; bufferSize++) {
+            StringBuilder result = new StringBuilder();
+            ReplaceReader reader = initReader("a0ccc ccc", "\\Bc", "C", bufferSize);
+
+            readCharByChar(reader, result);
+
+            assertStringEqualityOutputDifferences("a0CCC cCC", result.toString());
+        }
+    }
+
+    @Test
+    public void transferTo_lookBehindAfterCarryOver_seeCharsAlreadyTransferred() throws IOException {
+        StringWriter out = new StringWriter();
+        ReplaceReader reader = initReader("ab-b-ab", "(?<=a)b", "#", 3);
+
+        reader.transferTo(out);
+
+        assertStringEqualityOutputDifferences("a#-b-a#", out.toString());
+    }
+
     private void assertStringEqualityOutputDifferences(String expected, String result) {
         assert expected.contentEquals(result) : "expected: " + expected + " result: " + result;
     }
@@ -356,6 +665,15 @@ public class ReplaceReaderTest {
         result.append(contentRead, 0, charsRead);
     }
 
+    @Test(expectedExceptions = IOException.class)
+    public void read_afterClose_throwException() throws IOException {
+        ReplaceReader reader = initReader("abc12", "\\d+", "#", 16);
+        reader.read();
+        reader.close();
+
+        reader.read();
+    }
+
     private ReplaceReader initReader(String source) {
         return initReader(source, "uselessForThisTest", "");
     }
@@ -371,4 +689,56 @@ public class ReplaceReaderTest {
     private ReplaceReader initReader(String source, String regex, String replaceWith, int bufferSize) {
         return new ReplaceReader(new StringReader(source), regex, replaceWith, bufferSize);
     }
+
+    static final class RecordingMetrics implements ReplaceMetrics {
+
+        int bufferFills;
+        int charsIn;
+        int charsOut;
+        int matchesReplaced;
+        int carriedOverChars;
+        int incompleteMatches;
+        int bufferGrowths;
+        long replacementNanos;
+
+        @Override
+        public void onBufferFill() {
+            bufferFills++;
+        }
+
+        @Override
+        public void onCharsIn(int chars) {
+            charsIn += chars;
+        }
+
+        @Override
+        public void onCharsOut(int chars) {
+            charsOut += chars;
+        }
+
+        @Override
+        public void onMatchesReplaced(int matches) {
+            matchesReplaced += matches;
+        }
+
+        @Override
+        public void onCarryOver(int chars) {
+            carriedOverChars += chars;
+        }
+
+        @Override
+        public void onIncompleteMatch() {
+            incompleteMatches++;
+        }
+
+        @Override
+        public void onBufferGrown(int bufferSize) {
+            bufferGrowths++;
+        }
+
+        @Override
+        public void onReplacementNanos(long nanos) {
+            replacementNanos += nanos;
+        }
+    }
 }
@@ -0,0 +1,154 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ReplaceSpecTest {
+
+    @Test
+    public void newReader_specSharedByReaders_replaceEachStreamIndependently() throws IOException {
+        ReplaceSpec spec = ReplaceSpec.of("\\d+", "#", 4, 64, RegexEngine.JDK);
+
+        ReplaceReader first = spec.newReader(new StringReader("ab12345"));
+        ReplaceReader second = spec.newReader(new StringReader("9cd"));
+
+        assert readAll(second).equals("#cd");
+        assert readAll(first).equals("ab#");
+    }
+
+    @Test
+    public void newWriter_nativeEngine_writeReplacement() throws IOException {
+        ReplaceSpec spec = ReplaceSpec.of("(\\d)(\\d)", "$2$1", 4, 64, RegexEngine.NATIVE);
+        StringWriter out = new StringWriter();
+
+        try (ReplaceWriter writer = spec.newWriter(out)) {
+            writer.write("a12b34");
+        }
+
+        assert out.toString().equals("a21b43") : out;
+    }
+
+    @Test
+    public void newReader_matchReplacerSpec_applyCallback() throws IOException {
+        ReplaceSpec spec = ReplaceSpec.of("\\d+", (match, sink) -> sink.append(String.valueOf(match.group().length())));
+
+        assert readAll(spec.newReader(new StringReader("a123b45"))).equals("a3b2");
+    }
+
+    @Test
+    public void newReader_dictionarySpec_replaceEveryLiteral() throws IOException {
+        ReplaceSpec spec = ReplaceSpec.of(Map.of("cat", "dog", "red", "blue"));
+
+        assert readAll(spec.newReader(new StringReader("red cat"))).equals("blue dog");
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void of_missingGroupReference_throwExceptionBeforeAnyStream() {
+        ReplaceSpec.of("\\d+", "$9");
+    }
+
+    @Test
+    public void newLineReader_patternCouldCrossLines_matchWithinEachLine() throws IOException {
+        ReplaceSpec spec = ReplaceSpec.of("\\s+", "_", 4, 64, RegexEngine.JDK);
+
+        String result = readAll(spec.newLineReader(new StringReader("a  b\n  c\r\nd \n")));
+
+        assert result.equals("a_b\n_c\r\nd_\n") : result;
+    }
+
+    @Test
+    public void newLineReader_lineAnchor_matchAtEveryLineStart() throws IOException {
+        ReplaceSpec spec = ReplaceSpec.of("^", "> ", 8, 64, RegexEngine.NATIVE);
+
+        ReplaceReader reader = spec.newLineReader(new StringReader("first\nsecond"));
+
+        assert reader.readLine().equals("> first");
+        assert reader.readLine().equals("> second");
+        assert reader.readLine() == null;
+    }
+
+    @Test
+    public void lines_parallelStream_keepLineOrder() {
+        StringBuilder input = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            input.append("line ").append(i).append(" id=").append(i * 7).append('\n');
+            expected.add("line " + i + " id=#");
+        }
+        ReplaceSpec spec = ReplaceSpec.of("id=\\d+", "id=#");
+
+        List<String> result;
+        try (Stream<String> lines = spec.lines(new StringReader(input.toString()))) {
+            result = lines.parallel().collect(Collectors.toList());
+        }
+
+        assert result.equals(expected);
+    }
+
+    @Test
+    public void cached_sameArguments_returnSameSpec() {
+        ReplaceSpec first = ReplaceSpec.cached("a+", "b", new BufferSizing(8, 16), RegexEngine.JDK);
+        ReplaceSpec second = ReplaceSpec.cached("a+", "b", new BufferSizing(8, 16), RegexEngine.JDK);
+
+        assert first == second;
+    }
+
+    @Test
+    public void cached_differentBufferSizing_returnDifferentSpecs() {
+        ReplaceSpec first = ReplaceSpec.cached("a+", "b", new BufferSizing(8, 16), RegexEngine.JDK);
+        ReplaceSpec second = ReplaceSpec.cached("a+", "b", new BufferSizing(8, 32), RegexEngine.JDK);
+
+        assert first != second;
+    }
+
+    @Test
+    public void get_moreSpecsThanCapacity_evictLeastRecentlyUsed() {
+        ReplaceSpecCache cache = new ReplaceSpecCache(2);
+        BufferSizing bufferSizing = new BufferSizing(8, 16);
+        ReplaceSpec first = cache.get("a", "", bufferSizing, RegexEngine.JDK);
+        cache.get("b", "", bufferSizing, RegexEngine.JDK);
+        cache.get("a", "", bufferSizing, RegexEngine.JDK);
+
+        cache.get("c", "", bufferSizing, RegexEngine.JDK);
+
+        assert cache.size() == 2;
+        assert cache.get("a", "", bufferSizing, RegexEngine.JDK) == first;
+    }
+
+    @Test
+    public void newReader_specSharedAcrossThreads_replaceEveryStream() throws Exception {
+        ReplaceSpec spec = ReplaceSpec.of("(\\w+)@example\\.com", "$1@redacted", 8, 64, RegexEngine.JDK);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String input = "mail user" + i + "@example.com now";
+                results.add(executor.submit(() -> readAll(spec.newReader(new StringReader(input)))));
+            }
+            for (int i = 0; i < results.size(); i++)
+                assert results.get(i).get().equals("mail user" + i + "@redacted now") : results.get(i).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String readAll(Reader reader) throws IOException {
+        StringBuilder result = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1)
+            result.append((char) c);
+        return result.toString();
+    }
+}
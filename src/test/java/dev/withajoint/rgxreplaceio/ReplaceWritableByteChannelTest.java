@@ -0,0 +1,90 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.Pipe;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+public class ReplaceWritableByteChannelTest {
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void instantiation_bufferSizeLessThanOrEqualTo0_throwException() {
+        new ReplaceWritableByteChannel(Channels.newChannel(new ByteArrayOutputStream()), "uselessForThisTest", "", 0);
+    }
+
+    @Test(expectedExceptions = IllegalBlockingModeException.class)
+    public void instantiation_nonBlockingChannel_throwException() throws IOException {
+        Pipe pipe = Pipe.open();
+        try (Pipe.SinkChannel sink = pipe.sink()) {
+            sink.configureBlocking(false);
+
+            new ReplaceWritableByteChannel(sink, "\\d+", "#");
+        } finally {
+            pipe.source().close();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalBlockingModeException.class)
+    public void write_channelSwitchedToNonBlocking_throwInsteadOfSpinning() throws IOException {
+        Pipe pipe = Pipe.open();
+        try (Pipe.SinkChannel sink = pipe.sink()) {
+            ReplaceWritableByteChannel channel = new ReplaceWritableByteChannel(sink, "\\d+", "#", 4);
+            sink.configureBlocking(false);
+
+            channel.write(ByteBuffer.wrap("abcdefgh".getBytes(StandardCharsets.UTF_8)));
+        } finally {
+            pipe.source().close();
+        }
+    }
+
+    @Test
+    public void write_directBufferLongerThanBuffer_replaceEveryMatch() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String expected = "abc#defg#";
+        WritableByteChannel channel = new ReplaceWritableByteChannel(Channels.newChannel(out), "\\d+", "#", 4);
+        byte[] content = "abc123defg45".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer src = ByteBuffer.allocateDirect(content.length).put(content).flip();
+
+        int bytesWritten = channel.write(src);
+        channel.close();
+
+        assert bytesWritten == content.length;
+        assertStringEqualityOutputDifferences(expected, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_lookBehindAcrossBufferBoundary_seePreviousBuffer() throws IOException {
+        for (int bufferSize = 2; bufferSize <= 4; bufferSize++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            WritableByteChannel channel = new ReplaceWritableByteChannel(Channels.newChannel(out), "(?<=x)y|\\bab", "#", bufferSize);
+
+            for (byte b : "xyxy-1bab ab-xxy".getBytes(StandardCharsets.UTF_8))
+                channel.write(ByteBuffer.wrap(new byte[]{b}));
+            channel.close();
+
+            assertStringEqualityOutputDifferences("x#x#-1bab #-xx#", out.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void flush_matchAtEndOfWrittenContent_writeReplacement() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String expected = "abc#";
+        ReplaceWritableByteChannel channel = new ReplaceWritableByteChannel(Channels.newChannel(out), "\\d+", "#", 16);
+
+        channel.write(ByteBuffer.wrap("abc12".getBytes(StandardCharsets.UTF_8)));
+        channel.flush();
+
+        assertStringEqualityOutputDifferences(expected, out.toString(StandardCharsets.UTF_8));
+    }
+
+    private void assertStringEqualityOutputDifferences(String expected, String result) {
+        assert expected.contentEquals(result) : "expected: " + expected + " result: " + result;
+    }
+}
@@ -50,6 +50,177 @@ public class ReplaceWriterTest {
         assertStringEqualityOutputDifferences(expected, out.toString());
     }
 
+    @Test
+    public void write_nativeEngine_writeReplacement() throws IOException {
+        StringWriter out = new StringWriter();
+        String expected = "abc#de";
+        ReplaceWriter writer = new ReplaceWriter(out, "\\d+", "#", 16, RegexEngine.NATIVE);
+
+        writeCharsAndFlush(writer, "abc12de".toCharArray());
+
+        assertStringEqualityOutputDifferences(expected, out.toString());
+    }
+
+    @Test
+    public void write_matchSpansFullBuffer_replaceMatchBeforeFlush() throws IOException {
+        StringWriter out = new StringWriter();
+        ReplaceWriter writer = initWriter(out, "\\d+", "#", 4);
+
+        for (char c : "ab123cdefgh".toCharArray())
+            writer.write(c);
+
+        assertStringEqualityOutputDifferences("ab#cdefg", out.toString());
+        writer.flush();
+        assertStringEqualityOutputDifferences("ab#cdefgh", out.toString());
+    }
+
+    @Test
+    public void write_matchLongerThanBuffer_growBufferAndReplaceMatch() throws IOException {
+        StringWriter out = new StringWriter();
+        String expected = "ab#cd#";
+        ReplaceWriter writer = initWriter(out, "\\d+", "#", 4);
+
+        writer.write("ab12345678901234567890cd42");
+        writer.flush();
+
+        assertStringEqualityOutputDifferences(expected, out.toString());
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void write_matchLongerThanMaxBufferSize_throwException() throws IOException {
+        ReplaceWriter writer = new ReplaceWriter(new StringWriter(), "\\d+", "#", 4, 8, RegexEngine.JDK);
+
+        writer.write("ab12345678901234567890cd");
+    }
+
+    @Test
+    public void write_matchReplacer_appendCapturedGroupSlice() throws IOException {
+        StringWriter out = new StringWriter();
+        String expected = "user=J*** user=M***";
+        ReplaceWriter writer = new ReplaceWriter(out, "user=(\\w+)",
+                (match, sink) -> sink.append("user=").append(match.group(1), 0, 1).append("***"), 8);
+
+        writer.write("user=John user=Mary");
+        writer.flush();
+
+        assertStringEqualityOutputDifferences(expected, out.toString());
+    }
+
+    @Test
+    public void write_metricsAttached_countCharsAndMatches() throws IOException {
+        ReplaceReaderTest.RecordingMetrics metrics = new ReplaceReaderTest.RecordingMetrics();
+        ReplaceWriter writer = new ReplaceWriter(new StringWriter(), "\\d+", "#", 4, 64, RegexEngine.JDK, metrics);
+
+        writer.write("ab12345678cd9");
+        writer.flush();
+
+        assert metrics.charsIn == 13 : metrics.charsIn;
+        assert metrics.charsOut == 6 : metrics.charsOut;
+        assert metrics.matchesReplaced == 2 : metrics.matchesReplaced;
+        assert metrics.bufferGrowths > 0;
+    }
+
+    @Test
+    public void writeArray_contentLongerThanBuffer_replaceEveryMatch() throws IOException {
+        StringWriter out = new StringWriter();
+        String expected = "abc#defg#hi#";
+        ReplaceWriter writer = initWriter(out, "\\d+", "#", 4);
+
+        writer.write("abc123defg45hi6".toCharArray(), 0, 15);
+        writer.flush();
+
+        assertStringEqualityOutputDifferences(expected, out.toString());
+    }
+
+    @Test
+    public void writeString_offsetAndLength_replaceOnlyWrittenPart() throws IOException {
+        StringWriter out = new StringWriter();
+        String expected = "b#c";
+        ReplaceWriter writer = initWriter(out, "\\d+", "#", 4);
+
+        writer.write("ab12cd", 1, 4);
+        writer.flush();
+
+        assertStringEqualityOutputDifferences(expected, out.toString());
+    }
+
+    @Test
+    public void close_contentStillBuffered_writeReplacedContent() throws IOException {
+        StringWriter out = new StringWriter();
+        String expected = "abc#";
+        ReplaceWriter writer = initWriter(out, "\\d+", "#", 16);
+
+        writer.write("abc12");
+        writer.close();
+
+        assertStringEqualityOutputDifferences(expected, out.toString());
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void write_afterClose_throwException() throws IOException {
+        ReplaceWriter writer = initWriter(new StringWriter(), "\\d+", "#", 16);
+        writer.close();
+
+        writer.write("abc");
+    }
+
+    @Test
+    public void close_calledTwice_closeOnlyOnce() throws IOException {
+        StringWriter out = new StringWriter();
+        ReplaceWriter writer = initWriter(out, "\\d+", "#", 16);
+        writer.write("abc1");
+
+        writer.close();
+        writer.close();
+
+        assertStringEqualityOutputDifferences("abc#", out.toString());
+    }
+
+    @Test
+    public void write_literalSplitAcrossBuffers_writeReplacedContent() throws IOException {
+        StringWriter out = new StringWriter();
+        ReplaceWriter writer = initWriter(out, "abc", "Y", 4);
+
+        writer.write("xxabcxxxabcabcxab");
+        writer.flush();
+
+        assertStringEqualityOutputDifferences("xxYxxxYYxab", out.toString());
+    }
+
+    @Test
+    public void write_longerAlternativeStartsBeforeMatchAtBufferEnd_replaceLeftmostMatch() throws IOException {
+        StringWriter out = new StringWriter();
+        ReplaceWriter writer = initWriter(out, "x[a-z]*y|z", "R", 4);
+
+        writeCharsAndFlush(writer, "xabzy".toCharArray());
+
+        assertStringEqualityOutputDifferences("R", out.toString());
+    }
+
+    @Test
+    public void write_wordBoundaryAfterCarryOver_matchOnlyWholeWords() throws IOException {
+        for (int bufferSize = 2; bufferSize <= 6; bufferSize++) {
+            StringWriter out = new StringWriter();
+            ReplaceWriter writer = initWriter(out, "\\bab\\b", "#", bufferSize);
+
+            writeCharsAndFlush(writer, "yyab ab yab".toCharArray());
+
+            assertStringEqualityOutputDifferences("yyab # yab", out.toString());
+        }
+    }
+
+    @Test
+    public void write_lookBehindOverReplacedMatch_seeOriginalChars() throws IOException {
+        for (int bufferSize = 3; bufferSize <= 6; bufferSize++) {
+            StringWriter out = new StringWriter();
+            ReplaceWriter writer = initWriter(out, "\\Bc", "C", bufferSize);
+
+            writeCharsAndFlush(writer, "a0ccc ccc".toCharArray());
+
+            assertStringEqualityOutputDifferences("a0CCC cCC", out.toString());
+        }
+    }
+
     private ReplaceWriter initWriter(Writer out) {
         return initWriter(out, "uselessForThisTest", "");
     }
@@ -0,0 +1,60 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+
+public class ReplacementTemplateTest {
+
+    @Test
+    public void compile_literalWithEscapes_singleLiteralSegment() {
+        ReplacementTemplate template = ReplacementTemplate.compile("a\\$1\\\\b", 1, Map.of());
+
+        assert template.segmentCount() == 1;
+        assert "a$1\\b".equals(template.literal(0));
+        assert !template.hasGroupReferences();
+    }
+
+    @Test
+    public void compile_numberedReferences_takeLongestValidGroupNumber() {
+        ReplacementTemplate template = ReplacementTemplate.compile("$11-$12", 11, Map.of());
+
+        assert template.segmentCount() == 4;
+        assert template.group(0) == 11;
+        assert "-".equals(template.literal(1));
+        assert template.group(2) == 1;
+        assert "2".equals(template.literal(3));
+    }
+
+    @Test
+    public void compile_namedReferenceOnJdkPattern_resolveGroupIndex() {
+        Pattern pattern = Pattern.compile("(?:x)(a)(?<=a)[(](?<name>b)\\((c)");
+
+        ReplacementTemplate template = ReplacementTemplate.compile("${name}", pattern);
+
+        assert template.group(0) == 2;
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void compile_unknownGroupName_throwException() {
+        ReplacementTemplate.compile("${missing}", Pattern.compile("(?<name>a)"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void compile_trailingBackslash_throwException() {
+        ReplacementTemplate.compile("a\\", 0, Map.of());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void compile_dollarWithoutGroup_throwException() {
+        ReplacementTemplate.compile("a$", 0, Map.of());
+    }
+
+    @Test
+    public void expand_wholeMatchReference_replaceWithMatch() {
+        ReplacementTemplate template = ReplacementTemplate.compile("<$0>", 0, Map.of());
+
+        assert "<ab>".equals(template.expand("ab"));
+    }
+}
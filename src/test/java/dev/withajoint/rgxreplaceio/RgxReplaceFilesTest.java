@@ -0,0 +1,149 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class RgxReplaceFilesTest {
+
+    private Path in;
+    private Path out;
+
+    @BeforeMethod
+    public void createFiles() throws IOException {
+        in = Files.createTempFile("rgxreplace-in", ".txt");
+        out = Files.createTempFile("rgxreplace-out", ".txt");
+    }
+
+    @AfterMethod
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(in);
+        Files.deleteIfExists(out);
+    }
+
+    @Test
+    public void replace_wholeFileInOneWindow_replaceEveryMatch() throws IOException {
+        Files.writeString(in, "abc123defg45");
+
+        RgxReplaceFiles.replace(in, out, "\\d+", "#");
+
+        assertStringEqualityOutputDifferences("abc#defg#", Files.readString(out));
+    }
+
+    @Test
+    public void replace_matchesSpanWindowBoundaries_sameResultAsStringReplace() throws IOException {
+        String content = "id=12345; name=café; id=678; id=9\n".repeat(50);
+        Files.writeString(in, content);
+
+        RgxReplaceFiles.replace(in, out, new MappedContentReplacer("id=\\d+|é", "<#>", ByteEncoding.UTF_8, 16));
+
+        assertStringEqualityOutputDifferences(content.replaceAll("id=\\d+|é", "<#>"), Files.readString(out));
+    }
+
+    @Test
+    public void replace_lookBehindAcrossWindowBoundaries_sameResultAsStringReplace() throws IOException {
+        String content = "xyxy-1bab ab-xxy yab\n".repeat(20);
+        Files.writeString(in, content);
+
+        RgxReplaceFiles.replace(in, out, new MappedContentReplacer("(?<=x)y|\\bab", "#", ByteEncoding.UTF_8, 3));
+
+        assertStringEqualityOutputDifferences(content.replaceAll("(?<=x)y|\\bab", "#"), Files.readString(out));
+    }
+
+    @Test
+    public void replace_emptyFile_writeEmptyFile() throws IOException {
+        Files.writeString(in, "");
+
+        RgxReplaceFiles.replace(in, out, "a", "b");
+
+        assert Files.size(out) == 0;
+    }
+
+    @Test
+    public void replace_existingLongerOutput_truncatePreviousContent() throws IOException {
+        Files.writeString(in, "aaaa");
+        Files.writeString(out, "previous content that is longer");
+
+        RgxReplaceFiles.replace(in, out, "a", "bb");
+
+        assertStringEqualityOutputDifferences("bbbbbbbb", Files.readString(out, StandardCharsets.UTF_8));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void replace_matchLongerThanWindow_throwException() throws IOException {
+        Files.writeString(in, "1234567890123456789");
+
+        RgxReplaceFiles.replace(in, out, new MappedContentReplacer("\\d+", "#", ByteEncoding.UTF_8, 8));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void replace_sameInputAndOutput_throwException() throws IOException {
+        RgxReplaceFiles.replace(in, in, "a", "b");
+    }
+
+    @Test
+    public void replaceAsync_matchesSpanChunkBoundaries_sameResultAsStringReplace() throws Exception {
+        String content = "id=12345; name=café; id=678; id=9\n".repeat(200);
+        Files.writeString(in, content);
+
+        FileReplacement replacement = RgxReplaceFiles.replaceAsync(in, out, "id=\\d+|é", "<#>", ByteEncoding.UTF_8, 16, 3)
+                .get(10, TimeUnit.SECONDS);
+
+        assertStringEqualityOutputDifferences(content.replaceAll("id=\\d+|é", "<#>"), Files.readString(out));
+        assert replacement.getReplacements() == 800 : replacement;
+        assert replacement.getBytesRead() == Files.size(in) : replacement;
+        assert replacement.getBytesWritten() == Files.size(out) : replacement;
+    }
+
+    @Test
+    public void replaceAsync_emptyFile_writeEmptyFile() throws Exception {
+        Files.writeString(in, "");
+        Files.writeString(out, "previous content");
+
+        FileReplacement replacement = RgxReplaceFiles.replaceAsync(in, out, "a", "b").get(10, TimeUnit.SECONDS);
+
+        assert Files.size(out) == 0;
+        assert replacement.getReplacements() == 0;
+    }
+
+    @Test
+    public void replaceAsync_matchLongerThanMaxBufferSize_completeExceptionally() throws IOException, InterruptedException {
+        Files.writeString(in, "a" + "1".repeat(BufferSizing.DEFAULT_MAX_SIZE * 2));
+
+        CompletableFuture<FileReplacement> replacement = RgxReplaceFiles.replaceAsync(in, out, "a\\d+", "#",
+                ByteEncoding.UTF_8, 64 * 1024, 2);
+
+        try {
+            replacement.get(10, TimeUnit.SECONDS);
+            assert false : "expected failure";
+        } catch (ExecutionException | TimeoutException e) {
+            assert e.getCause() instanceof IllegalStateException : e;
+        }
+    }
+
+    @Test
+    public void replaceAsync_missingInput_completeExceptionally() throws InterruptedException, TimeoutException {
+        Path missing = in.resolveSibling("missing-" + in.getFileName());
+
+        try {
+            RgxReplaceFiles.replaceAsync(missing, out, "a", "b").get(10, TimeUnit.SECONDS);
+            assert false : "expected failure";
+        } catch (ExecutionException e) {
+            assert e.getCause() instanceof NoSuchFileException : e.getCause();
+        }
+    }
+
+    private void assertStringEqualityOutputDifferences(String expected, String result) {
+        assert expected.contentEquals(result) : "expected: " + expected + " result: " + result;
+    }
+}
@@ -0,0 +1,110 @@
+package dev.withajoint.rgxreplaceio;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class StreamEventsTest {
+
+    private static final String BUFFER_REPLACEMENT = "dev.withajoint.rgxreplaceio.BufferReplacement";
+    private static final String BUFFER_RESIZE = "dev.withajoint.rgxreplaceio.BufferResize";
+    private static final String STREAM_SUMMARY = "dev.withajoint.rgxreplaceio.StreamSummary";
+
+    @Test
+    public void close_recordingEnabled_emitReaderEvents() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            ReplaceReader reader = new ReplaceReader(new StringReader("ab12345678cd9"), "\\d+", "#", 4);
+            while (reader.read() != -1) ;
+            reader.close();
+        });
+
+        RecordedEvent summary = single(events, STREAM_SUMMARY);
+        assert "\\d+".equals(summary.getString("pattern"));
+        assert summary.getLong("charsIn") == 13;
+        assert summary.getLong("charsOut") == 6;
+        assert summary.getLong("matchesReplaced") == 2;
+        assert summary.getInt("maxBufferSize") > 4;
+        assert events.stream().anyMatch(event -> event.getEventType().getName().equals(BUFFER_RESIZE));
+        assert events.stream().filter(event -> event.getEventType().getName().equals(BUFFER_REPLACEMENT))
+                .allMatch(event -> event.getLong("streamId") == summary.getLong("streamId"));
+    }
+
+    @Test
+    public void close_recordingEnabled_emitWriterSummary() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            ReplaceWriter writer = new ReplaceWriter(new StringWriter(), "\\d+", "#", 4);
+            writer.write("ab12cd3");
+            writer.close();
+        });
+
+        RecordedEvent summary = single(events, STREAM_SUMMARY);
+        assert summary.getLong("charsIn") == 7;
+        assert summary.getLong("charsOut") == 6;
+        assert summary.getLong("matchesReplaced") == 2;
+    }
+
+    @Test
+    public void beginReplacement_recordingDisabled_allocateNoEvent() {
+        StreamEvents events = new StreamEvents("\\d+", 4);
+
+        BufferReplacementEvent event = events.beginReplacement();
+        events.endReplacement(event, 4, 1, false);
+
+        assert event == null;
+    }
+
+    @Test
+    public void read_bufferReplacementDisabled_commitNoReplacementEvent() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            ReplaceReader reader = new ReplaceReader(new StringReader("ab12345678cd9"), "\\d+", "#", 4);
+            while (reader.read() != -1) ;
+            reader.close();
+        }, false);
+
+        assert single(events, STREAM_SUMMARY).getLong("matchesReplaced") == 2;
+        assert events.stream().noneMatch(event -> event.getEventType().getName().equals(BUFFER_REPLACEMENT));
+    }
+
+    private List<RecordedEvent> record(StreamAction action) throws IOException {
+        return record(action, true);
+    }
+
+    private List<RecordedEvent> record(StreamAction action, boolean bufferReplacementEnabled) throws IOException {
+        Path recordingFile = Files.createTempFile("rgxreplace", ".jfr");
+        try (Recording recording = new Recording()) {
+            if (bufferReplacementEnabled)
+                recording.enable(BUFFER_REPLACEMENT).withThreshold(Duration.ZERO);
+            recording.enable(BUFFER_RESIZE);
+            recording.enable(STREAM_SUMMARY);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(recordingFile);
+            return RecordingFile.readAllEvents(recordingFile);
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+    }
+
+    private RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+        assert matching.size() == 1 : matching;
+        return matching.get(0);
+    }
+
+    private interface StreamAction {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,57 @@
+package dev.withajoint.rgxreplaceio;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class Utf8RegexTranslatorTest {
+
+    @DataProvider
+    public Object[][] patternsMatchingCodePoints() {
+        return new Object[][]{
+                {"é+", "café éé cafe"},
+                {"caf.", "café cafe caf\n"},
+                {".", "aé€😀\n b"},
+                {"[^a-c]", "abcdé€"},
+                {"\\D+", "12é3€4"},
+                {"\\W", "a é_b"},
+                {"\\S+", "né  ü"},
+                {"\\u00e9|\\x{1F600}", "é😀e"},
+                {"\\Qé.\\E", "é. é, e."},
+                {"(?:€)?\\d+", "€12 34"},
+                {"\\bab\\b", "ab abc ab_ ab."},
+                {"[a-z]+\\d", "xé1 ab2"},
+        };
+    }
+
+    @Test(dataProvider = "patternsMatchingCodePoints")
+    public void translate_matchUtf8Bytes_sameResultAsCharMatching(String regex, String input) {
+        String expected = input.replaceAll(regex, "<#>");
+        String latin1View = new String(input.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+
+        String translatedResult = Pattern.compile(Utf8RegexTranslator.translate(regex))
+                .matcher(latin1View)
+                .replaceAll(Matcher.quoteReplacement("<#>"));
+
+        String result = new String(translatedResult.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+        assert expected.equals(result) : "expected: " + expected + " result: " + result;
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void translate_nonAsciiCharClassMember_throwException() {
+        Utf8RegexTranslator.translate("[àé]");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void translate_unicodePropertyClass_throwException() {
+        Utf8RegexTranslator.translate("\\p{L}+");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void translate_dotAllFlag_throwException() {
+        Utf8RegexTranslator.translate("(?s).+");
+    }
+}
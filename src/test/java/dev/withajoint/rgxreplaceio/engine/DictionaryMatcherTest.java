@@ -0,0 +1,88 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class DictionaryMatcherTest {
+
+    @DataProvider
+    public Object[][] chunkSizes() {
+        return new Object[][]{{1}, {2}, {3}, {100}};
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void compile_emptyLiteral_throwException() {
+        LiteralDictionary.compile(List.of("a", ""));
+    }
+
+    @Test(dataProvider = "chunkSizes")
+    public void replace_overlappingLiterals_replaceLeftmostLongest(int chunkSize) {
+        String expected = "<abcd>e<bc>x<ab>";
+
+        String result = replaceAll(List.of("ab", "abcd", "bc", "bcde"), "abcdebcxab", chunkSize);
+
+        assertStringEqualityOutputDifferences(expected, result);
+    }
+
+    @Test(dataProvider = "chunkSizes")
+    public void replace_literalInsideLongerCandidate_replaceLiteral(int chunkSize) {
+        String expected = "a<bc>d";
+
+        String result = replaceAll(List.of("abcde", "bc"), "abcd", chunkSize);
+
+        assertStringEqualityOutputDifferences(expected, result);
+    }
+
+    @Test(dataProvider = "chunkSizes")
+    public void replace_manyLiterals_replaceEveryOccurrence(int chunkSize) {
+        String expected = "<host-1> talked to <host-12> about <id-7>, not host-2";
+
+        String result = replaceAll(List.of("host-1", "host-12", "id-7"),
+                "host-1 talked to host-12 about id-7, not host-2", chunkSize);
+
+        assertStringEqualityOutputDifferences(expected, result);
+    }
+
+    @Test
+    public void replace_noMatches_pendingCharsStayBounded() {
+        DictionaryMatcher matcher = LiteralDictionary.compile(List.of("needle")).matcher();
+        StringBuilder result = new StringBuilder();
+        char[] input = "haystack nee".toCharArray();
+
+        matcher.feed(input, 0, input.length, replacingListener(result));
+
+        assert matcher.pendingChars() == 3;
+        assertStringEqualityOutputDifferences("haystack ", result.toString());
+    }
+
+    private String replaceAll(List<String> literals, String input, int chunkSize) {
+        DictionaryMatcher matcher = LiteralDictionary.compile(literals).matcher();
+        StringBuilder result = new StringBuilder();
+        MatchListener listener = replacingListener(result);
+        char[] chars = input.toCharArray();
+        for (int offset = 0; offset < chars.length; offset += chunkSize)
+            matcher.feed(chars, offset, Math.min(chunkSize, chars.length - offset), listener);
+        matcher.finish(listener);
+        return result.toString();
+    }
+
+    private MatchListener replacingListener(StringBuilder result) {
+        return new MatchListener() {
+            @Override
+            public void onText(char[] chars, int offset, int length) {
+                result.append(chars, offset, length);
+            }
+
+            @Override
+            public void onMatch(StreamMatch match) {
+                result.append('<').append(match.group()).append('>');
+            }
+        };
+    }
+
+    private void assertStringEqualityOutputDifferences(String expected, String result) {
+        assert expected.contentEquals(result) : "expected: " + expected + " result: " + result;
+    }
+}
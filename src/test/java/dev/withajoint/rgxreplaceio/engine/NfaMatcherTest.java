@@ -0,0 +1,132 @@
+package dev.withajoint.rgxreplaceio.engine;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.regex.Matcher;
+import java.util.regex.PatternSyntaxException;
+
+public class NfaMatcherTest {
+
+    @DataProvider
+    public Object[][] patternsSupportedByBothEngines() {
+        return new Object[][]{
+                {"\\d+", "abc 123 de 4 f 56789"},
+                {"a|ab", "abab aab b"},
+                {"ab|a", "abab aab b"},
+                {"x*", "abxxc"},
+                {"x*|a", "xxab"},
+                {"a+?b", "aaab ab b"},
+                {"\\bcat\\b", "cat concat cat_ cat."},
+                {"\\d{3}-\\d{7}\\b", "no 333-4444444 nor 333-44444445 but 555-1234567."},
+                {"[^a-c\\s]+", "abc def ghi\tjkl"},
+                {"(foo|bar)+baz", "foobarbaz foobaz barba bazfoo"},
+                {"colou?r", "color colour colouur"},
+                {"a{2,3}", "a aa aaa aaaa aaaaa"},
+                {"^ab", "abab"},
+                {"ab$", "abab"},
+                {"[\\w.]+@[\\w.]+", "mail me at john.doe@example.com or jane@x.org."},
+                {".", "ab\nc"},
+                {"\\Q.*\\E", "a.*b.*"},
+                {"(?:ab)*c", "ababc abc c ab"},
+                {"(?<word>[a-z]+)\\d", "abc1 d2 3"},
+        };
+    }
+
+    @Test(dataProvider = "patternsSupportedByBothEngines")
+    public void replace_charByChar_sameResultAsJdk(String regex, String input) {
+        String expected = input.replaceAll(regex, Matcher.quoteReplacement("<#>"));
+
+        String result = replaceAll(regex, input, "<#>", 1);
+
+        assertStringEqualityOutputDifferences(expected, result);
+    }
+
+    @Test(dataProvider = "patternsSupportedByBothEngines")
+    public void replace_wholeInputAtOnce_sameResultAsJdk(String regex, String input) {
+        String expected = input.replaceAll(regex, Matcher.quoteReplacement("<#>"));
+
+        String result = replaceAll(regex, input, "<#>", input.length());
+
+        assertStringEqualityOutputDifferences(expected, result);
+    }
+
+    @Test
+    public void replace_longMatch_pendingCharsStayBounded() {
+        NfaMatcher matcher = NfaPattern.compile("\\d+").matcher();
+        StringBuilder result = new StringBuilder();
+        MatchListener listener = replacingListener(result, "#");
+        char[] digits = "0123456789".toCharArray();
+
+        int maxPendingChars = 0;
+        for (int i = 0; i < 10000; i++) {
+            matcher.feed(digits, 0, digits.length, listener);
+            maxPendingChars = Math.max(maxPendingChars, matcher.pendingChars());
+        }
+        matcher.finish(listener);
+
+        assert maxPendingChars <= digits.length : "pending chars: " + maxPendingChars;
+        assertStringEqualityOutputDifferences("#", result.toString());
+    }
+
+    @Test
+    public void group_capturingMatcher_returnGroupText() {
+        NfaMatcher matcher = NfaPattern.compile("(\\w+)@(\\w+)").matcher(true);
+        StringBuilder result = new StringBuilder();
+        char[] input = "to joe@host now".toCharArray();
+
+        matcher.feed(input, 0, input.length, new MatchListener() {
+            @Override
+            public void onText(char[] chars, int offset, int length) {
+                result.append(chars, offset, length);
+            }
+
+            @Override
+            public void onMatch(StreamMatch match) {
+                result.append(match.group(2)).append(" at ").append(match.group(1));
+            }
+        });
+        matcher.finish(replacingListener(result, ""));
+
+        assertStringEqualityOutputDifferences("to host at joe now", result.toString());
+    }
+
+    @Test(expectedExceptions = PatternSyntaxException.class)
+    public void compile_lookahead_throwException() {
+        NfaPattern.compile("a(?=b)");
+    }
+
+    @Test(expectedExceptions = PatternSyntaxException.class)
+    public void compile_backReference_throwException() {
+        NfaPattern.compile("(a)\\1");
+    }
+
+    private String replaceAll(String regex, String input, String replacement, int chunkSize) {
+        NfaMatcher matcher = NfaPattern.compile(regex).matcher();
+        StringBuilder result = new StringBuilder();
+        MatchListener listener = replacingListener(result, replacement);
+        char[] chars = input.toCharArray();
+        for (int offset = 0; offset < chars.length; offset += chunkSize)
+            matcher.feed(chars, offset, Math.min(chunkSize, chars.length - offset), listener);
+        matcher.finish(listener);
+        return result.toString();
+    }
+
+    private MatchListener replacingListener(StringBuilder result, String replacement) {
+        return new MatchListener() {
+            @Override
+            public void onText(char[] chars, int offset, int length) {
+                result.append(chars, offset, length);
+            }
+
+            @Override
+            public void onMatch(StreamMatch match) {
+                result.append(replacement);
+            }
+        };
+    }
+
+    private void assertStringEqualityOutputDifferences(String expected, String result) {
+        assert expected.contentEquals(result) : "expected: " + expected + " result: " + result;
+    }
+}